@@ -0,0 +1,112 @@
+package com.kevinsarges.payflow_api.benchmarks;
+
+import com.kevinsarges.payflow_api.DTOs.PaymentRequestDTO;
+import com.kevinsarges.payflow_api.entities.Payment;
+import com.kevinsarges.payflow_api.entities.PaymentMethod;
+import com.kevinsarges.payflow_api.entities.PaymentStatus;
+import com.kevinsarges.payflow_api.repositories.PaymentEventRepository;
+import com.kevinsarges.payflow_api.repositories.PaymentRepository;
+import com.kevinsarges.payflow_api.sevices.PaymentCache;
+import com.kevinsarges.payflow_api.sevices.PaymentMetrics;
+import com.kevinsarges.payflow_api.sevices.PaymentOutbox;
+import com.kevinsarges.payflow_api.sevices.PaymentProjection;
+import com.kevinsarges.payflow_api.sevices.PaymentService;
+import com.kevinsarges.payflow_api.sevices.PaymentStatsService;
+import com.kevinsarges.payflow_api.sevices.PendingPaymentIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+final class BenchmarkFixtures {
+    private static final Instant CRIADO_EM = Instant.parse("2026-01-15T12:00:00Z");
+
+    private BenchmarkFixtures() {
+    }
+
+    static PaymentRequestDTO request(int i) {
+        PaymentRequestDTO dto = new PaymentRequestDTO();
+        dto.setCodigoDebito(BigInteger.valueOf(i));
+        dto.setCpfCnpj(cpf(i));
+        dto.setMetodo(i % 2 == 0 ? "credito" : "pix");
+        dto.setNumeroCartao(i % 2 == 0 ? "4111111111111111" : null);
+        dto.setValor(BigDecimal.valueOf(100 + i % 1000, 2));
+        return dto;
+    }
+
+    static Payment payment(long id, PaymentStatus status) {
+        Payment payment = new Payment();
+        payment.setId(id);
+        payment.setCodigoDebito(BigInteger.valueOf(id));
+        payment.setCpfCnpj(cpf((int) id));
+        payment.setMetodo(PaymentMethod.CREDITO);
+        payment.setNumeroCartao("4111111111111111");
+        payment.setValor(BigDecimal.valueOf(19999, 2));
+        payment.setStatus(status);
+        payment.setVersion(0L);
+        payment.setCriadoEm(CRIADO_EM);
+        payment.setAtualizadoEm(CRIADO_EM);
+        return payment;
+    }
+
+    static String cpf(int i) {
+        return String.format("%011d", i);
+    }
+
+    // PaymentService sem banco: o repositório é um stub, então só a validação, o mapeamento e as regras são medidos
+    static PaymentService serviceWithoutDatabase(Supplier<Payment> findById) {
+        AtomicLong ids = new AtomicLong();
+        PaymentRepository repository = (PaymentRepository) Proxy.newProxyInstance(
+                PaymentRepository.class.getClassLoader(), new Class<?>[]{PaymentRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "save" -> {
+                        ((Payment) args[0]).setId(ids.incrementAndGet());
+                        yield args[0];
+                    }
+                    case "saveAll" -> args[0];
+                    case "findById" -> Optional.ofNullable(findById.get());
+                    case "transitionStatus" -> 1;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> null;
+                });
+        EntityManager entityManager = (EntityManager) Proxy.newProxyInstance(
+                EntityManager.class.getClassLoader(), new Class<?>[]{EntityManager.class},
+                (proxy, method, args) -> null);
+        PaymentEventRepository eventRepository = (PaymentEventRepository) Proxy.newProxyInstance(
+                PaymentEventRepository.class.getClassLoader(), new Class<?>[]{PaymentEventRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "save", "saveAll" -> args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> null;
+                });
+        PaymentCache cache = new PaymentCache(10_000, Duration.ofSeconds(30), Duration.ofMinutes(30),
+                1_000, Duration.ofSeconds(5), new SimpleMeterRegistry());
+
+        return new PaymentService(repository, entityManager,
+                Validation.buildDefaultValidatorFactory().getValidator(), cache,
+                new PaymentMetrics(new SimpleMeterRegistry()), new PaymentOutbox(eventRepository),
+                new PaymentStatsService(null, null, null, ZoneId.systemDefault()), null,
+                new PaymentProjection(null, null, null, null, null, false, 0, Duration.ZERO, new SimpleMeterRegistry()),
+                new PendingPaymentIndex(null, false, false, 0, new SimpleMeterRegistry()), new TransactionTemplate() {
+                    // Sem banco não há transação a abrir: cada fatia só executa
+                    @Override
+                    public <T> T execute(TransactionCallback<T> action) {
+                        return action.doInTransaction(new SimpleTransactionStatus());
+                    }
+                });
+    }
+}
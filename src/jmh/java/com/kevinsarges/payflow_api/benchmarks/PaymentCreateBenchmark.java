@@ -0,0 +1,45 @@
+package com.kevinsarges.payflow_api.benchmarks;
+
+import com.kevinsarges.payflow_api.DTOs.BulkPaymentResponseDTO;
+import com.kevinsarges.payflow_api.DTOs.PaymentRequestDTO;
+import com.kevinsarges.payflow_api.entities.Payment;
+import com.kevinsarges.payflow_api.sevices.PaymentService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PaymentCreateBenchmark {
+    private static final int BULK_SIZE = 500;
+
+    private PaymentService service;
+    private PaymentRequestDTO dto;
+    private List<PaymentRequestDTO> bulk;
+
+    @Setup
+    public void setup() {
+        service = BenchmarkFixtures.serviceWithoutDatabase(() -> null);
+        dto = BenchmarkFixtures.request(1);
+        bulk = new ArrayList<>(BULK_SIZE);
+        for (int i = 0; i < BULK_SIZE; i++) bulk.add(BenchmarkFixtures.request(i));
+    }
+
+    @Benchmark
+    public Payment create() {
+        return service.create(dto);
+    }
+
+    // Inclui a validação das constraints do DTO (jakarta.validation) que o controller faz via @Valid
+    @Benchmark
+    @OperationsPerInvocation(BULK_SIZE)
+    public BulkPaymentResponseDTO validateAndMapBulk() {
+        return service.createBulk(bulk);
+    }
+}
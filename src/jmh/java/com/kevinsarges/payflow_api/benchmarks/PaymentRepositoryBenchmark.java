@@ -0,0 +1,106 @@
+package com.kevinsarges.payflow_api.benchmarks;
+
+import com.kevinsarges.payflow_api.PayflowApiApplication;
+import com.kevinsarges.payflow_api.entities.Payment;
+import com.kevinsarges.payflow_api.entities.PaymentStatus;
+import com.kevinsarges.payflow_api.repositories.PaymentRepository;
+import com.kevinsarges.payflow_api.utils.CpfCnpj;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class PaymentRepositoryBenchmark {
+    private static final int SEED_BATCH = 10_000;
+    private static final String[] METODOS = {"BOLETO", "PIX", "CREDITO", "DEBITO"};
+
+    @Param({"1000000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private PaymentRepository repository;
+    private int payers;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = new SpringApplicationBuilder(PayflowApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:jmh;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN",
+                        "logging.level.org.hibernate.SQL=OFF",
+                        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=OFF"
+                )
+                .run();
+        repository = context.getBean(PaymentRepository.class);
+        payers = Math.max(1, rows / 20);
+        seed(context.getBean(JdbcTemplate.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<Payment> findById() {
+        return repository.findById(ThreadLocalRandom.current().nextLong(1, rows + 1));
+    }
+
+    @Benchmark
+    public Page<Payment> findByFiltersCpfCnpj() {
+        return repository.findByFilters(null, randomCpf(), null, PageRequest.of(0, 20));
+    }
+
+    @Benchmark
+    public Page<Payment> findByFiltersCpfCnpjAndStatus() {
+        return repository.findByFilters(null, randomCpf(), PaymentStatus.PENDENTE_PROCESSAMENTO, PageRequest.of(0, 20));
+    }
+
+    @Benchmark
+    public List<Payment> keysetPage() {
+        return repository.findAllAfter(ThreadLocalRandom.current().nextLong(rows), Limit.of(20));
+    }
+
+    private String randomCpf() {
+        return BenchmarkFixtures.cpf(ThreadLocalRandom.current().nextInt(payers));
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        PaymentStatus[] status = PaymentStatus.values();
+        Instant agora = Instant.now();
+
+        for (int offset = 0; offset < rows; offset += SEED_BATCH) {
+            List<Object[]> lote = new ArrayList<>(SEED_BATCH);
+            for (int i = offset; i < Math.min(rows, offset + SEED_BATCH); i++) {
+                String cpfCnpj = BenchmarkFixtures.cpf(i % payers);
+                lote.add(new Object[]{i + 1L, BigInteger.valueOf(i), cpfCnpj, CpfCnpj.normalize(cpfCnpj),
+                        METODOS[i % METODOS.length], "4111111111111111", 100, status[(i / 7) % status.length].name(), 0L,
+                        Timestamp.from(agora.minusSeconds(rows - i))});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO payment (id, codigo_debito, cpf_cnpj, cpf_cnpj_normalizado, metodo, " +
+                    "numero_cartao, valor, status, version, criado_em) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", lote);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.kevinsarges.payflow_api.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.kevinsarges.payflow_api.DTOs.PageDTO;
+import com.kevinsarges.payflow_api.DTOs.PaymentSummaryDTO;
+import com.kevinsarges.payflow_api.entities.Payment;
+import com.kevinsarges.payflow_api.entities.PaymentStatus;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PaymentSerializationBenchmark {
+
+    @Param({"20", "100"})
+    public int pageSize;
+
+    private ObjectMapper objectMapper;
+    private ObjectMapper blackbirdMapper;
+    private Payment payment;
+    private Page<Payment> page;
+    private PageDTO<PaymentSummaryDTO> summaries;
+
+    @Setup
+    public void setup() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        blackbirdMapper = Jackson2ObjectMapperBuilder.json().modulesToInstall(new BlackbirdModule()).build();
+        payment = BenchmarkFixtures.payment(1L, PaymentStatus.PENDENTE_PROCESSAMENTO);
+
+        List<Payment> content = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) content.add(BenchmarkFixtures.payment(i, PaymentStatus.PENDENTE_PROCESSAMENTO));
+        page = new PageImpl<>(content, PageRequest.of(0, pageSize), 1_000_000);
+        summaries = PageDTO.from(page.map(p -> new PaymentSummaryDTO(p.getId(), p.getCodigoDebito(), p.getCpfCnpj(),
+                p.getMetodo(), p.getValor(), p.getStatus(), p.getCriadoEm(), p.getVersion())));
+    }
+
+    @Benchmark
+    public byte[] payment() throws Exception {
+        return objectMapper.writeValueAsBytes(payment);
+    }
+
+    @Benchmark
+    public byte[] pageOfPayments() throws Exception {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] pageOfSummaries() throws Exception {
+        return objectMapper.writeValueAsBytes(summaries);
+    }
+
+    @Benchmark
+    public byte[] pageOfSummariesBlackbird() throws Exception {
+        return blackbirdMapper.writeValueAsBytes(summaries);
+    }
+}
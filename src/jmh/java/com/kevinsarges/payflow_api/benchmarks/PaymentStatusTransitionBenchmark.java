@@ -0,0 +1,47 @@
+package com.kevinsarges.payflow_api.benchmarks;
+
+import com.kevinsarges.payflow_api.entities.Payment;
+import com.kevinsarges.payflow_api.entities.PaymentStatus;
+import com.kevinsarges.payflow_api.sevices.PaymentService;
+import com.kevinsarges.payflow_api.utils.BusinessException;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PaymentStatusTransitionBenchmark {
+
+    @Param({
+            "PENDENTE_PROCESSAMENTO>PROCESSADO_COM_SUCESSO",
+            "PROCESSADO_COM_FALHA>PENDENTE_PROCESSAMENTO",
+            "PENDENTE_PROCESSAMENTO>INATIVO",
+            "PROCESSADO_COM_SUCESSO>PENDENTE_PROCESSAMENTO"
+    })
+    public String transition;
+
+    private PaymentService service;
+    private PaymentStatus from;
+    private PaymentStatus to;
+
+    @Setup
+    public void setup() {
+        String[] parts = transition.split(">");
+        from = PaymentStatus.valueOf(parts[0]);
+        to = PaymentStatus.valueOf(parts[1]);
+        service = BenchmarkFixtures.serviceWithoutDatabase(() -> BenchmarkFixtures.payment(1L, from));
+    }
+
+    @Benchmark
+    public Object updateStatus() {
+        try {
+            return service.updateStatus(1L, to);
+        } catch (BusinessException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.kevinsarges.payflow_api.DTOs;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class BulkPaymentItemResultDTO {
+    private Integer linha;
+    private Long id;
+    private boolean sucesso;
+    private String erro;
+}
@@ -0,0 +1,17 @@
+package com.kevinsarges.payflow_api.DTOs;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class CursorPageDTO<T> {
+    private List<T> content;
+    private Integer size;
+    private boolean hasNext;
+    private String nextCursor;
+}
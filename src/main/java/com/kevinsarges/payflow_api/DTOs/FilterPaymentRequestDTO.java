@@ -5,6 +5,7 @@ import lombok.Getter;
 import lombok.Setter;
 
 import java.math.BigInteger;
+import java.time.Instant;
 
 @Getter
 @Setter
@@ -14,4 +15,10 @@ public class FilterPaymentRequestDTO {
 
     @Schema(description = "Status do pagamento", example = "PENDENTE_PROCESSAMENTO")
     private String status;
+
+    @Schema(description = "Criados a partir deste instante (inclusive)", example = "2026-10-01T00:00:00Z")
+    private Instant criadoDe;
+
+    @Schema(description = "Criados antes deste instante (exclusivo)", example = "2026-11-01T00:00:00Z")
+    private Instant criadoAte;
 }
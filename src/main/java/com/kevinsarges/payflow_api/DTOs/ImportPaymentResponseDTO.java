@@ -0,0 +1,17 @@
+package com.kevinsarges.payflow_api.DTOs;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class ImportPaymentResponseDTO {
+    private Long total;
+    private Long criados;
+    private Long rejeitados;
+    private List<BulkPaymentItemResultDTO> erros;
+}
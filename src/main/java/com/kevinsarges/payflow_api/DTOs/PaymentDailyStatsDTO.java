@@ -0,0 +1,21 @@
+package com.kevinsarges.payflow_api.DTOs;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class PaymentDailyStatsDTO {
+    private LocalDate dia;
+    private String metodo;
+    private String status;
+    private long entradas;
+    private long saidas;
+    private BigDecimal valorEntradas;
+    private BigDecimal valorSaidas;
+}
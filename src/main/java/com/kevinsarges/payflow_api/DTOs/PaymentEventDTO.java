@@ -0,0 +1,45 @@
+package com.kevinsarges.payflow_api.DTOs;
+
+import com.kevinsarges.payflow_api.entities.PaymentEvent;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentEventDTO {
+    private Long eventId;
+    private Long paymentId;
+    private String tipo;
+    private String statusAnterior;
+    private String status;
+    private Long versao;
+    private BigInteger codigoDebito;
+    private String cpfCnpj;
+    private String metodo;
+    private BigDecimal valor;
+    private Instant ocorridoEm;
+
+    public static PaymentEventDTO from(PaymentEvent event) {
+        return new PaymentEventDTO(
+                event.getId(),
+                event.getPaymentId(),
+                event.getTipo().name(),
+                event.getStatusAnterior() == null ? null : event.getStatusAnterior().name(),
+                event.getStatus().name(),
+                event.getVersao(),
+                event.getCodigoDebito(),
+                event.getCpfCnpj(),
+                event.getMetodo() == null ? null : event.getMetodo().name(),
+                event.getValor(),
+                event.getOcorridoEm()
+        );
+    }
+}
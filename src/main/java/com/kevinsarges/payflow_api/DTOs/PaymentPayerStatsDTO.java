@@ -0,0 +1,18 @@
+package com.kevinsarges.payflow_api.DTOs;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class PaymentPayerStatsDTO {
+    private String cpfCnpj;
+    private long quantidade;
+    private BigDecimal valorTotal;
+    private List<PaymentStatsItemDTO> porStatus;
+}
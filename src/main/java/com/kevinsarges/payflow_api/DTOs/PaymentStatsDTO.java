@@ -0,0 +1,16 @@
+package com.kevinsarges.payflow_api.DTOs;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class PaymentStatsDTO {
+    private List<PaymentStatsItemDTO> porStatus;
+    private List<PaymentStatsItemDTO> porMetodo;
+    private List<PaymentDailyStatsDTO> porDia;
+}
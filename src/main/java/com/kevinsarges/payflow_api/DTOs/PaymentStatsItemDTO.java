@@ -0,0 +1,16 @@
+package com.kevinsarges.payflow_api.DTOs;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class PaymentStatsItemDTO {
+    private String chave;
+    private long quantidade;
+    private BigDecimal valorTotal;
+}
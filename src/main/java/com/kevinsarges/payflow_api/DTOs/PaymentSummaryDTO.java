@@ -0,0 +1,26 @@
+package com.kevinsarges.payflow_api.DTOs;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.kevinsarges.payflow_api.entities.PaymentMethod;
+import com.kevinsarges.payflow_api.entities.PaymentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+
+@Getter
+@AllArgsConstructor
+public class PaymentSummaryDTO {
+    private Long id;
+    private BigInteger codigoDebito;
+    private String cpfCnpj;
+    private PaymentMethod metodo;
+    private BigDecimal valor;
+    private PaymentStatus status;
+    private Instant criadoEm;
+
+    @JsonIgnore
+    private Long version;
+}
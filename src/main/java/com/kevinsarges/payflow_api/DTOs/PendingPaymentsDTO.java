@@ -0,0 +1,15 @@
+package com.kevinsarges.payflow_api.DTOs;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Map;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class PendingPaymentsDTO {
+    private long total;
+    private Map<String, Long> porMetodo;
+}
@@ -0,0 +1,11 @@
+package com.kevinsarges.payflow_api.DTOs;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class StatusTransitionItemDTO {
+    private Long id;
+    private String novoStatus;
+}
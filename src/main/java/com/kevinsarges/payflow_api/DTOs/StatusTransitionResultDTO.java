@@ -0,0 +1,16 @@
+package com.kevinsarges.payflow_api.DTOs;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class StatusTransitionResultDTO {
+    private Long id;
+    private boolean sucesso;
+    private String statusAnterior;
+    private String novoStatus;
+    private String erro;
+}
@@ -1,32 +1,75 @@
 package com.kevinsarges.payflow_api.controllers;
 
+import com.kevinsarges.payflow_api.DTOs.BatchStatusUpdateResponseDTO;
+import com.kevinsarges.payflow_api.DTOs.BulkPaymentResponseDTO;
+import com.kevinsarges.payflow_api.DTOs.CursorPageDTO;
 import com.kevinsarges.payflow_api.DTOs.DeletePaymentResponseDTO;
 import com.kevinsarges.payflow_api.DTOs.FilterPaymentRequestDTO;
+import com.kevinsarges.payflow_api.DTOs.ImportPaymentResponseDTO;
+import com.kevinsarges.payflow_api.DTOs.PageDTO;
+import com.kevinsarges.payflow_api.DTOs.PaymentPayerStatsDTO;
 import com.kevinsarges.payflow_api.DTOs.PaymentRequestDTO;
+import com.kevinsarges.payflow_api.DTOs.PaymentStatsDTO;
+import com.kevinsarges.payflow_api.DTOs.PaymentSummaryDTO;
+import com.kevinsarges.payflow_api.DTOs.PendingPaymentsDTO;
+import com.kevinsarges.payflow_api.DTOs.StatusTransitionItemDTO;
 import com.kevinsarges.payflow_api.DTOs.StatusUpdateDTO;
 import com.kevinsarges.payflow_api.entities.Payment;
+import com.kevinsarges.payflow_api.entities.PaymentArchive;
 import com.kevinsarges.payflow_api.entities.PaymentMethod;
 import com.kevinsarges.payflow_api.entities.PaymentStatus;
+import com.kevinsarges.payflow_api.repositories.PayerPaymentView;
+import com.kevinsarges.payflow_api.sevices.PaymentIdempotencyService;
+import com.kevinsarges.payflow_api.sevices.PaymentProjection;
 import com.kevinsarges.payflow_api.sevices.PaymentService;
+import com.kevinsarges.payflow_api.sevices.PaymentStatsService;
+import com.kevinsarges.payflow_api.sevices.PaymentStreamService;
+import com.kevinsarges.payflow_api.sevices.PendingPaymentIndex;
+import com.kevinsarges.payflow_api.utils.BusinessException;
+import com.kevinsarges.payflow_api.utils.PaymentETags;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
+// No profile reactive quem atende /payments é o ReactivePaymentController
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequiredArgsConstructor
 @RequestMapping("/payments")
 public class PaymentController {
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    private static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+    private static final String CONSISTENCY_TOKEN = "X-Consistency-Token";
+
     private final PaymentService service;
+    private final PaymentStreamService streamService;
+    private final PaymentIdempotencyService idempotencyService;
+    private final PaymentStatsService statsService;
+    private final PendingPaymentIndex pendingIndex;
+    private final PaymentProjection projection;
 
     @PostMapping
     @Operation(summary = "Criando um pagamento")
@@ -39,11 +82,71 @@ public class PaymentController {
                     )
             ),
             @ApiResponse(responseCode = "400", description = "Erro na requisição"),
+            @ApiResponse(responseCode = "422", description = "Idempotency-Key já usada com outro conteúdo"),
+            @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
+    })
+    public ResponseEntity<Payment> create(
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+            @Valid @RequestBody PaymentRequestDTO dto
+    ) {
+        if (idempotencyKey == null) return written(service.create(dto));
+
+        PaymentIdempotencyService.Result result = idempotencyService.create(idempotencyKey, dto);
+        return ResponseEntity.ok()
+                .header(IDEMPOTENT_REPLAYED, String.valueOf(result.replay()))
+                .header(CONSISTENCY_TOKEN, consistencyToken())
+                .body(result.payment());
+    }
+
+    @PostMapping("/bulk")
+    @Operation(summary = "Criando pagamentos em lote")
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200", description = "Lote processado, com o resultado de cada linha",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = BulkPaymentResponseDTO.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Erro na requisição"),
+            @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
+    })
+    public ResponseEntity<BulkPaymentResponseDTO> createBulk(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(content = @Content(
+                    mediaType = "application/json",
+                    array = @ArraySchema(schema = @Schema(implementation = PaymentRequestDTO.class))
+            )) HttpServletRequest request
+    ) throws IOException {
+        return written(streamService.importJsonArray(request.getInputStream()));
+    }
+
+    @PostMapping(value = "/import", consumes = NDJSON)
+    @Operation(summary = "Importando pagamentos em NDJSON (um pagamento por linha)")
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200", description = "Importação concluída, com as linhas rejeitadas",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ImportPaymentResponseDTO.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Erro na requisição"),
+            @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
+    })
+    public ResponseEntity<ImportPaymentResponseDTO> importNdjson(HttpServletRequest request) throws IOException {
+        return written(streamService.importNdjson(request.getInputStream()));
+    }
+
+    @GetMapping(value = "/export", produces = NDJSON)
+    @Operation(summary = "Exportando todos os pagamentos em NDJSON (streaming)")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Pagamentos exportados, um por linha"),
             @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
     })
-    public ResponseEntity<Payment> create(@Valid @RequestBody PaymentRequestDTO dto) {
-        Payment saved = service.create(dto);
-        return ResponseEntity.ok(saved);
+    public ResponseEntity<StreamingResponseBody> exportNdjson() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(streamService::exportNdjson);
     }
 
     @GetMapping
@@ -51,16 +154,40 @@ public class PaymentController {
     @ApiResponses({
             @ApiResponse(
                     responseCode = "200", description = "Pagamentos encontrados",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = PageDTO.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "304", description = "Sem alterações desde o ETag informado em If-None-Match"),
+            @ApiResponse(responseCode = "400", description = "Erro na requisição"),
+            @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
+    })
+    public ResponseEntity<PageDTO<PaymentSummaryDTO>> list(
+            Pageable pageable,
+            @RequestHeader(value = CONSISTENCY_TOKEN, required = false) String consistencyToken
+    ) {
+        PageDTO<PaymentSummaryDTO> page = PageDTO.from(service.listAll(pageable, readAfter(consistencyToken)));
+        return conditional(PaymentETags.of(page), page);
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Buscando um pagamento pelo id")
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200", description = "Pagamento encontrado",
                     content = @Content(
                             mediaType = "application/json",
                             schema = @Schema(implementation = Payment.class)
                     )
             ),
+            @ApiResponse(responseCode = "304", description = "Sem alterações desde o ETag informado em If-None-Match"),
             @ApiResponse(responseCode = "400", description = "Erro na requisição"),
             @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
     })
-    public ResponseEntity<Page<Payment>> list(Pageable pageable) {
-        return ResponseEntity.ok(service.listAll(pageable));
+    public ResponseEntity<Payment> findById(@PathVariable Long id) {
+        Payment payment = service.findById(id);
+        return conditional(PaymentETags.of(payment), payment);
     }
 
     @PostMapping("/filter")
@@ -70,14 +197,177 @@ public class PaymentController {
                     responseCode = "200", description = "Pagamentos encontrados",
                     content = @Content(
                             mediaType = "application/json",
-                            schema = @Schema(implementation = Payment.class)
+                            schema = @Schema(implementation = PageDTO.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Erro na requisição"),
+            @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
+    })
+    public ResponseEntity<PageDTO<PaymentSummaryDTO>> filterListPayments(
+            Pageable pageable,
+            @RequestHeader(value = CONSISTENCY_TOKEN, required = false) String consistencyToken,
+            @Valid @RequestBody FilterPaymentRequestDTO dto
+    ) {
+        Page<PaymentSummaryDTO> result = service.filterListPayments(dto.getCodigoDebito(), dto.getCpfCnpj(), dto.getStatus(),
+                dto.getCriadoDe(), dto.getCriadoAte(), pageable, readAfter(consistencyToken));
+        return ResponseEntity.ok(PageDTO.from(result));
+    }
+
+    @GetMapping("/cursor")
+    @Operation(summary = "Lista os pagamentos com paginação por cursor (sem contagem total)")
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200", description = "Pagamentos encontrados",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = CursorPageDTO.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Erro na requisição"),
+            @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
+    })
+    public ResponseEntity<CursorPageDTO<Payment>> listByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        return ResponseEntity.ok(service.listAfter(cursor, size));
+    }
+
+    @GetMapping("/payer")
+    @Operation(summary = "Lista os pagamentos de um pagador (CPF/CNPJ com ou sem pontuação) com paginação por cursor")
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200", description = "Pagamentos do pagador (id, codigoDebito, valor e status)",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = CursorPageDTO.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Erro na requisição"),
+            @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
+    })
+    public ResponseEntity<CursorPageDTO<PayerPaymentView>> listByPayer(
+            @RequestParam String cpfCnpj,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        return ResponseEntity.ok(service.listByPayer(cpfCnpj, cursor, size));
+    }
+
+    @GetMapping("/archive")
+    @Operation(summary = "Histórico: pagamentos arquivados de um pagador (CPF/CNPJ com ou sem pontuação) com paginação por cursor")
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200", description = "Pagamentos arquivados do pagador",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = CursorPageDTO.class)
                     )
             ),
             @ApiResponse(responseCode = "400", description = "Erro na requisição"),
             @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
     })
-    public ResponseEntity<Page<Payment>> filterListPayments(Pageable pageable, @Valid @RequestBody FilterPaymentRequestDTO dto) {
-        Page<Payment> result = service.filterListPayments(dto.getCodigoDebito(), dto.getCpfCnpj(), dto.getStatus(), pageable);
+    public ResponseEntity<CursorPageDTO<PaymentArchive>> listArchivedByPayer(
+            @RequestParam String cpfCnpj,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        return ResponseEntity.ok(service.listArchivedByPayer(cpfCnpj, cursor, size));
+    }
+
+    @GetMapping("/archive/{id}")
+    @Operation(summary = "Histórico: buscando um pagamento arquivado pelo id")
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200", description = "Pagamento arquivado encontrado",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = PaymentArchive.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Erro na requisição"),
+            @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
+    })
+    public ResponseEntity<PaymentArchive> findArchivedById(@PathVariable Long id) {
+        return ResponseEntity.ok(service.findArchivedById(id));
+    }
+
+    @GetMapping("/stats")
+    @Operation(summary = "Resumo dos pagamentos por status, método e dia (sem varrer a tabela de pagamentos)")
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200", description = "Resumo calculado",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = PaymentStatsDTO.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Erro na requisição"),
+            @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
+    })
+    public ResponseEntity<PaymentStatsDTO> stats(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate
+    ) {
+        return ResponseEntity.ok(statsService.summary(de, ate));
+    }
+
+    @GetMapping("/stats/pagadores")
+    @Operation(summary = "Quantidade e valor total dos pagamentos de um cpfCnpj, por status (sem varrer a tabela de pagamentos)")
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200", description = "Resumo do pagador calculado",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = PaymentPayerStatsDTO.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Erro na requisição"),
+            @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
+    })
+    public ResponseEntity<PaymentPayerStatsDTO> payerStats(@RequestParam String cpfCnpj) {
+        return ResponseEntity.ok(statsService.payer(cpfCnpj));
+    }
+
+    @GetMapping("/pending")
+    @Operation(summary = "Quantidade de pagamentos PENDENTE_PROCESSAMENTO por método, lida do índice em memória")
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200", description = "Contagem calculada",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = PendingPaymentsDTO.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
+    })
+    public ResponseEntity<PendingPaymentsDTO> pending() {
+        Map<String, Long> porMetodo = new LinkedHashMap<>();
+        pendingIndex.counts().forEach((metodo, quantidade) -> porMetodo.put(metodo.name(), quantidade));
+        long total = porMetodo.values().stream().mapToLong(Long::longValue).sum();
+        return ResponseEntity.ok(new PendingPaymentsDTO(total, porMetodo));
+    }
+
+    @PostMapping("/filter/cursor")
+    @Operation(summary = "Listando os pagamentos através de filtros com paginação por cursor (sem contagem total)")
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200", description = "Pagamentos encontrados",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = CursorPageDTO.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Erro na requisição"),
+            @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
+    })
+    public ResponseEntity<CursorPageDTO<Payment>> filterListPaymentsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @Valid @RequestBody FilterPaymentRequestDTO dto
+    ) {
+        CursorPageDTO<Payment> result = service.filterListPaymentsAfter(
+                dto.getCodigoDebito(), dto.getCpfCnpj(), dto.getStatus(), dto.getCriadoDe(), dto.getCriadoAte(), cursor, size);
         return ResponseEntity.ok(result);
     }
 
@@ -93,6 +383,7 @@ public class PaymentController {
                     )
             ),
             @ApiResponse(responseCode = "400", description = "Erro na requisição"),
+            @ApiResponse(responseCode = "409", description = "Pagamento alterado por outra requisição, tente novamente"),
             @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
     })
     public ResponseEntity<Payment> updateStatus(@PathVariable Long id, @Valid StatusUpdateDTO status) {
@@ -100,7 +391,24 @@ public class PaymentController {
                 status.getNovoStatus().toUpperCase().replace(" ", "_"));
         Payment updated = service.updateStatus(id, novoStatus);
 
-        return ResponseEntity.ok(updated);
+        return written(updated);
+    }
+
+    @PutMapping("/status/batch")
+    @Operation(summary = "Atualizando o status de vários pagamentos em lote (retorno do adquirente)")
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200", description = "Lote processado, com o resultado de cada pagamento",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = BatchStatusUpdateResponseDTO.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Erro na requisição"),
+            @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
+    })
+    public ResponseEntity<BatchStatusUpdateResponseDTO> updateStatusBatch(@RequestBody List<StatusTransitionItemDTO> itens) {
+        return written(service.updateStatusBatch(itens));
     }
 
     @DeleteMapping("/{id}")
@@ -108,10 +416,40 @@ public class PaymentController {
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Pagamento deletado com sucesso"),
             @ApiResponse(responseCode = "400", description = "Erro na requisição"),
+            @ApiResponse(responseCode = "409", description = "Pagamento alterado por outra requisição, tente novamente"),
             @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
     })
     public ResponseEntity<?> delete(@PathVariable Long id) {
         DeletePaymentResponseDTO response = service.deletePay(id);
-        return ResponseEntity.ok(response);
+        return written(response);
+    }
+
+    // A escrita já foi confirmada quando o service retorna; o cliente devolve o token nas leituras para ler o que gravou
+    private <T> ResponseEntity<T> written(T body) {
+        return ResponseEntity.ok()
+                .header(CONSISTENCY_TOKEN, consistencyToken())
+                .body(body);
+    }
+
+    private String consistencyToken() {
+        return String.valueOf(projection.consistencyToken());
+    }
+
+    private static Long readAfter(String consistencyToken) {
+        if (consistencyToken == null || consistencyToken.isBlank()) return null;
+
+        try {
+            return Long.parseLong(consistencyToken);
+        } catch (NumberFormatException e) {
+            throw new BusinessException("validacao", CONSISTENCY_TOKEN + " inválido");
+        }
+    }
+
+    // Com If-None-Match igual ao ETag o Spring responde 304 sem serializar o corpo
+    private static <T> ResponseEntity<T> conditional(String eTag, T body) {
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(CacheControl.noCache())
+                .body(body);
     }
 }
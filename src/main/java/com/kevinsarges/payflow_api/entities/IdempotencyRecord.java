@@ -0,0 +1,35 @@
+package com.kevinsarges.payflow_api.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_idempotency_record_expira_em", columnList = "expira_em")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord {
+    @Id
+    @Column(length = 255)
+    private String chave;
+
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+
+    @Column(nullable = false)
+    private Long paymentId;
+
+    @Column(nullable = false, length = 4000)
+    private String resposta;
+
+    @Column(nullable = false)
+    private Instant criadoEm;
+
+    @Column(nullable = false)
+    private Instant expiraEm;
+}
@@ -1,23 +1,45 @@
 package com.kevinsarges.payflow_api.entities;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.kevinsarges.payflow_api.utils.CpfCnpj;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.OptimisticLock;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.time.Instant;
 
 @Entity
+@DynamicUpdate
+@Table(indexes = {
+        @Index(name = "idx_payment_codigo_debito_status", columnList = "codigo_debito, status"),
+        @Index(name = "idx_payment_cpf_cnpj_status", columnList = "cpf_cnpj, status"),
+        @Index(name = "idx_payment_cpf_cnpj_normalizado_id", columnList = "cpf_cnpj_normalizado, id"),
+        @Index(name = "idx_payment_status_id", columnList = "status, id"),
+        @Index(name = "idx_payment_status_proxima_tentativa", columnList = "status, proxima_tentativa"),
+        @Index(name = "idx_payment_criado_em", columnList = "criado_em"),
+        @Index(name = "idx_payment_status_criado_em", columnList = "status, criado_em")
+})
 @Getter
 @Setter
 @NoArgsConstructor
 public class Payment {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payment_seq")
+    @SequenceGenerator(name = "payment_seq", sequenceName = "payment_seq", allocationSize = 50)
     private Long id;
 
     private BigInteger codigoDebito;
     private String cpfCnpj;
 
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    private String cpfCnpjNormalizado;
+
     @Enumerated(EnumType.STRING)
     private PaymentMethod metodo;
 
@@ -26,4 +48,30 @@ public class Payment {
 
     @Enumerated(EnumType.STRING)
     private PaymentStatus status;
+
+    @Version
+    private Long version;
+
+    @JsonIgnore
+    private String loteProcessamento;
+
+    @JsonIgnore
+    private Instant reservadoAte;
+
+    private Integer tentativas;
+
+    @OptimisticLock(excluded = true)
+    private Instant proximaTentativa;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private Instant criadoEm;
+
+    @UpdateTimestamp
+    private Instant atualizadoEm;
+
+    public void setCpfCnpj(String cpfCnpj) {
+        this.cpfCnpj = cpfCnpj;
+        this.cpfCnpjNormalizado = CpfCnpj.normalize(cpfCnpj);
+    }
 }
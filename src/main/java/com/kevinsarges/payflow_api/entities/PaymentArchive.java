@@ -0,0 +1,49 @@
+package com.kevinsarges.payflow_api.entities;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+
+// Pagamentos INATIVO e PROCESSADO_COM_SUCESSO antigos saem da tabela payment para cá (PaymentArchiver). Só é lida
+// pelas rotas de histórico; o id é o mesmo que o pagamento tinha em payment
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_payment_archive_cpf_cnpj_normalizado_id", columnList = "cpf_cnpj_normalizado, id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class PaymentArchive {
+    @Id
+    private Long id;
+
+    private BigInteger codigoDebito;
+    private String cpfCnpj;
+
+    @JsonIgnore
+    private String cpfCnpjNormalizado;
+
+    @Enumerated(EnumType.STRING)
+    private PaymentMethod metodo;
+
+    private String numeroCartao;
+    private BigDecimal valor;
+
+    @Enumerated(EnumType.STRING)
+    private PaymentStatus status;
+
+    private Long version;
+    private Integer tentativas;
+
+    @Column(nullable = false)
+    private Instant criadoEm;
+
+    private Instant atualizadoEm;
+
+    @Column(nullable = false)
+    private Instant arquivadoEm;
+}
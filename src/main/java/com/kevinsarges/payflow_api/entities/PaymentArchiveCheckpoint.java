@@ -0,0 +1,25 @@
+package com.kevinsarges.payflow_api.entities;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+// Onde a varredura do arquivamento parou; gravado na mesma transação de cada lote movido
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentArchiveCheckpoint {
+    @Id
+    private String nome;
+
+    private Long ultimoId;
+
+    private Instant varreduraConcluidaEm;
+}
@@ -0,0 +1,27 @@
+package com.kevinsarges.payflow_api.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+// Fluxo diário por método e status: quantos pagamentos entraram e saíram do status no dia, e os valores.
+// O total atual de um status é a soma de (entradas - saídas) de todos os dias
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentDailyStats {
+    @EmbeddedId
+    private PaymentDailyStatsId id;
+
+    private long entradas;
+    private long saidas;
+
+    @Column(precision = 38, scale = 2)
+    private BigDecimal valorEntradas;
+
+    @Column(precision = 38, scale = 2)
+    private BigDecimal valorSaidas;
+}
@@ -0,0 +1,23 @@
+package com.kevinsarges.payflow_api.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Embeddable
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class PaymentDailyStatsId implements Serializable {
+    private LocalDate dia;
+
+    @Enumerated(EnumType.STRING)
+    private PaymentMethod metodo;
+
+    @Enumerated(EnumType.STRING)
+    private PaymentStatus status;
+}
@@ -0,0 +1,55 @@
+package com.kevinsarges.payflow_api.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_payment_event_publicado_em_id", columnList = "publicado_em, id"),
+        @Index(name = "idx_payment_event_payment_id_versao", columnList = "payment_id, versao"),
+        @Index(name = "idx_payment_event_projetado_em_id", columnList = "projetado_em, id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class PaymentEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payment_event_seq")
+    @SequenceGenerator(name = "payment_event_seq", sequenceName = "payment_event_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long paymentId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private PaymentEventType tipo;
+
+    @Enumerated(EnumType.STRING)
+    private PaymentStatus statusAnterior;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private PaymentStatus status;
+
+    private Long versao;
+
+    private BigInteger codigoDebito;
+    private String cpfCnpj;
+
+    @Enumerated(EnumType.STRING)
+    private PaymentMethod metodo;
+
+    private BigDecimal valor;
+
+    @Column(nullable = false)
+    private Instant ocorridoEm;
+
+    private Instant publicadoEm;
+
+    private Instant projetadoEm;
+}
@@ -0,0 +1,7 @@
+package com.kevinsarges.payflow_api.entities;
+
+public enum PaymentEventType {
+    PAGAMENTO_CRIADO,
+    STATUS_ALTERADO,
+    PAGAMENTO_INATIVADO
+}
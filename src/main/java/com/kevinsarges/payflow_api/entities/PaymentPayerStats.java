@@ -0,0 +1,22 @@
+package com.kevinsarges.payflow_api.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+// Saldo atual de um pagador (cpfCnpj normalizado) em cada status: quantidade e valor somados
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentPayerStats {
+    @EmbeddedId
+    private PaymentPayerStatsId id;
+
+    private long quantidade;
+
+    @Column(precision = 38, scale = 2)
+    private BigDecimal valorTotal;
+}
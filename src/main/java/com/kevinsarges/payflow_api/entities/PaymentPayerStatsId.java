@@ -0,0 +1,19 @@
+package com.kevinsarges.payflow_api.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+
+@Embeddable
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class PaymentPayerStatsId implements Serializable {
+    private String cpfCnpjNormalizado;
+
+    @Enumerated(EnumType.STRING)
+    private PaymentStatus status;
+}
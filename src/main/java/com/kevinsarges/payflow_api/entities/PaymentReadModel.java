@@ -0,0 +1,47 @@
+package com.kevinsarges.payflow_api.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+
+// Cópia de payment só com o que as listagens e filtros devolvem, mantida pelo PaymentProjection a partir do outbox.
+// Os índices seguem as combinações do FilterPaymentRequestDTO, sempre terminando em id para a ordenação padrão
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_payment_read_model_cpf_cnpj_status_id", columnList = "cpf_cnpj, status, id"),
+        @Index(name = "idx_payment_read_model_codigo_debito_status_id", columnList = "codigo_debito, status, id"),
+        @Index(name = "idx_payment_read_model_status_id", columnList = "status, id"),
+        @Index(name = "idx_payment_read_model_criado_em", columnList = "criado_em"),
+        @Index(name = "idx_payment_read_model_status_criado_em", columnList = "status, criado_em")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class PaymentReadModel {
+    @Id
+    private Long id;
+
+    private BigInteger codigoDebito;
+    private String cpfCnpj;
+
+    @Enumerated(EnumType.STRING)
+    private PaymentMethod metodo;
+
+    private BigDecimal valor;
+
+    @Enumerated(EnumType.STRING)
+    private PaymentStatus status;
+
+    private Long version;
+
+    @Column(nullable = false)
+    private Instant criadoEm;
+
+    private Instant atualizadoEm;
+
+    @Column(nullable = false)
+    private Instant projetadoEm;
+}
@@ -4,5 +4,9 @@ public enum PaymentStatus {
     PENDENTE_PROCESSAMENTO,
     PROCESSADO_COM_SUCESSO,
     PROCESSADO_COM_FALHA,
-    INATIVO
+    INATIVO;
+
+    public boolean isTerminal() {
+        return this == PROCESSADO_COM_SUCESSO || this == INATIVO;
+    }
 }
@@ -0,0 +1,26 @@
+package com.kevinsarges.payflow_api.repositories;
+
+import com.kevinsarges.payflow_api.entities.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    @Query("SELECT r FROM IdempotencyRecord r WHERE r.chave = :chave AND r.expiraEm > :agora")
+    Optional<IdempotencyRecord> findValid(@Param("chave") String chave, @Param("agora") Instant agora);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.chave = :chave AND r.expiraEm <= :agora")
+    int deleteExpired(@Param("chave") String chave, @Param("agora") Instant agora);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiraEm <= :agora")
+    int deleteAllExpired(@Param("agora") Instant agora);
+}
@@ -0,0 +1,16 @@
+package com.kevinsarges.payflow_api.repositories;
+
+import com.kevinsarges.payflow_api.entities.PaymentStatus;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+public interface PayerPaymentView {
+    Long getId();
+
+    BigInteger getCodigoDebito();
+
+    BigDecimal getValor();
+
+    PaymentStatus getStatus();
+}
@@ -0,0 +1,7 @@
+package com.kevinsarges.payflow_api.repositories;
+
+import com.kevinsarges.payflow_api.entities.PaymentArchiveCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface PaymentArchiveCheckpointRepository extends JpaRepository<PaymentArchiveCheckpoint, String> {
+}
@@ -0,0 +1,39 @@
+package com.kevinsarges.payflow_api.repositories;
+
+import com.kevinsarges.payflow_api.entities.PaymentArchive;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface PaymentArchiveRepository extends JpaRepository<PaymentArchive, Long> {
+
+    // Copia direto no banco, sem carregar os pagamentos; só terminais, para casar com o deleteArchivable
+    @Modifying(flushAutomatically = true)
+    @Query("""
+        INSERT INTO PaymentArchive (id, codigoDebito, cpfCnpj, cpfCnpjNormalizado, metodo, numeroCartao, valor, status,
+            version, tentativas, criadoEm, atualizadoEm, arquivadoEm)
+        SELECT p.id, p.codigoDebito, p.cpfCnpj, p.cpfCnpjNormalizado, p.metodo, p.numeroCartao, p.valor, p.status,
+            p.version, p.tentativas, p.criadoEm, p.atualizadoEm, :arquivadoEm
+        FROM Payment p
+        WHERE p.id IN :ids AND p.status IN (com.kevinsarges.payflow_api.entities.PaymentStatus.INATIVO,
+            com.kevinsarges.payflow_api.entities.PaymentStatus.PROCESSADO_COM_SUCESSO)
+    """)
+    int copyFromPayments(@Param("ids") Collection<Long> ids, @Param("arquivadoEm") Instant arquivadoEm);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("""
+        SELECT a FROM PaymentArchive a
+        WHERE a.cpfCnpjNormalizado = :chave AND a.id > :afterId
+        ORDER BY a.id
+    """)
+    List<PaymentArchive> findByPayerAfter(@Param("chave") String chave, @Param("afterId") Long afterId, Limit limit);
+}
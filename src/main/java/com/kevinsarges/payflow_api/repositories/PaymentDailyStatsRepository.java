@@ -0,0 +1,44 @@
+package com.kevinsarges.payflow_api.repositories;
+
+import com.kevinsarges.payflow_api.entities.PaymentDailyStats;
+import com.kevinsarges.payflow_api.entities.PaymentDailyStatsId;
+import com.kevinsarges.payflow_api.entities.PaymentMethod;
+import com.kevinsarges.payflow_api.entities.PaymentStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface PaymentDailyStatsRepository extends JpaRepository<PaymentDailyStats, PaymentDailyStatsId> {
+
+    @Modifying
+    @Query("""
+        UPDATE PaymentDailyStats s SET s.entradas = s.entradas + :entradas, s.saidas = s.saidas + :saidas,
+            s.valorEntradas = s.valorEntradas + :valorEntradas, s.valorSaidas = s.valorSaidas + :valorSaidas
+        WHERE s.id.dia = :dia AND s.id.metodo = :metodo AND s.id.status = :status
+    """)
+    int increment(
+            @Param("dia") LocalDate dia,
+            @Param("metodo") PaymentMethod metodo,
+            @Param("status") PaymentStatus status,
+            @Param("entradas") long entradas,
+            @Param("saidas") long saidas,
+            @Param("valorEntradas") BigDecimal valorEntradas,
+            @Param("valorSaidas") BigDecimal valorSaidas
+    );
+
+    @Query("""
+        SELECT s.id.metodo AS metodo, s.id.status AS status, SUM(s.entradas - s.saidas) AS quantidade,
+            SUM(s.valorEntradas - s.valorSaidas) AS valorTotal
+        FROM PaymentDailyStats s
+        GROUP BY s.id.metodo, s.id.status
+    """)
+    List<PaymentStatsTotalView> findTotals();
+
+    @Query("SELECT s FROM PaymentDailyStats s WHERE s.id.dia BETWEEN :de AND :ate ORDER BY s.id.dia, s.id.metodo, s.id.status")
+    List<PaymentDailyStats> findByDiaBetween(@Param("de") LocalDate de, @Param("ate") LocalDate ate);
+}
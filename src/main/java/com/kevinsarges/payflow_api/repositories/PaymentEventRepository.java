@@ -0,0 +1,44 @@
+package com.kevinsarges.payflow_api.repositories;
+
+import com.kevinsarges.payflow_api.entities.PaymentEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface PaymentEventRepository extends JpaRepository<PaymentEvent, Long> {
+
+    @Query("SELECT e FROM PaymentEvent e WHERE e.publicadoEm IS NULL ORDER BY e.id")
+    List<PaymentEvent> findPendentes(Limit limit);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE PaymentEvent e SET e.publicadoEm = :publicadoEm WHERE e.id IN :ids")
+    int markPublished(@Param("ids") Collection<Long> ids, @Param("publicadoEm") Instant publicadoEm);
+
+    // Só apaga o que já foi projetado: um evento não projetado some do read model e do token de consistência
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM PaymentEvent e WHERE e.publicadoEm < :limite AND e.projetadoEm IS NOT NULL")
+    int deletePublishedBefore(@Param("limite") Instant limite);
+
+    @Query("SELECT e FROM PaymentEvent e WHERE e.projetadoEm IS NULL ORDER BY e.id")
+    List<PaymentEvent> findNaoProjetados(Limit limit);
+
+    @Modifying
+    @Query("UPDATE PaymentEvent e SET e.projetadoEm = :projetadoEm WHERE e.id IN :ids")
+    int markProjected(@Param("ids") Collection<Long> ids, @Param("projetadoEm") Instant projetadoEm);
+
+    List<PaymentEvent> findByPaymentIdOrderByVersaoAscIdAsc(Long paymentId);
+
+    @Query("SELECT MAX(e.id) FROM PaymentEvent e")
+    Long findMaxId();
+
+    boolean existsByProjetadoEmIsNullAndIdLessThanEqual(Long id);
+}
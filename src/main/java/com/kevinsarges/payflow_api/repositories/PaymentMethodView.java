@@ -0,0 +1,9 @@
+package com.kevinsarges.payflow_api.repositories;
+
+import com.kevinsarges.payflow_api.entities.PaymentMethod;
+
+public interface PaymentMethodView {
+    Long getId();
+
+    PaymentMethod getMetodo();
+}
@@ -0,0 +1,29 @@
+package com.kevinsarges.payflow_api.repositories;
+
+import com.kevinsarges.payflow_api.entities.PaymentPayerStats;
+import com.kevinsarges.payflow_api.entities.PaymentPayerStatsId;
+import com.kevinsarges.payflow_api.entities.PaymentStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public interface PaymentPayerStatsRepository extends JpaRepository<PaymentPayerStats, PaymentPayerStatsId> {
+
+    @Modifying
+    @Query("""
+        UPDATE PaymentPayerStats s SET s.quantidade = s.quantidade + :quantidade, s.valorTotal = s.valorTotal + :valorTotal
+        WHERE s.id.cpfCnpjNormalizado = :cpfCnpjNormalizado AND s.id.status = :status
+    """)
+    int increment(
+            @Param("cpfCnpjNormalizado") String cpfCnpjNormalizado,
+            @Param("status") PaymentStatus status,
+            @Param("quantidade") long quantidade,
+            @Param("valorTotal") BigDecimal valorTotal
+    );
+
+    List<PaymentPayerStats> findByIdCpfCnpjNormalizado(String cpfCnpjNormalizado);
+}
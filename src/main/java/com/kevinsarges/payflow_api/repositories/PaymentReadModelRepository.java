@@ -0,0 +1,25 @@
+package com.kevinsarges.payflow_api.repositories;
+
+import com.kevinsarges.payflow_api.DTOs.PaymentSummaryDTO;
+import com.kevinsarges.payflow_api.entities.PaymentReadModel;
+import com.kevinsarges.payflow_api.entities.PaymentStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.math.BigInteger;
+import java.time.Instant;
+
+public interface PaymentReadModelRepository extends JpaRepository<PaymentReadModel, Long>, PaymentReadModelSummaryRepository {
+
+    default Page<PaymentSummaryDTO> findSummariesByFilters(
+            BigInteger codigoDebito,
+            String cpfCnpj,
+            PaymentStatus status,
+            Instant criadoDe,
+            Instant criadoAte,
+            Pageable pageable
+    ) {
+        return findSummaries(PaymentSpecifications.filters(codigoDebito, cpfCnpj, status, criadoDe, criadoAte), pageable);
+    }
+}
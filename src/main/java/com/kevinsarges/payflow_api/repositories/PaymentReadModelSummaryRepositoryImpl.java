@@ -0,0 +1,21 @@
+package com.kevinsarges.payflow_api.repositories;
+
+import com.kevinsarges.payflow_api.DTOs.PaymentSummaryDTO;
+import com.kevinsarges.payflow_api.entities.PaymentReadModel;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.annotation.Transactional;
+
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+class PaymentReadModelSummaryRepositoryImpl implements PaymentReadModelSummaryRepository {
+    private final EntityManager entityManager;
+
+    @Override
+    public Page<PaymentSummaryDTO> findSummaries(Specification<PaymentReadModel> spec, Pageable pageable) {
+        return SummaryQuery.page(entityManager, PaymentReadModel.class, spec, pageable);
+    }
+}
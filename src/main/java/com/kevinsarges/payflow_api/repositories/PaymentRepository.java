@@ -1,28 +1,214 @@
 package com.kevinsarges.payflow_api.repositories;
 
+import com.kevinsarges.payflow_api.DTOs.PaymentSummaryDTO;
 import com.kevinsarges.payflow_api.entities.Payment;
+import com.kevinsarges.payflow_api.entities.PaymentMethod;
 import com.kevinsarges.payflow_api.entities.PaymentStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.math.BigInteger;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
-public interface PaymentRepository  extends JpaRepository<Payment, Long> {
+public interface PaymentRepository  extends JpaRepository<Payment, Long>, JpaSpecificationExecutor<Payment>,
+        PaymentSummaryRepository {
 
+    default Page<Payment> findByFilters(
+            BigInteger codigoDebito,
+            String cpfCnpj,
+            PaymentStatus status,
+            Pageable pageable
+    ) {
+        return findAll(PaymentSpecifications.filters(codigoDebito, cpfCnpj, status), pageable);
+    }
+
+    default Page<PaymentSummaryDTO> findSummariesByFilters(
+            BigInteger codigoDebito,
+            String cpfCnpj,
+            PaymentStatus status,
+            Instant criadoDe,
+            Instant criadoAte,
+            Pageable pageable
+    ) {
+        return findSummaries(PaymentSpecifications.filters(codigoDebito, cpfCnpj, status, criadoDe, criadoAte), pageable);
+    }
+
+    default List<Payment> findByFiltersAfter(
+            BigInteger codigoDebito,
+            String cpfCnpj,
+            PaymentStatus status,
+            Long afterId,
+            Limit limit
+    ) {
+        return findByFiltersAfter(codigoDebito, cpfCnpj, status, null, null, afterId, limit);
+    }
+
+    default List<Payment> findByFiltersAfter(
+            BigInteger codigoDebito,
+            String cpfCnpj,
+            PaymentStatus status,
+            Instant criadoDe,
+            Instant criadoAte,
+            Long afterId,
+            Limit limit
+    ) {
+        return findBy(
+                PaymentSpecifications.<Payment>filters(codigoDebito, cpfCnpj, status, criadoDe, criadoAte)
+                        .and(PaymentSpecifications.idAfter(afterId)),
+                query -> query.sortBy(Sort.by("id")).limit(limit.max()).all()
+        );
+    }
+
+    @Query("SELECT p FROM Payment p WHERE p.id > :afterId ORDER BY p.id")
+    List<Payment> findAllAfter(@Param("afterId") Long afterId, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     @Query("""
-        SELECT p FROM Payment p
-        WHERE (:codigoDebito IS NULL OR p.codigoDebito = :codigoDebito)
-        AND (:cpfCnpj IS NULL OR p.cpfCnpj = :cpfCnpj)
-        AND (:status IS NULL OR p.status = :status)
+        SELECT p.id AS id, p.codigoDebito AS codigoDebito, p.valor AS valor, p.status AS status
+        FROM Payment p
+        WHERE p.cpfCnpjNormalizado = :chave AND p.id > :afterId
+        ORDER BY p.id
+    """)
+    List<PayerPaymentView> findByPayerAfter(@Param("chave") String chave, @Param("afterId") Long afterId, Limit limit);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+        UPDATE Payment p SET p.status = :novoStatus, p.version = p.version + 1, p.atualizadoEm = :agora,
+            p.loteProcessamento = NULL, p.reservadoAte = NULL, p.proximaTentativa = NULL,
+            p.tentativas = CASE WHEN :novoStatus = com.kevinsarges.payflow_api.entities.PaymentStatus.PROCESSADO_COM_FALHA
+                THEN COALESCE(p.tentativas, 0) + 1 ELSE p.tentativas END
+        WHERE p.id = :id AND p.status = :statusAtual
+    """)
+    int transitionStatus(
+            @Param("id") Long id,
+            @Param("statusAtual") PaymentStatus statusAtual,
+            @Param("novoStatus") PaymentStatus novoStatus,
+            @Param("agora") Instant agora
+    );
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+        UPDATE Payment p SET p.status = :novoStatus, p.version = p.version + 1, p.atualizadoEm = :agora,
+            p.loteProcessamento = NULL, p.reservadoAte = NULL, p.proximaTentativa = NULL,
+            p.tentativas = CASE WHEN :novoStatus = com.kevinsarges.payflow_api.entities.PaymentStatus.PROCESSADO_COM_FALHA
+                THEN COALESCE(p.tentativas, 0) + 1 ELSE p.tentativas END
+        WHERE p.id IN :ids AND p.status = :statusAtual
+    """)
+    int transitionStatusBatch(
+            @Param("ids") Collection<Long> ids,
+            @Param("statusAtual") PaymentStatus statusAtual,
+            @Param("novoStatus") PaymentStatus novoStatus,
+            @Param("agora") Instant agora
+    );
+
+    @Query("""
+        SELECT p.id AS id, p.status AS status, p.version AS version, p.metodo AS metodo, p.valor AS valor,
+            p.cpfCnpjNormalizado AS cpfCnpjNormalizado, p.reservadoAte AS reservadoAte
+        FROM Payment p WHERE p.id IN :ids
+    """)
+    List<PaymentStatusView> findStatusByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Trava as linhas até o fim da transação, sempre na ordem do id para dois lotes não se bloquearem em ordem inversa
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+        SELECT p.id AS id, p.status AS status, p.version AS version, p.metodo AS metodo, p.valor AS valor,
+            p.cpfCnpjNormalizado AS cpfCnpjNormalizado, p.reservadoAte AS reservadoAte
+        FROM Payment p WHERE p.id IN :ids ORDER BY p.id
+    """)
+    List<PaymentStatusView> findStatusByIdInForUpdate(@Param("ids") Collection<Long> ids);
+
+    // SKIP LOCKED (no PostgreSQL; o dialeto do H2 emite só FOR UPDATE): nós que varrem ao mesmo tempo pegam linhas
+    // diferentes em vez de esperar e perder o UPDATE da reserva
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+        SELECT p.id FROM Payment p
+        WHERE p.status = :status AND (p.reservadoAte IS NULL OR p.reservadoAte < :agora)
+        ORDER BY p.id
     """)
-    Page<Payment> findByFilters(
-            @Param("codigoDebito") BigInteger codigoDebito,
-            @Param("cpfCnpj") String cpfCnpj,
+    List<Long> findClaimable(@Param("status") PaymentStatus status, @Param("agora") Instant agora, Limit limit);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+        UPDATE Payment p SET p.loteProcessamento = :lote, p.reservadoAte = :reservadoAte
+        WHERE p.id IN :ids AND p.status = :status AND (p.reservadoAte IS NULL OR p.reservadoAte < :agora)
+    """)
+    int claim(
+            @Param("ids") Collection<Long> ids,
             @Param("status") PaymentStatus status,
-            Pageable pageable
+            @Param("lote") String lote,
+            @Param("reservadoAte") Instant reservadoAte,
+            @Param("agora") Instant agora
+    );
+
+    List<Payment> findByLoteProcessamento(String loteProcessamento);
+
+    @Query("""
+        SELECT p.id AS id, p.metodo AS metodo FROM Payment p
+        WHERE p.status = :status AND p.id > :afterId
+        ORDER BY p.id
+    """)
+    List<PaymentMethodView> findByStatusAfter(@Param("status") PaymentStatus status, @Param("afterId") long afterId, Limit limit);
+
+    long countByStatusAndMetodo(PaymentStatus status, PaymentMethod metodo);
+
+    @Query("""
+        SELECT p FROM Payment p
+        WHERE p.status = com.kevinsarges.payflow_api.entities.PaymentStatus.PROCESSADO_COM_FALHA AND p.proximaTentativa IS NULL
+            AND COALESCE(p.tentativas, 0) < :maxTentativas
+        ORDER BY p.id
+    """)
+    List<Payment> findRetriesToSchedule(@Param("maxTentativas") int maxTentativas, Limit limit);
+
+    @Query("""
+        SELECT p.id FROM Payment p
+        WHERE p.status = com.kevinsarges.payflow_api.entities.PaymentStatus.PROCESSADO_COM_FALHA AND p.proximaTentativa <= :agora
+        ORDER BY p.proximaTentativa
+    """)
+    List<Long> findRetriesDue(@Param("agora") Instant agora, Limit limit);
+
+    @Query("""
+        SELECT p.id FROM Payment p
+        WHERE p.id > :afterId AND (
+            (p.status = com.kevinsarges.payflow_api.entities.PaymentStatus.INATIVO AND p.atualizadoEm < :inativoAte)
+            OR (p.status = com.kevinsarges.payflow_api.entities.PaymentStatus.PROCESSADO_COM_SUCESSO AND p.atualizadoEm < :sucessoAte))
+        ORDER BY p.id
+    """)
+    List<Long> findArchivable(
+            @Param("afterId") Long afterId,
+            @Param("inativoAte") Instant inativoAte,
+            @Param("sucessoAte") Instant sucessoAte,
+            Limit limit
     );
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+        DELETE FROM Payment p
+        WHERE p.id IN :ids AND p.status IN (com.kevinsarges.payflow_api.entities.PaymentStatus.INATIVO,
+            com.kevinsarges.payflow_api.entities.PaymentStatus.PROCESSADO_COM_SUCESSO)
+    """)
+    int deleteArchivable(@Param("ids") Collection<Long> ids);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT p FROM Payment p ORDER BY p.id")
+    Stream<Payment> streamAll();
 }
@@ -0,0 +1,48 @@
+package com.kevinsarges.payflow_api.repositories;
+
+import com.kevinsarges.payflow_api.entities.Payment;
+import com.kevinsarges.payflow_api.entities.PaymentStatus;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigInteger;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class PaymentSpecifications {
+
+    private PaymentSpecifications() {
+    }
+
+    // Só entram na query os filtros informados, para o banco conseguir usar os índices de Payment
+    public static Specification<Payment> filters(BigInteger codigoDebito, String cpfCnpj, PaymentStatus status) {
+        return filters(codigoDebito, cpfCnpj, status, null, null);
+    }
+
+    // O intervalo em criadoEm usa os índices por data e, no PostgreSQL, descarta as partições mensais fora dele.
+    // Genérico porque payment_read_model tem os mesmos atributos
+    public static <T> Specification<T> filters(
+            BigInteger codigoDebito,
+            String cpfCnpj,
+            PaymentStatus status,
+            Instant criadoDe,
+            Instant criadoAte
+    ) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>(5);
+
+            if (codigoDebito != null) predicates.add(cb.equal(root.get("codigoDebito"), codigoDebito));
+            if (cpfCnpj != null) predicates.add(cb.equal(root.get("cpfCnpj"), cpfCnpj));
+            if (status != null) predicates.add(cb.equal(root.get("status"), status));
+            if (criadoDe != null) predicates.add(cb.greaterThanOrEqualTo(root.get("criadoEm"), criadoDe));
+            if (criadoAte != null) predicates.add(cb.lessThan(root.get("criadoEm"), criadoAte));
+
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    public static Specification<Payment> idAfter(Long afterId) {
+        return (root, query, cb) -> cb.greaterThan(root.get("id"), afterId);
+    }
+}
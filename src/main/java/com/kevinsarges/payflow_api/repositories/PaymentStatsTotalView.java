@@ -0,0 +1,16 @@
+package com.kevinsarges.payflow_api.repositories;
+
+import com.kevinsarges.payflow_api.entities.PaymentMethod;
+import com.kevinsarges.payflow_api.entities.PaymentStatus;
+
+import java.math.BigDecimal;
+
+public interface PaymentStatsTotalView {
+    PaymentMethod getMetodo();
+
+    PaymentStatus getStatus();
+
+    Long getQuantidade();
+
+    BigDecimal getValorTotal();
+}
@@ -0,0 +1,23 @@
+package com.kevinsarges.payflow_api.repositories;
+
+import com.kevinsarges.payflow_api.entities.PaymentMethod;
+import com.kevinsarges.payflow_api.entities.PaymentStatus;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public interface PaymentStatusView {
+    Long getId();
+
+    PaymentStatus getStatus();
+
+    Long getVersion();
+
+    PaymentMethod getMetodo();
+
+    BigDecimal getValor();
+
+    String getCpfCnpjNormalizado();
+
+    Instant getReservadoAte();
+}
@@ -0,0 +1,11 @@
+package com.kevinsarges.payflow_api.repositories;
+
+import com.kevinsarges.payflow_api.DTOs.PaymentSummaryDTO;
+import com.kevinsarges.payflow_api.entities.Payment;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface PaymentSummaryRepository {
+    Page<PaymentSummaryDTO> findSummaries(Specification<Payment> spec, Pageable pageable);
+}
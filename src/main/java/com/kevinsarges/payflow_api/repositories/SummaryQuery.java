@@ -0,0 +1,57 @@
+package com.kevinsarges.payflow_api.repositories;
+
+import com.kevinsarges.payflow_api.DTOs.PaymentSummaryDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+
+// Monta o SELECT só com as colunas da listagem, sem carregar entidades no contexto de persistência. Serve para
+// payment e para payment_read_model, que têm os mesmos nomes de atributo
+final class SummaryQuery {
+
+    private SummaryQuery() {
+    }
+
+    static <T> Page<PaymentSummaryDTO> page(EntityManager entityManager, Class<T> entity, Specification<T> spec,
+                                            Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<PaymentSummaryDTO> query = cb.createQuery(PaymentSummaryDTO.class);
+        Root<T> root = query.from(entity);
+
+        query.select(cb.construct(PaymentSummaryDTO.class, root.get("id"), root.get("codigoDebito"),
+                        root.get("cpfCnpj"), root.get("metodo"), root.get("valor"), root.get("status"),
+                        root.get("criadoEm"), root.get("version")))
+                .where(spec.toPredicate(root, query, cb))
+                .orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        TypedQuery<PaymentSummaryDTO> typed = entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_READ_ONLY, true);
+        if (pageable.isPaged()) {
+            typed.setFirstResult((int) pageable.getOffset()).setMaxResults(pageable.getPageSize());
+        }
+
+        List<PaymentSummaryDTO> content = typed.getResultList();
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(entityManager, entity, spec));
+    }
+
+    private static <T> long count(EntityManager entityManager, Class<T> entity, Specification<T> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<T> root = query.from(entity);
+        query.select(cb.count(root)).where(spec.toPredicate(root, query, cb));
+
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getSingleResult();
+    }
+}
@@ -0,0 +1,48 @@
+package com.kevinsarges.payflow_api.sevices;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kevinsarges.payflow_api.DTOs.PaymentEventDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "payflow.outbox.publisher", havingValue = "file", matchIfMissing = true)
+public class FilePaymentEventPublisher implements PaymentEventPublisher {
+    private final Path path;
+    private final ObjectMapper objectMapper;
+
+    public FilePaymentEventPublisher(
+            @Value("${payflow.outbox.file.path:./data/payment-events.ndjson}") Path path,
+            ObjectMapper objectMapper
+    ) {
+        this.path = path;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public synchronized void publish(List<PaymentEventDTO> eventos) {
+        try {
+            if (path.getParent() != null) Files.createDirectories(path.getParent());
+
+            try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (PaymentEventDTO evento : eventos) {
+                    writer.write(objectMapper.writeValueAsString(evento));
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gravar eventos em " + path, e);
+        }
+    }
+}
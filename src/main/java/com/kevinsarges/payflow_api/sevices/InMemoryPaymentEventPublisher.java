@@ -0,0 +1,28 @@
+package com.kevinsarges.payflow_api.sevices;
+
+import com.kevinsarges.payflow_api.DTOs.PaymentEventDTO;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Usado em testes e desenvolvimento: guarda os eventos publicados em memória
+@Component
+@ConditionalOnProperty(name = "payflow.outbox.publisher", havingValue = "memory")
+public class InMemoryPaymentEventPublisher implements PaymentEventPublisher {
+    private final List<PaymentEventDTO> eventos = new ArrayList<>();
+
+    @Override
+    public synchronized void publish(List<PaymentEventDTO> lote) {
+        eventos.addAll(lote);
+    }
+
+    public synchronized List<PaymentEventDTO> getEventos() {
+        return List.copyOf(eventos);
+    }
+
+    public synchronized void clear() {
+        eventos.clear();
+    }
+}
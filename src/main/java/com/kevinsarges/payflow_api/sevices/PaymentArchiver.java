@@ -0,0 +1,134 @@
+package com.kevinsarges.payflow_api.sevices;
+
+import com.kevinsarges.payflow_api.entities.PaymentArchiveCheckpoint;
+import com.kevinsarges.payflow_api.repositories.PaymentArchiveCheckpointRepository;
+import com.kevinsarges.payflow_api.repositories.PaymentArchiveRepository;
+import com.kevinsarges.payflow_api.repositories.PaymentReadModelRepository;
+import com.kevinsarges.payflow_api.repositories.PaymentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+// Move pagamentos INATIVO e PROCESSADO_COM_SUCESSO antigos de payment para payment_archive, varrendo por id. Cada lote
+// copia, remove e grava o checkpoint na mesma transação: uma queda no meio desfaz o lote inteiro e a próxima execução
+// continua do último id gravado. Para não disputar com o tráfego online cada ciclo move no máximo max-batches-per-run
+// lotes, e depois de uma varredura completa o job só recomeça após sweep-interval. Rode em um único nó.
+@Slf4j
+@Component
+public class PaymentArchiver {
+    static final String CHECKPOINT = "payment";
+
+    private final PaymentRepository repository;
+    private final PaymentArchiveRepository archiveRepository;
+    private final PaymentArchiveCheckpointRepository checkpointRepository;
+    private final PaymentReadModelRepository readModelRepository;
+    private final PaymentCache cache;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Duration inactiveAfter;
+    private final Duration settledAfter;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Duration sweepInterval;
+    private final Counter arquivados;
+
+    public PaymentArchiver(
+            PaymentRepository repository,
+            PaymentArchiveRepository archiveRepository,
+            PaymentArchiveCheckpointRepository checkpointRepository,
+            PaymentReadModelRepository readModelRepository,
+            PaymentCache cache,
+            TransactionTemplate transactionTemplate,
+            @Value("${payflow.archive.enabled:true}") boolean enabled,
+            @Value("${payflow.archive.inactive-after:7d}") Duration inactiveAfter,
+            @Value("${payflow.archive.settled-after:90d}") Duration settledAfter,
+            @Value("${payflow.archive.batch-size:500}") int batchSize,
+            @Value("${payflow.archive.max-batches-per-run:4}") int maxBatchesPerRun,
+            @Value("${payflow.archive.sweep-interval:1h}") Duration sweepInterval,
+            MeterRegistry meterRegistry
+    ) {
+        this.repository = repository;
+        this.archiveRepository = archiveRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.readModelRepository = readModelRepository;
+        this.cache = cache;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.inactiveAfter = inactiveAfter;
+        this.settledAfter = settledAfter;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.sweepInterval = sweepInterval;
+        this.arquivados = meterRegistry.counter("payflow.archive.archived");
+    }
+
+    @Scheduled(fixedDelayString = "${payflow.archive.interval:2s}")
+    public void run() {
+        if (!enabled) return;
+
+        try {
+            archive();
+        } catch (RuntimeException e) {
+            log.warn("Falha ao arquivar pagamentos, nova tentativa no próximo ciclo", e);
+        }
+    }
+
+    public int archive() {
+        int total = 0;
+
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            Lote lote = transactionTemplate.execute(status -> archiveBatch(Instant.now()));
+            total += lote.movidos();
+            if (lote.varreduraConcluida()) break;
+        }
+        return total;
+    }
+
+    private Lote archiveBatch(Instant agora) {
+        PaymentArchiveCheckpoint checkpoint = checkpointRepository.findById(CHECKPOINT)
+                .orElseGet(() -> new PaymentArchiveCheckpoint(CHECKPOINT, 0L, null));
+
+        boolean inicioDeVarredura = checkpoint.getUltimoId() == 0L;
+        Instant concluidaEm = checkpoint.getVarreduraConcluidaEm();
+        if (inicioDeVarredura && concluidaEm != null && concluidaEm.isAfter(agora.minus(sweepInterval))) {
+            return new Lote(0, true);
+        }
+
+        List<Long> ids = repository.findArchivable(checkpoint.getUltimoId(),
+                agora.minus(inactiveAfter), agora.minus(settledAfter), Limit.of(batchSize));
+
+        int movidos = 0;
+        if (!ids.isEmpty()) {
+            int copiados = archiveRepository.copyFromPayments(ids, agora);
+            movidos = repository.deleteArchivable(ids);
+            if (copiados != movidos) {
+                throw new IllegalStateException("Arquivamento inconsistente: " + copiados + " copiados e " + movidos + " removidos");
+            }
+            readModelRepository.deleteAllByIdInBatch(ids);
+            cache.evict(ids);
+            checkpoint.setUltimoId(ids.get(ids.size() - 1));
+        }
+
+        boolean concluida = ids.size() < batchSize;
+        if (concluida) {
+            checkpoint.setUltimoId(0L);
+            checkpoint.setVarreduraConcluidaEm(agora);
+        }
+        checkpointRepository.save(checkpoint);
+
+        arquivados.increment(movidos);
+        return new Lote(movidos, concluida);
+    }
+
+    private record Lote(int movidos, boolean varreduraConcluida) {
+    }
+}
@@ -0,0 +1,142 @@
+package com.kevinsarges.payflow_api.sevices;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.kevinsarges.payflow_api.DTOs.PaymentSummaryDTO;
+import com.kevinsarges.payflow_api.entities.Payment;
+import com.kevinsarges.payflow_api.entities.PaymentStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigInteger;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+@Component
+public class PaymentCache {
+    private final Cache<Long, Payment> byId;
+    private final Cache<FilterKey, Page<PaymentSummaryDTO>> filters;
+
+    public PaymentCache(
+            @Value("${payflow.cache.payments.max-size:100000}") long maxSize,
+            @Value("${payflow.cache.payments.ttl:30s}") Duration ttl,
+            @Value("${payflow.cache.payments.terminal-ttl:30m}") Duration terminalTtl,
+            @Value("${payflow.cache.filters.max-size:1000}") long filtersMaxSize,
+            @Value("${payflow.cache.filters.ttl:5s}") Duration filtersTtl,
+            MeterRegistry meterRegistry
+    ) {
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new StatusAwareExpiry(ttl.toNanos(), terminalTtl.toNanos()))
+                .recordStats()
+                .build();
+        this.filters = Caffeine.newBuilder()
+                .maximumSize(filtersMaxSize)
+                .expireAfterWrite(filtersTtl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "payments.byId");
+        CaffeineCacheMetrics.monitor(meterRegistry, filters, "payments.filters");
+    }
+
+    public Optional<Payment> getIfPresent(Long id) {
+        return Optional.ofNullable(byId.getIfPresent(id));
+    }
+
+    // Leituras dentro de uma transação podem enxergar escritas ainda não commitadas, então não passam pelo cache
+    public Payment get(Long id, Function<Long, Payment> loader) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) return loader.apply(id);
+        return byId.get(id, loader);
+    }
+
+    public Page<PaymentSummaryDTO> getFilter(
+            BigInteger codigoDebito,
+            String cpfCnpj,
+            PaymentStatus status,
+            Instant criadoDe,
+            Instant criadoAte,
+            Pageable pageable,
+            Supplier<Page<PaymentSummaryDTO>> loader
+    ) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) return loader.get();
+        return filters.get(new FilterKey(codigoDebito, cpfCnpj, status, criadoDe, criadoAte, pageable), key -> loader.get());
+    }
+
+    public void onWrite(Payment payment, PaymentStatus previousStatus) {
+        afterCommit(() -> {
+            byId.put(payment.getId(), payment);
+            filters.asMap().keySet().removeIf(key -> key.matches(payment, previousStatus));
+        });
+    }
+
+    public void evict(Collection<Long> ids) {
+        afterCommit(() -> {
+            byId.invalidateAll(ids);
+            filters.invalidateAll();
+        });
+    }
+
+    public void invalidateFilters() {
+        afterCommit(filters::invalidateAll);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    // O intervalo de criadoEm entra na chave mas não no matches: invalidar a mais é seguro
+    private record FilterKey(
+            BigInteger codigoDebito,
+            String cpfCnpj,
+            PaymentStatus status,
+            Instant criadoDe,
+            Instant criadoAte,
+            Pageable pageable
+    ) {
+        boolean matches(Payment payment, PaymentStatus previousStatus) {
+            return (codigoDebito == null || codigoDebito.equals(payment.getCodigoDebito()))
+                    && (cpfCnpj == null || cpfCnpj.equals(payment.getCpfCnpj()))
+                    && (status == null || status == payment.getStatus() || status == previousStatus);
+        }
+    }
+
+    // PROCESSADO_COM_SUCESSO e INATIVO não mudam mais, então podem ficar mais tempo no cache
+    private record StatusAwareExpiry(long ttlNanos, long terminalTtlNanos) implements Expiry<Long, Payment> {
+        @Override
+        public long expireAfterCreate(Long id, Payment payment, long currentTime) {
+            return payment.getStatus() != null && payment.getStatus().isTerminal() ? terminalTtlNanos : ttlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(Long id, Payment payment, long currentTime, long currentDuration) {
+            return expireAfterCreate(id, payment, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Long id, Payment payment, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.kevinsarges.payflow_api.sevices;
+
+import com.kevinsarges.payflow_api.DTOs.PaymentEventDTO;
+
+import java.util.List;
+
+// Destino dos eventos do outbox. Deve lançar exceção se o lote não foi entregue por completo, para que seja reenviado
+public interface PaymentEventPublisher {
+    void publish(List<PaymentEventDTO> eventos);
+}
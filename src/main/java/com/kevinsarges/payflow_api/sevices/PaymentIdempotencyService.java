@@ -0,0 +1,187 @@
+package com.kevinsarges.payflow_api.sevices;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.kevinsarges.payflow_api.DTOs.PaymentRequestDTO;
+import com.kevinsarges.payflow_api.entities.IdempotencyRecord;
+import com.kevinsarges.payflow_api.entities.Payment;
+import com.kevinsarges.payflow_api.repositories.IdempotencyRecordRepository;
+import com.kevinsarges.payflow_api.utils.BusinessException;
+import com.kevinsarges.payflow_api.utils.IdempotencyKeyReuseException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// Índice em memória na frente da tabela idempotency_record: replays respondem com a resposta original gravada,
+// sem passar pelo PaymentRepository. Requisições simultâneas com a mesma chave esperam a primeira terminar;
+// entre nós diferentes quem decide é a chave primária da tabela
+@Service
+public class PaymentIdempotencyService {
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final PaymentService paymentService;
+    private final IdempotencyRecordRepository repository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Cache<String, Entry> index;
+    private final ConcurrentMap<String, CompletableFuture<Entry>> emAndamento = new ConcurrentHashMap<>();
+
+    public PaymentIdempotencyService(
+            PaymentService paymentService,
+            IdempotencyRecordRepository repository,
+            EntityManager entityManager,
+            TransactionTemplate transactionTemplate,
+            ObjectMapper objectMapper,
+            @Value("${payflow.idempotency.ttl:24h}") Duration ttl,
+            @Value("${payflow.idempotency.max-size:100000}") long maxSize,
+            MeterRegistry meterRegistry
+    ) {
+        this.paymentService = paymentService;
+        this.repository = repository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.index = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, index, "payments.idempotency");
+    }
+
+    public Result create(String chave, PaymentRequestDTO dto) {
+        if (chave.isBlank() || chave.length() > MAX_KEY_LENGTH) {
+            throw new BusinessException("validacao", "Idempotency-Key deve ter entre 1 e " + MAX_KEY_LENGTH + " caracteres");
+        }
+
+        String hash = hash(dto);
+        Entry existente = lookup(chave);
+        if (existente != null) return replay(chave, hash, existente);
+
+        CompletableFuture<Entry> minha = new CompletableFuture<>();
+        CompletableFuture<Entry> outra = emAndamento.putIfAbsent(chave, minha);
+        if (outra != null) return replay(chave, hash, await(outra));
+
+        try {
+            Outcome outcome = execute(chave, hash, dto);
+            index.put(chave, outcome.entry());
+            minha.complete(outcome.entry());
+            return outcome.criada() ? new Result(read(outcome.entry()), false) : replay(chave, hash, outcome.entry());
+        } catch (RuntimeException e) {
+            minha.completeExceptionally(e);
+            throw e;
+        } finally {
+            emAndamento.remove(chave, minha);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${payflow.idempotency.purge.interval:1h}")
+    public void purge() {
+        repository.deleteAllExpired(Instant.now());
+    }
+
+    private Outcome execute(String chave, String hash, PaymentRequestDTO dto) {
+        try {
+            return transactionTemplate.execute(status -> {
+                Instant agora = Instant.now();
+                repository.deleteExpired(chave, agora);
+
+                Payment payment = paymentService.create(dto);
+                String resposta = write(payment);
+
+                entityManager.persist(new IdempotencyRecord(chave, hash, payment.getId(), resposta, agora, agora.plus(ttl)));
+                entityManager.flush();
+                return new Outcome(new Entry(hash, resposta), true);
+            });
+        } catch (PersistenceException | DataIntegrityViolationException e) {
+            // Outro nó gravou a mesma chave primeiro: a transação foi desfeita e a resposta dele é devolvida
+            Entry vencedor = lookup(chave);
+            if (vencedor == null) throw e;
+            return new Outcome(vencedor, false);
+        }
+    }
+
+    private Entry lookup(String chave) {
+        Entry entry = index.getIfPresent(chave);
+        if (entry != null) return entry;
+
+        return repository.findValid(chave, Instant.now())
+                .map(record -> {
+                    Entry carregada = new Entry(record.getRequestHash(), record.getResposta());
+                    index.put(chave, carregada);
+                    return carregada;
+                })
+                .orElse(null);
+    }
+
+    private Result replay(String chave, String hash, Entry entry) {
+        if (!entry.requestHash().equals(hash)) throw new IdempotencyKeyReuseException(chave);
+        return new Result(read(entry), true);
+    }
+
+    private Entry await(CompletableFuture<Entry> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) throw causa;
+            throw e;
+        }
+    }
+
+    private Payment read(Entry entry) {
+        try {
+            return objectMapper.readValue(entry.resposta(), Payment.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Resposta idempotente inválida", e);
+        }
+    }
+
+    private String write(Payment payment) {
+        try {
+            return objectMapper.writeValueAsString(payment);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar a resposta", e);
+        }
+    }
+
+    private String hash(PaymentRequestDTO dto) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(dto);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Falha ao calcular o hash da requisição", e);
+        }
+    }
+
+    public record Result(Payment payment, boolean replay) {
+    }
+
+    private record Entry(String requestHash, String resposta) {
+    }
+
+    private record Outcome(Entry entry, boolean criada) {
+    }
+}
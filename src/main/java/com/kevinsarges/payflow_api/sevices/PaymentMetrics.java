@@ -0,0 +1,82 @@
+package com.kevinsarges.payflow_api.sevices;
+
+import com.kevinsarges.payflow_api.entities.PaymentMethod;
+import com.kevinsarges.payflow_api.entities.PaymentStatus;
+import com.kevinsarges.payflow_api.utils.BusinessException;
+import com.kevinsarges.payflow_api.utils.ConcurrentStatusUpdateException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+@Component
+@RequiredArgsConstructor
+public class PaymentMetrics {
+    private static final String NONE = "none";
+
+    private final MeterRegistry registry;
+
+    public static Sample start(String operation) {
+        return new Sample(operation, System.nanoTime());
+    }
+
+    public void record(Sample sample) {
+        Timer.builder("payflow.payments.operation")
+                .description("Duração das operações de pagamento no PaymentService")
+                .tags("operation", sample.operation, "metodo", sample.metodo,
+                        "transition", sample.transition, "outcome", sample.outcome)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(System.nanoTime() - sample.startNanos, TimeUnit.NANOSECONDS);
+
+        if (sample.reason != null) rejected(sample.operation, sample.reason);
+    }
+
+    public void rejected(String operation, String reason) {
+        registry.counter("payflow.payments.rejections", "operation", operation, "reason", reason).increment();
+    }
+
+    public static String reasonOf(RuntimeException e) {
+        return e instanceof BusinessException business ? business.getReason() : "erro_inesperado";
+    }
+
+    public static final class Sample {
+        private final String operation;
+        private final long startNanos;
+        private String metodo = NONE;
+        private String transition = NONE;
+        private String outcome = "success";
+        private String reason;
+
+        private Sample(String operation, long startNanos) {
+            this.operation = operation;
+            this.startNanos = startNanos;
+        }
+
+        public Sample metodo(PaymentMethod metodo) {
+            if (metodo != null) this.metodo = metodo.name();
+            return this;
+        }
+
+        public Sample transition(PaymentStatus de, PaymentStatus para) {
+            this.transition = (de == null ? "desconhecido" : de.name()) + "->" + (para == null ? "desconhecido" : para.name());
+            return this;
+        }
+
+        public Sample failed(RuntimeException e) {
+            if (e instanceof ConcurrentStatusUpdateException) {
+                outcome = "conflict";
+            } else if (e instanceof BusinessException) {
+                outcome = "rejected";
+            } else {
+                outcome = "error";
+                return this;
+            }
+
+            reason = reasonOf(e);
+            return this;
+        }
+    }
+}
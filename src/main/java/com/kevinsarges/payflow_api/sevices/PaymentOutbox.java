@@ -0,0 +1,68 @@
+package com.kevinsarges.payflow_api.sevices;
+
+import com.kevinsarges.payflow_api.entities.Payment;
+import com.kevinsarges.payflow_api.entities.PaymentEvent;
+import com.kevinsarges.payflow_api.entities.PaymentEventType;
+import com.kevinsarges.payflow_api.entities.PaymentStatus;
+import com.kevinsarges.payflow_api.repositories.PaymentEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+// Grava os eventos de pagamento na mesma transação da escrita; o PaymentOutboxRelay publica depois do commit
+@Component
+@RequiredArgsConstructor
+public class PaymentOutbox {
+    private final PaymentEventRepository repository;
+
+    public void created(Payment payment) {
+        repository.save(createdEvent(payment, Instant.now()));
+    }
+
+    public void createdAll(Collection<Payment> payments) {
+        Instant agora = Instant.now();
+        List<PaymentEvent> eventos = new ArrayList<>(payments.size());
+        for (Payment payment : payments) {
+            eventos.add(createdEvent(payment, agora));
+        }
+        repository.saveAll(eventos);
+    }
+
+    public void statusChanged(Payment payment, PaymentStatus statusAnterior) {
+        statusChanged(payment.getId(), payment.getVersion(), statusAnterior, payment.getStatus());
+    }
+
+    public void statusChanged(Long paymentId, Long versao, PaymentStatus statusAnterior, PaymentStatus novoStatus) {
+        repository.save(statusChangedEvent(paymentId, versao, statusAnterior, novoStatus));
+    }
+
+    // Os eventos são montados aqui também para o ReactivePaymentService, que grava pelo R2DBC
+    static PaymentEvent statusChangedEvent(Long paymentId, Long versao, PaymentStatus statusAnterior, PaymentStatus novoStatus) {
+        PaymentEvent event = new PaymentEvent();
+        event.setPaymentId(paymentId);
+        event.setTipo(novoStatus == PaymentStatus.INATIVO ? PaymentEventType.PAGAMENTO_INATIVADO : PaymentEventType.STATUS_ALTERADO);
+        event.setStatusAnterior(statusAnterior);
+        event.setStatus(novoStatus);
+        event.setVersao(versao);
+        event.setOcorridoEm(Instant.now());
+        return event;
+    }
+
+    static PaymentEvent createdEvent(Payment payment, Instant agora) {
+        PaymentEvent event = new PaymentEvent();
+        event.setPaymentId(payment.getId());
+        event.setTipo(PaymentEventType.PAGAMENTO_CRIADO);
+        event.setStatus(payment.getStatus());
+        event.setVersao(payment.getVersion());
+        event.setCodigoDebito(payment.getCodigoDebito());
+        event.setCpfCnpj(payment.getCpfCnpj());
+        event.setMetodo(payment.getMetodo());
+        event.setValor(payment.getValor());
+        event.setOcorridoEm(agora);
+        return event;
+    }
+}
@@ -0,0 +1,83 @@
+package com.kevinsarges.payflow_api.sevices;
+
+import com.kevinsarges.payflow_api.DTOs.PaymentEventDTO;
+import com.kevinsarges.payflow_api.entities.PaymentEvent;
+import com.kevinsarges.payflow_api.repositories.PaymentEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+// Entrega pelo menos uma vez: o evento só é marcado como publicado depois que o publisher confirma o lote.
+// Os lotes saem em ordem de id, que segue a ordem dos commits de cada pagamento; a versão do pagamento vai no
+// evento para que o consumidor descarte duplicados e eventos antigos.
+@Slf4j
+@Component
+public class PaymentOutboxRelay {
+    private final PaymentEventRepository repository;
+    private final PaymentEventPublisher publisher;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration retention;
+    private final Counter publicados;
+    private final Counter falhas;
+
+    public PaymentOutboxRelay(
+            PaymentEventRepository repository,
+            PaymentEventPublisher publisher,
+            @Value("${payflow.outbox.relay.enabled:true}") boolean enabled,
+            @Value("${payflow.outbox.relay.batch-size:500}") int batchSize,
+            @Value("${payflow.outbox.retention:7d}") Duration retention,
+            MeterRegistry meterRegistry
+    ) {
+        this.repository = repository;
+        this.publisher = publisher;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.retention = retention;
+        this.publicados = meterRegistry.counter("payflow.outbox.published");
+        this.falhas = meterRegistry.counter("payflow.outbox.publish.failures");
+    }
+
+    @Scheduled(fixedDelayString = "${payflow.outbox.relay.interval:500ms}")
+    public void run() {
+        if (!enabled) return;
+
+        try {
+            drain();
+        } catch (RuntimeException e) {
+            falhas.increment();
+            log.warn("Falha ao publicar eventos do outbox, nova tentativa no próximo ciclo", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${payflow.outbox.purge.interval:1h}")
+    public void purge() {
+        if (!enabled) return;
+        repository.deletePublishedBefore(Instant.now().minus(retention));
+    }
+
+    public int drain() {
+        int total = 0;
+
+        while (true) {
+            List<PaymentEvent> lote = repository.findPendentes(Limit.of(batchSize));
+            if (lote.isEmpty()) return total;
+
+            publisher.publish(lote.stream().map(PaymentEventDTO::from).toList());
+            repository.markPublished(lote.stream().map(PaymentEvent::getId).toList(), Instant.now());
+
+            publicados.increment(lote.size());
+            total += lote.size();
+
+            if (lote.size() < batchSize) return total;
+        }
+    }
+}
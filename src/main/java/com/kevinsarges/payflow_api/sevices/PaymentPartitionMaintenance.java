@@ -0,0 +1,156 @@
+package com.kevinsarges.payflow_api.sevices;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.DatabaseMetaData;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+// No PostgreSQL a tabela payment é particionada por mês em criado_em (migration V5). Este job garante que as
+// partições dos próximos meses existam antes de receberem dados e remove as de meses passados que o PaymentArchiver já
+// esvaziou (desanexa e apaga, sem DELETE em massa); em outros bancos não faz nada
+@Slf4j
+@Component
+public class PaymentPartitionMaintenance {
+    private static final DateTimeFormatter SUFIXO = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int monthsAhead;
+    private final boolean dropArchived;
+    private volatile Boolean particionada;
+
+    public PaymentPartitionMaintenance(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            @Value("${payflow.partitions.enabled:true}") boolean enabled,
+            @Value("${payflow.partitions.months-ahead:3}") int monthsAhead,
+            @Value("${payflow.partitions.drop-archived:true}") boolean dropArchived
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.monthsAhead = monthsAhead;
+        this.dropArchived = dropArchived;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${payflow.partitions.cron:0 0 3 * * *}")
+    public void run() {
+        if (!enabled || !isPartitioned()) return;
+
+        try {
+            List<String> criadas = ensurePartitions(YearMonth.now(ZoneOffset.UTC));
+            if (!criadas.isEmpty()) log.info("Partições de payment criadas: {}", criadas);
+        } catch (RuntimeException e) {
+            log.warn("Falha ao criar as partições mensais de payment, nova tentativa no próximo ciclo", e);
+        }
+
+        if (!dropArchived) return;
+        try {
+            List<String> removidas = dropArchivedPartitions(YearMonth.now(ZoneOffset.UTC));
+            if (!removidas.isEmpty()) log.info("Partições de payment arquivadas removidas: {}", removidas);
+        } catch (RuntimeException e) {
+            log.warn("Falha ao remover as partições arquivadas de payment, nova tentativa no próximo ciclo", e);
+        }
+    }
+
+    public List<String> ensurePartitions(YearMonth inicio) {
+        List<String> criadas = new ArrayList<>();
+
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth mes = inicio.plusMonths(i);
+            String nome = "payment_" + mes.format(SUFIXO);
+            if (exists(nome)) continue;
+
+            jdbcTemplate.execute("create table " + nome + " partition of payment for values from ('"
+                    + mes.atDay(1).atStartOfDay().atOffset(ZoneOffset.UTC) + "') to ('"
+                    + mes.plusMonths(1).atDay(1).atStartOfDay().atOffset(ZoneOffset.UTC) + "')");
+            criadas.add(nome);
+        }
+        return criadas;
+    }
+
+    // Só meses anteriores ao atual: criado_em vem do relógio na criação, então essas partições não recebem mais linhas.
+    // Vazia quer dizer que o arquivador já moveu tudo para payment_archive; se ainda sobrar alguma linha (pendente,
+    // com falha ou recente demais para arquivar) a partição fica. A payment_default nunca é removida
+    public List<String> dropArchivedPartitions(YearMonth atual) {
+        List<String> removidas = new ArrayList<>();
+
+        for (String nome : monthlyPartitions()) {
+            YearMonth mes = YearMonth.parse(nome.substring("payment_".length()), SUFIXO);
+            if (!mes.isBefore(atual)) continue;
+
+            if (Boolean.TRUE.equals(transactionTemplate.execute(status -> detachAndDropIfEmpty(status, nome)))) {
+                removidas.add(nome);
+            }
+        }
+        return removidas;
+    }
+
+    // O detach trava payment e a partição até o commit, então nenhuma linha entra entre a conferência e o drop; se a
+    // partição ainda tiver dados a transação é desfeita e ela volta anexada
+    private boolean detachAndDropIfEmpty(TransactionStatus status, String nome) {
+        if (hasRows(nome)) return false;
+
+        jdbcTemplate.execute("alter table payment detach partition " + nome);
+        if (hasRows(nome)) {
+            status.setRollbackOnly();
+            return false;
+        }
+        jdbcTemplate.execute("drop table " + nome);
+        return true;
+    }
+
+    private boolean hasRows(String nome) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "select exists (select 1 from " + nome + ")", Boolean.class));
+    }
+
+    private List<String> monthlyPartitions() {
+        return jdbcTemplate.queryForList(
+                "select c.relname from pg_inherits i join pg_class c on c.oid = i.inhrelid "
+                        + "join pg_class p on p.oid = i.inhparent "
+                        + "where p.relname = 'payment' and c.relname ~ '^payment_[0-9]{4}_[0-9]{2}$' order by c.relname",
+                String.class);
+    }
+
+    private boolean exists(String nome) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "select exists (select 1 from pg_class where relname = ?)", Boolean.class, nome));
+    }
+
+    private boolean isPartitioned() {
+        if (particionada == null) {
+            particionada = isPostgres() && Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                    "select exists (select 1 from pg_partitioned_table pt join pg_class c on c.oid = pt.partrelid "
+                            + "where c.relname = 'payment')", Boolean.class));
+        }
+        return particionada;
+    }
+
+    private boolean isPostgres() {
+        try {
+            String produto = JdbcUtils.extractDatabaseMetaData(jdbcTemplate.getDataSource(),
+                    DatabaseMetaData::getDatabaseProductName);
+            return "PostgreSQL".equals(JdbcUtils.commonDatabaseName(produto));
+        } catch (MetaDataAccessException e) {
+            log.warn("Não foi possível identificar o banco para manter as partições de payment", e);
+            return false;
+        }
+    }
+}
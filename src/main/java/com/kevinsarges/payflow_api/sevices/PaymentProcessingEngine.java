@@ -0,0 +1,249 @@
+package com.kevinsarges.payflow_api.sevices;
+
+import com.kevinsarges.payflow_api.entities.Payment;
+import com.kevinsarges.payflow_api.entities.PaymentMethod;
+import com.kevinsarges.payflow_api.entities.PaymentStatus;
+import com.kevinsarges.payflow_api.repositories.PaymentRepository;
+import com.kevinsarges.payflow_api.repositories.PaymentStatusView;
+import com.kevinsarges.payflow_api.utils.BusinessException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Reserva pagamentos pendentes em lotes e os envia ao PaymentProcessor do método. A reserva é um UPDATE condicional
+// com prazo (reservadoAte): vários nós podem rodar o motor sem processar o mesmo pagamento, e a reserva de um nó que
+// caiu expira sozinha. Só reserva o que cabe na fila do executor, então a fila nunca cresce além do limite.
+// Com o PendingPaymentIndex montado os candidatos saem da memória, só dos métodos com processador, e o banco recebe
+// apenas o UPDATE da reserva; antes disso eles vêm da consulta por status. Mesmo com o índice, a cada db-sweep-interval
+// uma reserva vem da consulta: o índice é deste nó e não vê pagamentos criados por outro nó ou gravados direto no banco.
+@Slf4j
+@Component
+public class PaymentProcessingEngine {
+    private final PaymentRepository repository;
+    private final PaymentService paymentService;
+    private final PendingPaymentIndex pendingIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<PaymentMethod, PaymentProcessor> processadores = new EnumMap<>(PaymentMethod.class);
+    private final ThreadPoolExecutor executor;
+    private final Semaphore vagas;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration reserva;
+    private final long intervaloVarredura;
+    private final AtomicLong proximaVarredura;
+    private final MeterRegistry meterRegistry;
+    private final AtomicInteger emProcessamento = new AtomicInteger();
+
+    public PaymentProcessingEngine(
+            PaymentRepository repository,
+            PaymentService paymentService,
+            PendingPaymentIndex pendingIndex,
+            TransactionTemplate transactionTemplate,
+            List<PaymentProcessor> processors,
+            @Value("${payflow.processing.enabled:false}") boolean enabled,
+            @Value("${payflow.processing.workers:8}") int workers,
+            @Value("${payflow.processing.queue-capacity:200}") int queueCapacity,
+            @Value("${payflow.processing.batch-size:100}") int batchSize,
+            @Value("${payflow.processing.lease:2m}") Duration reserva,
+            @Value("${payflow.processing.db-sweep-interval:30s}") Duration intervaloVarredura,
+            MeterRegistry meterRegistry
+    ) {
+        this.repository = repository;
+        this.paymentService = paymentService;
+        this.pendingIndex = pendingIndex;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.reserva = reserva;
+        this.intervaloVarredura = intervaloVarredura.toNanos();
+        this.proximaVarredura = new AtomicLong(System.nanoTime() + this.intervaloVarredura);
+        this.meterRegistry = meterRegistry;
+        this.vagas = new Semaphore(workers + queueCapacity);
+
+        for (PaymentProcessor processor : processors) {
+            processor.metodos().forEach(metodo -> processadores.putIfAbsent(metodo, processor));
+        }
+
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "payflow-processing-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        meterRegistry.gauge("payflow.processing.in_flight", emProcessamento);
+        meterRegistry.gauge("payflow.processing.queue.size", executor.getQueue(), q -> q.size());
+    }
+
+    @Scheduled(fixedDelayString = "${payflow.processing.interval:200ms}")
+    public void run() {
+        if (!enabled) return;
+
+        try {
+            dispatch();
+        } catch (RuntimeException e) {
+            log.warn("Falha ao reservar pagamentos pendentes", e);
+        }
+    }
+
+    public int dispatch() {
+        int livres = Math.min(vagas.availablePermits(), batchSize);
+        if (livres == 0) return 0;
+
+        List<Payment> reservados = claim(livres);
+        for (Payment payment : reservados) {
+            vagas.acquireUninterruptibly();
+            emProcessamento.incrementAndGet();
+            executor.execute(() -> {
+                try {
+                    process(payment);
+                } finally {
+                    emProcessamento.decrementAndGet();
+                    vagas.release();
+                }
+            });
+        }
+
+        return reservados.size();
+    }
+
+    public int inFlight() {
+        return emProcessamento.get();
+    }
+
+    public List<Payment> claim(int limite) {
+        if (!pendingIndex.isReady() || sweepDue()) {
+            return transactionTemplate.execute(status -> {
+                Instant agora = Instant.now();
+                return reserve(repository.findClaimable(PaymentStatus.PENDENTE_PROCESSAMENTO, agora, Limit.of(limite)), agora);
+            });
+        }
+
+        Map<PaymentMethod, long[]> candidatos = pendingIndex.claim(limite, processadores.keySet());
+        List<Long> ids = new ArrayList<>(limite);
+        candidatos.values().forEach(lote -> {
+            for (long id : lote) ids.add(id);
+        });
+        if (ids.isEmpty()) return List.of();
+
+        List<Payment> reservados = List.of();
+        try {
+            reservados = transactionTemplate.execute(status -> reserve(ids, Instant.now()));
+            if (reservados.size() < ids.size()) releaseRejected(ids, reservados);
+            return reservados;
+        } catch (RuntimeException e) {
+            // Sem saber se a reserva foi gravada, os ids voltam depois do prazo de uma reserva; se estiverem livres antes
+            // disso a varredura pelo banco os pega
+            Set<Long> aceitos = idsOf(reservados);
+            Instant naoAntesDe = Instant.now().plus(reserva);
+            candidatos.forEach((metodo, lote) -> {
+                for (long id : lote) {
+                    if (!aceitos.contains(id)) pendingIndex.release(id, metodo, naoAntesDe);
+                }
+            });
+            throw e;
+        }
+    }
+
+    private boolean sweepDue() {
+        long agora = System.nanoTime();
+        long proxima = proximaVarredura.get();
+        return agora - proxima >= 0 && proximaVarredura.compareAndSet(proxima, agora + intervaloVarredura);
+    }
+
+    private List<Payment> reserve(List<Long> candidatos, Instant agora) {
+        if (candidatos.isEmpty()) return List.of();
+
+        String lote = UUID.randomUUID().toString();
+        if (repository.claim(candidatos, PaymentStatus.PENDENTE_PROCESSAMENTO, lote, agora.plus(reserva), agora) == 0) {
+            return List.of();
+        }
+        return repository.findByLoteProcessamento(lote);
+    }
+
+    // Recusados pelo UPDATE: reservados por outro nó ou que já saíram de PENDENTE_PROCESSAMENTO. Só os ainda
+    // pendentes voltam para o índice, e só quando a reserva do outro nó vencer
+    private void releaseRejected(List<Long> ids, List<Payment> reservados) {
+        Set<Long> aceitos = idsOf(reservados);
+        List<Long> recusados = ids.stream().filter(id -> !aceitos.contains(id)).toList();
+
+        for (PaymentStatusView atual : repository.findStatusByIdIn(recusados)) {
+            if (atual.getStatus() == PaymentStatus.PENDENTE_PROCESSAMENTO) {
+                pendingIndex.release(atual.getId(), atual.getMetodo(), atual.getReservadoAte());
+            }
+        }
+    }
+
+    private static Set<Long> idsOf(List<Payment> payments) {
+        Set<Long> ids = new HashSet<>(payments.size() * 2);
+        for (Payment payment : payments) ids.add(payment.getId());
+        return ids;
+    }
+
+    private void process(Payment payment) {
+        PaymentProcessor processor = processadores.get(payment.getMetodo());
+        if (processor == null) {
+            log.warn("Nenhum processador para o método {}, pagamento {} volta para a fila quando a reserva expirar",
+                    payment.getMetodo(), payment.getId());
+            return;
+        }
+
+        long inicio = System.nanoTime();
+        boolean aprovado;
+        try {
+            aprovado = processor.process(payment);
+        } catch (RuntimeException e) {
+            log.warn("Falha ao processar o pagamento {}", payment.getId(), e);
+            aprovado = false;
+        }
+
+        String outcome = aprovado ? "success" : "failure";
+        try {
+            paymentService.updateStatus(payment.getId(),
+                    aprovado ? PaymentStatus.PROCESSADO_COM_SUCESSO : PaymentStatus.PROCESSADO_COM_FALHA);
+        } catch (BusinessException e) {
+            // O status mudou por outro caminho (API, lote) enquanto o pagamento era processado
+            outcome = "skipped";
+        } catch (RuntimeException e) {
+            // Continua pendente e reservado por este nó: volta para o índice quando a reserva no banco vencer
+            pendingIndex.release(payment.getId(), payment.getMetodo(), payment.getReservadoAte());
+            throw e;
+        }
+
+        Timer.builder("payflow.processing.duration")
+                .description("Duração do processamento de cada pagamento, do processador até a gravação do status")
+                .tags("metodo", payment.getMetodo().name(), "outcome", outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,13 @@
+package com.kevinsarges.payflow_api.sevices;
+
+import com.kevinsarges.payflow_api.entities.Payment;
+import com.kevinsarges.payflow_api.entities.PaymentMethod;
+
+import java.util.Set;
+
+// Integração com o meio de pagamento. Retorna se o pagamento foi aprovado; exceções contam como falha
+public interface PaymentProcessor {
+    Set<PaymentMethod> metodos();
+
+    boolean process(Payment payment);
+}
@@ -0,0 +1,192 @@
+package com.kevinsarges.payflow_api.sevices;
+
+import com.kevinsarges.payflow_api.DTOs.PaymentSummaryDTO;
+import com.kevinsarges.payflow_api.entities.Payment;
+import com.kevinsarges.payflow_api.entities.PaymentEvent;
+import com.kevinsarges.payflow_api.entities.PaymentReadModel;
+import com.kevinsarges.payflow_api.entities.PaymentStatus;
+import com.kevinsarges.payflow_api.repositories.PaymentEventRepository;
+import com.kevinsarges.payflow_api.repositories.PaymentReadModelRepository;
+import com.kevinsarges.payflow_api.repositories.PaymentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigInteger;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Mantém payment_read_model, a cópia de payment usada pelas listagens e filtros. Os eventos do outbox só dizem quais
+// pagamentos mudaram: cada lote relê o estado atual deles em payment pela chave primária, então a ordem dos eventos não
+// importa e pagamentos que saíram de payment (arquivados) saem também do read model. O caminho de escrita não muda, o
+// evento já era gravado na transação do pagamento.
+//
+// atualizadoAte é o início da última execução que esvaziou a fila: as leituras só usam o read model se esse instante
+// tiver no máximo max-staleness. Rode a projeção em um único nó.
+//
+// O token de consistência é o maior id do outbox visível logo depois da escrita do cliente, então cobre os eventos dela.
+// Com o token a leitura só usa o read model se não houver evento não projetado com id até ele. A conferência é no banco,
+// não contra um relógio ou estado deste nó: vale para um token emitido por qualquer nó, e como os ids vêm em blocos
+// (um nó pode confirmar um id menor depois de um maior) um evento atrasado só manda a leitura para o primário.
+@Slf4j
+@Component
+public class PaymentProjection {
+    private final PaymentEventRepository eventRepository;
+    private final PaymentRepository paymentRepository;
+    private final PaymentReadModelRepository readModelRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration maxStaleness;
+    private final Counter projetados;
+    private final Counter leiturasReadModel;
+    private final Counter leiturasPrimario;
+    private volatile Instant atualizadoAte;
+
+    public PaymentProjection(
+            PaymentEventRepository eventRepository,
+            PaymentRepository paymentRepository,
+            PaymentReadModelRepository readModelRepository,
+            EntityManager entityManager,
+            TransactionTemplate transactionTemplate,
+            @Value("${payflow.readmodel.enabled:true}") boolean enabled,
+            @Value("${payflow.readmodel.batch-size:500}") int batchSize,
+            @Value("${payflow.readmodel.max-staleness:2s}") Duration maxStaleness,
+            MeterRegistry meterRegistry
+    ) {
+        this.eventRepository = eventRepository;
+        this.paymentRepository = paymentRepository;
+        this.readModelRepository = readModelRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxStaleness = maxStaleness;
+        this.projetados = meterRegistry.counter("payflow.readmodel.projected");
+        this.leiturasReadModel = meterRegistry.counter("payflow.readmodel.reads", "source", "read_model");
+        this.leiturasPrimario = meterRegistry.counter("payflow.readmodel.reads", "source", "primary");
+        Gauge.builder("payflow.readmodel.lag", this, PaymentProjection::lagSeconds)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${payflow.readmodel.interval:200ms}")
+    public void run() {
+        if (!enabled) return;
+
+        try {
+            drain();
+        } catch (RuntimeException e) {
+            log.warn("Falha ao projetar eventos no read model, nova tentativa no próximo ciclo", e);
+        }
+    }
+
+    public int drain() {
+        Instant inicio = Instant.now();
+        int total = 0;
+
+        while (true) {
+            List<PaymentEvent> lote = eventRepository.findNaoProjetados(Limit.of(batchSize));
+            if (!lote.isEmpty()) {
+                transactionTemplate.executeWithoutResult(status -> project(lote));
+                projetados.increment(lote.size());
+                total += lote.size();
+            }
+
+            if (lote.size() < batchSize) {
+                atualizadoAte = inicio;
+                return total;
+            }
+        }
+    }
+
+    // Chamado depois do commit da escrita
+    public long consistencyToken() {
+        Long maior = eventRepository.findMaxId();
+        return maior == null ? 0 : maior;
+    }
+
+    public boolean canServe(Long lidoApos) {
+        return record(isFresh() && (lidoApos == null || !eventRepository.existsByProjetadoEmIsNullAndIdLessThanEqual(lidoApos)));
+    }
+
+    // isFresh e record separados para o stack reativo, que confere o token pelo R2DBC
+    public boolean isFresh() {
+        Instant ate = atualizadoAte;
+        return enabled && ate != null && !ate.isBefore(Instant.now().minus(maxStaleness));
+    }
+
+    public boolean record(boolean servir) {
+        (servir ? leiturasReadModel : leiturasPrimario).increment();
+        return servir;
+    }
+
+    public Page<PaymentSummaryDTO> findSummaries(
+            BigInteger codigoDebito,
+            String cpfCnpj,
+            PaymentStatus status,
+            Instant criadoDe,
+            Instant criadoAte,
+            Pageable pageable
+    ) {
+        return readModelRepository.findSummariesByFilters(codigoDebito, cpfCnpj, status, criadoDe, criadoAte, pageable);
+    }
+
+    private void project(List<PaymentEvent> eventos) {
+        Instant agora = Instant.now();
+        Set<Long> ids = new HashSet<>(eventos.size() * 2);
+        for (PaymentEvent evento : eventos) {
+            ids.add(evento.getPaymentId());
+        }
+
+        Map<Long, PaymentReadModel> linhas = new HashMap<>(ids.size() * 2);
+        for (PaymentReadModel linha : readModelRepository.findAllById(ids)) {
+            linhas.put(linha.getId(), linha);
+        }
+
+        for (Payment payment : paymentRepository.findAllById(ids)) {
+            PaymentReadModel linha = linhas.remove(payment.getId());
+            boolean nova = linha == null;
+            if (nova) {
+                linha = new PaymentReadModel();
+                linha.setId(payment.getId());
+            }
+
+            linha.setCodigoDebito(payment.getCodigoDebito());
+            linha.setCpfCnpj(payment.getCpfCnpj());
+            linha.setMetodo(payment.getMetodo());
+            linha.setValor(payment.getValor());
+            linha.setStatus(payment.getStatus());
+            linha.setVersion(payment.getVersion());
+            linha.setCriadoEm(payment.getCriadoEm());
+            linha.setAtualizadoEm(payment.getAtualizadoEm());
+            linha.setProjetadoEm(agora);
+            if (nova) entityManager.persist(linha);
+        }
+
+        // O que sobrou não existe mais em payment
+        if (!linhas.isEmpty()) readModelRepository.deleteAllInBatch(linhas.values());
+
+        eventRepository.markProjected(eventos.stream().map(PaymentEvent::getId).toList(), agora);
+    }
+
+    private double lagSeconds() {
+        Instant ate = atualizadoAte;
+        return ate == null ? Double.NaN : Duration.between(ate, Instant.now()).toMillis() / 1000.0;
+    }
+}
@@ -0,0 +1,113 @@
+package com.kevinsarges.payflow_api.sevices;
+
+import com.kevinsarges.payflow_api.DTOs.BatchStatusUpdateResponseDTO;
+import com.kevinsarges.payflow_api.DTOs.StatusTransitionItemDTO;
+import com.kevinsarges.payflow_api.entities.Payment;
+import com.kevinsarges.payflow_api.entities.PaymentStatus;
+import com.kevinsarges.payflow_api.repositories.PaymentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Devolve pagamentos PROCESSADO_COM_FALHA para PENDENTE_PROCESSAMENTO com backoff exponencial. A transição para falha
+// soma uma tentativa; aqui cada pagamento ganha sua próxima tentativa com jitter, para que uma queda em massa não volte
+// toda de uma vez, e no máximo batch-size pagamentos voltam para a fila por ciclo.
+@Slf4j
+@Component
+public class PaymentRetryScheduler {
+    private final PaymentRepository repository;
+    private final PaymentService paymentService;
+    private final PaymentCache cache;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Duration baseDelay;
+    private final Duration maxDelay;
+    private final int maxAttempts;
+    private final int batchSize;
+    private final Counter reenfileirados;
+
+    public PaymentRetryScheduler(
+            PaymentRepository repository,
+            PaymentService paymentService,
+            PaymentCache cache,
+            TransactionTemplate transactionTemplate,
+            @Value("${payflow.retry.enabled:true}") boolean enabled,
+            @Value("${payflow.retry.base-delay:30s}") Duration baseDelay,
+            @Value("${payflow.retry.max-delay:1h}") Duration maxDelay,
+            @Value("${payflow.retry.max-attempts:5}") int maxAttempts,
+            @Value("${payflow.retry.batch-size:500}") int batchSize,
+            MeterRegistry meterRegistry
+    ) {
+        this.repository = repository;
+        this.paymentService = paymentService;
+        this.cache = cache;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.baseDelay = baseDelay;
+        this.maxDelay = maxDelay;
+        this.maxAttempts = maxAttempts;
+        this.batchSize = batchSize;
+        this.reenfileirados = meterRegistry.counter("payflow.retry.requeued");
+    }
+
+    @Scheduled(fixedDelayString = "${payflow.retry.interval:5s}")
+    public void run() {
+        if (!enabled) return;
+
+        try {
+            schedule();
+            requeueDue();
+        } catch (RuntimeException e) {
+            log.warn("Falha ao reagendar pagamentos com falha", e);
+        }
+    }
+
+    public int schedule() {
+        return transactionTemplate.execute(status -> {
+            Instant agora = Instant.now();
+            List<Payment> falhas = repository.findRetriesToSchedule(maxAttempts, Limit.of(batchSize));
+            for (Payment payment : falhas) {
+                payment.setProximaTentativa(agora.plus(backoff(payment.getTentativas())));
+                // proximaTentativa não incrementa a versão: sem isso a busca por id serviria a cópia antiga do cache
+                cache.onWrite(payment, payment.getStatus());
+            }
+            return falhas.size();
+        });
+    }
+
+    public int requeueDue() {
+        List<Long> vencidos = repository.findRetriesDue(Instant.now(), Limit.of(batchSize));
+        if (vencidos.isEmpty()) return 0;
+
+        List<StatusTransitionItemDTO> itens = vencidos.stream()
+                .map(id -> {
+                    StatusTransitionItemDTO item = new StatusTransitionItemDTO();
+                    item.setId(id);
+                    item.setNovoStatus(PaymentStatus.PENDENTE_PROCESSAMENTO.name());
+                    return item;
+                })
+                .toList();
+
+        BatchStatusUpdateResponseDTO result = paymentService.updateStatusBatch(itens);
+        reenfileirados.increment(result.getAtualizados());
+        return result.getAtualizados();
+    }
+
+    // Metade fixa, metade aleatória: base * 2^(tentativa - 1), limitado a max-delay
+    Duration backoff(Integer tentativas) {
+        int expoente = Math.max(0, Math.min(30, (tentativas == null ? 1 : tentativas) - 1));
+        long teto = Math.min(maxDelay.toMillis(), baseDelay.toMillis() << expoente);
+        long metade = teto / 2;
+        return Duration.ofMillis(metade + ThreadLocalRandom.current().nextLong(teto - metade + 1));
+    }
+}
@@ -0,0 +1,62 @@
+package com.kevinsarges.payflow_api.sevices;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.sql.DatabaseMetaData;
+import java.util.Map;
+
+// Bancos ./data criados quando o id era IDENTITY ganham a payment_seq do ddl-auto=update começando em 1, e os ids
+// novos colidiriam com os antigos. Antes do servidor aceitar requisições, as sequences são reiniciadas acima do maior
+// id de cada tabela. Só no H2 com ddl-auto=update: com o Flyway a V1 cria tabela e sequence juntas
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+@ConditionalOnProperty(name = "spring.jpa.hibernate.ddl-auto", havingValue = "update")
+public class PaymentSequenceAlignment {
+    // Mesmo allocationSize das sequences mapeadas no JPA: o Hibernate usa o bloco (valor - 49, valor]
+    private static final int ALLOCATION_SIZE = 50;
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "payment_seq", "payment",
+            "payment_event_seq", "payment_event"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PaymentSequenceAlignment(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void align() {
+        if (!isH2()) return;
+
+        SEQUENCES.forEach((sequence, tabela) -> {
+            Long maiorId = jdbcTemplate.queryForObject("select max(id) from " + tabela, Long.class);
+            Long proximo = jdbcTemplate.queryForObject(
+                    "select base_value from information_schema.sequences where upper(sequence_name) = upper(?)",
+                    Long.class, sequence);
+            if (maiorId == null || proximo == null || proximo >= maiorId + ALLOCATION_SIZE) return;
+
+            jdbcTemplate.execute("alter sequence " + sequence + " restart with " + (maiorId + ALLOCATION_SIZE));
+            log.info("Sequence {} reiniciada acima do maior id de {} ({})", sequence, tabela, maiorId);
+        });
+    }
+
+    private boolean isH2() {
+        try {
+            String produto = JdbcUtils.extractDatabaseMetaData(jdbcTemplate.getDataSource(),
+                    DatabaseMetaData::getDatabaseProductName);
+            return "H2".equals(JdbcUtils.commonDatabaseName(produto));
+        } catch (MetaDataAccessException e) {
+            log.warn("Não foi possível identificar o banco para alinhar as sequences", e);
+            return false;
+        }
+    }
+}
@@ -1,34 +1,193 @@
 package com.kevinsarges.payflow_api.sevices;
 
+import com.kevinsarges.payflow_api.DTOs.BatchStatusUpdateResponseDTO;
+import com.kevinsarges.payflow_api.DTOs.BulkPaymentItemResultDTO;
+import com.kevinsarges.payflow_api.DTOs.BulkPaymentResponseDTO;
+import com.kevinsarges.payflow_api.DTOs.CursorPageDTO;
 import com.kevinsarges.payflow_api.DTOs.DeletePaymentResponseDTO;
 import com.kevinsarges.payflow_api.DTOs.PaymentRequestDTO;
+import com.kevinsarges.payflow_api.DTOs.PaymentSummaryDTO;
+import com.kevinsarges.payflow_api.DTOs.StatusTransitionItemDTO;
+import com.kevinsarges.payflow_api.DTOs.StatusTransitionResultDTO;
 import com.kevinsarges.payflow_api.entities.Payment;
+import com.kevinsarges.payflow_api.entities.PaymentArchive;
 import com.kevinsarges.payflow_api.entities.PaymentMethod;
 import com.kevinsarges.payflow_api.entities.PaymentStatus;
+import com.kevinsarges.payflow_api.repositories.PayerPaymentView;
+import com.kevinsarges.payflow_api.repositories.PaymentArchiveRepository;
 import com.kevinsarges.payflow_api.repositories.PaymentRepository;
+import com.kevinsarges.payflow_api.repositories.PaymentStatusView;
 import com.kevinsarges.payflow_api.utils.BusinessException;
+import com.kevinsarges.payflow_api.utils.ConcurrentStatusUpdateException;
+import com.kevinsarges.payflow_api.utils.CpfCnpj;
+import com.kevinsarges.payflow_api.utils.CursorCodec;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigInteger;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class PaymentService {
+    private static final int BULK_CHUNK_SIZE = 500;
+    private static final int MAX_CURSOR_PAGE_SIZE = 500;
+    private static final int BATCH_IN_CHUNK_SIZE = 1000;
+
     private final PaymentRepository repository;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final PaymentCache cache;
+    private final PaymentMetrics metrics;
+    private final PaymentOutbox outbox;
+    private final PaymentStatsService stats;
+    private final PaymentArchiveRepository archiveRepository;
+    private final PaymentProjection projection;
+    private final PendingPaymentIndex pendingIndex;
+    private final TransactionTemplate transactionTemplate;
 
     @Transactional
     public Payment create(PaymentRequestDTO dto) {
+        PaymentMetrics.Sample sample = PaymentMetrics.start("create");
+
+        try {
+            Payment pay = buildPayment(dto);
+            sample.metodo(pay.getMetodo());
+
+            Payment saved = repository.save(pay);
+            outbox.created(saved);
+            stats.created(saved);
+            pendingIndex.created(saved);
+            cache.onWrite(saved, null);
+            return saved;
+        } catch (RuntimeException e) {
+            sample.failed(e);
+            throw e;
+        } finally {
+            metrics.record(sample);
+        }
+    }
+
+    // Sem @Transactional: cada fatia de BULK_CHUNK_SIZE é gravada e commitada na sua própria transação, então um lote de
+    // centenas de milhares de linhas não segura conexão e locks do começo ao fim. Fatias já commitadas ficam gravadas
+    // se uma seguinte falhar; as linhas dela saem como rejeitadas no resultado.
+    public BulkPaymentResponseDTO createBulk(List<PaymentRequestDTO> dtos) {
+        PaymentMetrics.Sample sample = PaymentMetrics.start("createBulk");
+
+        try {
+            return doCreateBulk(dtos);
+        } catch (RuntimeException e) {
+            sample.failed(e);
+            throw e;
+        } finally {
+            metrics.record(sample);
+        }
+    }
+
+    private BulkPaymentResponseDTO doCreateBulk(List<PaymentRequestDTO> dtos) {
+        List<BulkPaymentItemResultDTO> resultados = new ArrayList<>(dtos.size());
+        List<Payment> lote = new ArrayList<>(BULK_CHUNK_SIZE);
+        List<Integer> linhasLote = new ArrayList<>(BULK_CHUNK_SIZE);
+        int criados = 0;
+
+        for (int linha = 0; linha < dtos.size(); linha++) {
+            PaymentRequestDTO dto = dtos.get(linha);
+
+            try {
+                validateRequest(dto);
+                lote.add(buildPayment(dto));
+                linhasLote.add(linha);
+            } catch (RuntimeException e) {
+                metrics.rejected("createBulk", PaymentMetrics.reasonOf(e));
+                resultados.add(new BulkPaymentItemResultDTO(linha, null, false, e.getMessage()));
+            }
+
+            if (lote.size() == BULK_CHUNK_SIZE) {
+                criados += flushBulk(lote, linhasLote, resultados);
+            }
+        }
+
+        if (!lote.isEmpty()) {
+            criados += flushBulk(lote, linhasLote, resultados);
+        }
+
+        resultados.sort((a, b) -> Integer.compare(a.getLinha(), b.getLinha()));
+        return new BulkPaymentResponseDTO(dtos.size(), criados, dtos.size() - criados, resultados);
+    }
+
+    private int flushBulk(List<Payment> lote, List<Integer> linhasLote, List<BulkPaymentItemResultDTO> resultados) {
+        int salvos = lote.size();
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                repository.saveAll(lote);
+                outbox.createdAll(lote);
+                lote.forEach(stats::created);
+                lote.forEach(pendingIndex::created);
+                entityManager.flush();
+                entityManager.clear();
+            });
+            cache.invalidateFilters();
+
+            for (int i = 0; i < lote.size(); i++) {
+                resultados.add(new BulkPaymentItemResultDTO(linhasLote.get(i), lote.get(i).getId(), true, null));
+            }
+        } catch (DataAccessException e) {
+            // Só a fatia volta; as anteriores já foram commitadas e continuam no resultado como criadas
+            entityManager.clear();
+            for (Integer linha : linhasLote) {
+                metrics.rejected("createBulk", PaymentMetrics.reasonOf(e));
+                resultados.add(new BulkPaymentItemResultDTO(linha, null, false, "Falha ao gravar a fatia do lote"));
+            }
+            salvos = 0;
+        }
+
+        lote.clear();
+        linhasLote.clear();
+        return salvos;
+    }
+
+    // Package-private: o ReactivePaymentService aplica as mesmas validações e regras de transição
+    void validateRequest(PaymentRequestDTO dto) {
+        if (dto == null) throw new BusinessException("validacao", "Pagamento não informado");
+
+        Set<ConstraintViolation<PaymentRequestDTO>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            throw new BusinessException("validacao", violations.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+    }
+
+    Payment buildPayment(PaymentRequestDTO dto) {
         PaymentMethod method;
 
         try {
             method = PaymentMethod.valueOf(dto.getMetodo().toUpperCase());
         } catch (IllegalArgumentException e) {
-            throw new BusinessException("Método de pagamento inválido: " + dto.getMetodo());
+            throw new BusinessException("metodo_invalido", "Método de pagamento inválido: " + dto.getMetodo());
         }
 
         Payment pay = new Payment();
@@ -41,75 +200,426 @@ public class PaymentService {
 
         if((pay.getMetodo() == PaymentMethod.CREDITO || pay.getMetodo() == PaymentMethod.DEBITO)
             && (pay.getNumeroCartao() == null || pay.getNumeroCartao().isBlank())) {
-            throw new RuntimeException("Número do cartão obrigatório para pagamento com cartão");
+            throw new BusinessException("cartao_obrigatorio", "Número do cartão obrigatório para pagamento com cartão");
         }
 
-        return repository.save(pay);
+        return pay;
+    }
+
+    public Payment findById(Long id) {
+        Payment payment = cache.get(id, key -> repository.findById(key).orElse(null));
+        if (payment == null) throw new BusinessException("nao_encontrado", "Pagamento não encontrado");
+        return payment;
+    }
+
+    public Page<PaymentSummaryDTO> listAll(Pageable pageable) {
+        return listAll(pageable, null);
     }
 
-    public Page<Payment> listAll(Pageable pageable) {
-        return repository.findAll(pageable);
+    // lidoApos: token de consistência da última escrita do cliente (leia suas escritas); sem ele vale a defasagem máxima
+    public Page<PaymentSummaryDTO> listAll(Pageable pageable, Long lidoApos) {
+        if (projection.canServe(lidoApos)) return projection.findSummaries(null, null, null, null, null, pageable);
+        return repository.findSummariesByFilters(null, null, null, null, null, pageable);
     }
 
-    public Page<Payment> filterListPayments(
+    public Page<PaymentSummaryDTO> filterListPayments(
             BigInteger codigoDebito,
             String cpfCnpj,
             String status,
             Pageable pageable
     ) {
-        PaymentStatus st = null;
+        return filterListPayments(codigoDebito, cpfCnpj, status, null, null, pageable);
+    }
 
-        if (status != null && !status.isBlank()) {
-            try {
-                st = PaymentStatus.valueOf(status.toUpperCase());
-            } catch (IllegalArgumentException e) {
-                throw new BusinessException("Status de pagamento inválido: " + status);
+    public Page<PaymentSummaryDTO> filterListPayments(
+            BigInteger codigoDebito,
+            String cpfCnpj,
+            String status,
+            Instant criadoDe,
+            Instant criadoAte,
+            Pageable pageable
+    ) {
+        return filterListPayments(codigoDebito, cpfCnpj, status, criadoDe, criadoAte, pageable, null);
+    }
+
+    public Page<PaymentSummaryDTO> filterListPayments(
+            BigInteger codigoDebito,
+            String cpfCnpj,
+            String status,
+            Instant criadoDe,
+            Instant criadoAte,
+            Pageable pageable,
+            Long lidoApos
+    ) {
+        PaymentMetrics.Sample sample = PaymentMetrics.start("filterListPayments");
+
+        try {
+            PaymentStatus st = parseStatus(status);
+            validatePeriod(criadoDe, criadoAte);
+            if (projection.canServe(lidoApos)) {
+                return projection.findSummaries(codigoDebito, cpfCnpj, st, criadoDe, criadoAte, pageable);
+            }
+            return cache.getFilter(codigoDebito, cpfCnpj, st, criadoDe, criadoAte, pageable,
+                    () -> repository.findSummariesByFilters(codigoDebito, cpfCnpj, st, criadoDe, criadoAte, pageable));
+        } catch (RuntimeException e) {
+            sample.failed(e);
+            throw e;
+        } finally {
+            metrics.record(sample);
+        }
+    }
+
+    public CursorPageDTO<Payment> listAfter(String cursor, int size) {
+        int pageSize = cursorPageSize(size);
+        List<Payment> rows = repository.findAllAfter(CursorCodec.decode(cursor), Limit.of(pageSize + 1));
+        return toCursorPage(rows, pageSize);
+    }
+
+    public CursorPageDTO<Payment> filterListPaymentsAfter(
+            BigInteger codigoDebito,
+            String cpfCnpj,
+            String status,
+            String cursor,
+            int size
+    ) {
+        return filterListPaymentsAfter(codigoDebito, cpfCnpj, status, null, null, cursor, size);
+    }
+
+    public CursorPageDTO<Payment> filterListPaymentsAfter(
+            BigInteger codigoDebito,
+            String cpfCnpj,
+            String status,
+            Instant criadoDe,
+            Instant criadoAte,
+            String cursor,
+            int size
+    ) {
+        validatePeriod(criadoDe, criadoAte);
+        int pageSize = cursorPageSize(size);
+        List<Payment> rows = repository.findByFiltersAfter(codigoDebito, cpfCnpj, parseStatus(status),
+                criadoDe, criadoAte, CursorCodec.decode(cursor), Limit.of(pageSize + 1));
+        return toCursorPage(rows, pageSize);
+    }
+
+    void validatePeriod(Instant criadoDe, Instant criadoAte) {
+        if (criadoDe != null && criadoAte != null && !criadoDe.isBefore(criadoAte)) {
+            throw new BusinessException("validacao", "Período inválido: criadoDe deve ser anterior a criadoAte");
+        }
+    }
+
+    public CursorPageDTO<PayerPaymentView> listByPayer(String cpfCnpj, String cursor, int size) {
+        PaymentMetrics.Sample sample = PaymentMetrics.start("listByPayer");
+
+        try {
+            String chave = CpfCnpj.normalize(cpfCnpj);
+            if (chave == null || chave.isEmpty()) {
+                throw new BusinessException("validacao", "CPF/CNPJ obrigatório");
+            }
+
+            int pageSize = cursorPageSize(size);
+            List<PayerPaymentView> rows = repository.findByPayerAfter(chave, CursorCodec.decode(cursor),
+                    Limit.of(pageSize + 1));
+            return toCursorPage(rows, pageSize, PayerPaymentView::getId);
+        } catch (RuntimeException e) {
+            sample.failed(e);
+            throw e;
+        } finally {
+            metrics.record(sample);
+        }
+    }
+
+    // Histórico: só estas rotas leem payment_archive, as demais consultas continuam apenas na tabela payment
+    public PaymentArchive findArchivedById(Long id) {
+        return archiveRepository.findById(id)
+                .orElseThrow(() -> new BusinessException("nao_encontrado", "Pagamento arquivado não encontrado"));
+    }
+
+    public CursorPageDTO<PaymentArchive> listArchivedByPayer(String cpfCnpj, String cursor, int size) {
+        PaymentMetrics.Sample sample = PaymentMetrics.start("listArchivedByPayer");
+
+        try {
+            String chave = CpfCnpj.normalize(cpfCnpj);
+            if (chave == null || chave.isEmpty()) {
+                throw new BusinessException("validacao", "CPF/CNPJ obrigatório");
             }
+
+            int pageSize = cursorPageSize(size);
+            List<PaymentArchive> rows = archiveRepository.findByPayerAfter(chave, CursorCodec.decode(cursor),
+                    Limit.of(pageSize + 1));
+            return toCursorPage(rows, pageSize, PaymentArchive::getId);
+        } catch (RuntimeException e) {
+            sample.failed(e);
+            throw e;
+        } finally {
+            metrics.record(sample);
         }
+    }
+
+    private int cursorPageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+    }
 
-        return repository.findByFilters(codigoDebito, cpfCnpj, st, pageable);
+    private CursorPageDTO<Payment> toCursorPage(List<Payment> rows, int pageSize) {
+        return toCursorPage(rows, pageSize, Payment::getId);
+    }
+
+    private <T> CursorPageDTO<T> toCursorPage(List<T> rows, int pageSize, Function<T, Long> id) {
+        boolean hasNext = rows.size() > pageSize;
+        List<T> content = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasNext ? CursorCodec.encode(id.apply(content.get(content.size() - 1))) : null;
+        return new CursorPageDTO<>(content, content.size(), hasNext, nextCursor);
+    }
+
+    PaymentStatus parseStatus(String status) {
+        if (status == null || status.isBlank()) return null;
+
+        try {
+            return PaymentStatus.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("status_invalido", "Status de pagamento inválido: " + status);
+        }
     }
 
     @Transactional
     public Payment updateStatus(Long id, PaymentStatus novoStatus) {
-        Payment existing = repository.findById(id).orElseThrow(() -> new BusinessException("Pagamento não encontrado"));
-        PaymentStatus statusAtual = existing.getStatus();
+        PaymentMetrics.Sample sample = PaymentMetrics.start("updateStatus").transition(null, novoStatus);
+
+        try {
+            cache.getIfPresent(id)
+                    .filter(cached -> cached.getStatus().isTerminal())
+                    .ifPresent(cached -> {
+                        sample.metodo(cached.getMetodo()).transition(cached.getStatus(), novoStatus);
+                        checkTransition(cached.getStatus(), novoStatus);
+                    });
+
+            Payment existing = repository.findById(id)
+                    .orElseThrow(() -> new BusinessException("nao_encontrado", "Pagamento não encontrado"));
+            PaymentStatus statusAtual = existing.getStatus();
+            sample.metodo(existing.getMetodo()).transition(statusAtual, novoStatus);
+            checkTransition(statusAtual, novoStatus);
+
+            applyTransition(existing, statusAtual, novoStatus);
+            outbox.statusChanged(existing, statusAtual);
+            stats.transitioned(existing.getMetodo(), existing.getCpfCnpjNormalizado(), existing.getValor(), statusAtual,
+                    novoStatus);
+            pendingIndex.transitioned(existing.getId(), existing.getMetodo(), statusAtual, novoStatus);
+            cache.onWrite(existing, statusAtual);
+            return existing;
+        } catch (RuntimeException e) {
+            sample.failed(e);
+            throw e;
+        } finally {
+            metrics.record(sample);
+        }
+    }
+
+    // UPDATE condicional no status lido: se outra requisição mudou o pagamento antes, nenhuma linha é afetada
+    private void applyTransition(Payment existing, PaymentStatus statusAtual, PaymentStatus novoStatus) {
+        Instant agora = Instant.now();
+        if (repository.transitionStatus(existing.getId(), statusAtual, novoStatus, agora) == 0) {
+            throw new ConcurrentStatusUpdateException(existing.getId(), statusAtual);
+        }
+
+        existing.setStatus(novoStatus);
+        existing.setAtualizadoEm(agora);
+        if (existing.getVersion() != null) existing.setVersion(existing.getVersion() + 1);
+    }
+
+    @Transactional
+    public BatchStatusUpdateResponseDTO updateStatusBatch(List<StatusTransitionItemDTO> itens) {
+        PaymentMetrics.Sample sample = PaymentMetrics.start("updateStatusBatch");
+
+        try {
+            return doUpdateStatusBatch(itens);
+        } catch (RuntimeException e) {
+            sample.failed(e);
+            throw e;
+        } finally {
+            metrics.record(sample);
+        }
+    }
+
+    private BatchStatusUpdateResponseDTO doUpdateStatusBatch(List<StatusTransitionItemDTO> itens) {
+        List<StatusTransitionResultDTO> resultados = new ArrayList<>(itens.size());
+        Map<Long, StatusTransitionResultDTO> resultadosPorId = new HashMap<>();
+        Map<Long, PaymentStatus> alvos = new LinkedHashMap<>();
+
+        for (StatusTransitionItemDTO item : itens) {
+            StatusTransitionResultDTO resultado = new StatusTransitionResultDTO(item.getId(), false, null, item.getNovoStatus(), null);
+            resultados.add(resultado);
+
+            if (item.getId() == null) {
+                rejectBatchItem(resultado, new BusinessException("validacao", "Id do pagamento não informado"));
+            } else if (resultadosPorId.putIfAbsent(item.getId(), resultado) != null) {
+                rejectBatchItem(resultado, new BusinessException("validacao", "Pagamento repetido no lote"));
+            } else {
+                try {
+                    alvos.put(item.getId(), parseNovoStatus(item.getNovoStatus()));
+                } catch (BusinessException e) {
+                    rejectBatchItem(resultado, e);
+                }
+            }
+        }
+
+        Map<Long, PaymentStatusView> atuais = findStatuses(alvos.keySet(), true);
+        Map<StatusTransition, List<Long>> grupos = new HashMap<>();
 
+        alvos.forEach((id, novoStatus) -> {
+            StatusTransitionResultDTO resultado = resultadosPorId.get(id);
+            PaymentStatusView atual = atuais.get(id);
+
+            if (atual == null) {
+                rejectBatchItem(resultado, new BusinessException("nao_encontrado", "Pagamento não encontrado"));
+                return;
+            }
+
+            resultado.setStatusAnterior(atual.getStatus().name());
+            try {
+                checkTransition(atual.getStatus(), novoStatus);
+                grupos.computeIfAbsent(new StatusTransition(atual.getStatus(), novoStatus), k -> new ArrayList<>()).add(id);
+            } catch (BusinessException e) {
+                rejectBatchItem(resultado, e);
+            }
+        });
+
+        List<Long> atualizados = new ArrayList<>();
+        grupos.forEach((transicao, ids) -> atualizados.addAll(applyBatchTransition(transicao, ids, atuais, resultadosPorId)));
+        if (!atualizados.isEmpty()) cache.evict(atualizados);
+
+        return new BatchStatusUpdateResponseDTO(itens.size(), atualizados.size(), itens.size() - atualizados.size(), resultados);
+    }
+
+    private List<Long> applyBatchTransition(
+            StatusTransition transicao,
+            List<Long> ids,
+            Map<Long, PaymentStatusView> atuais,
+            Map<Long, StatusTransitionResultDTO> resultadosPorId
+    ) {
+        List<Long> atualizados = new ArrayList<>(ids.size());
+
+        for (int inicio = 0; inicio < ids.size(); inicio += BATCH_IN_CHUNK_SIZE) {
+            List<Long> lote = ids.subList(inicio, Math.min(ids.size(), inicio + BATCH_IN_CHUNK_SIZE));
+            int linhas = repository.transitionStatusBatch(lote, transicao.de(), transicao.para(), Instant.now());
+
+            // As linhas estão travadas desde a leitura em doUpdateStatusBatch, então nenhuma outra escrita passou entre a
+            // leitura e o UPDATE. Se ainda assim faltar linha, o sucesso é decidido por id: só conta o que está no status
+            // novo com exatamente uma versão a mais que a lida
+            Map<Long, PaymentStatusView> depois = linhas == lote.size() ? Map.of() : findStatuses(lote, false);
+
+            for (Long id : lote) {
+                StatusTransitionResultDTO resultado = resultadosPorId.get(id);
+                PaymentStatusView atual = atuais.get(id);
+                PaymentStatusView atualizado = depois.get(id);
+
+                if (linhas == lote.size() || (atualizado != null && atualizado.getStatus() == transicao.para()
+                        && Objects.equals(atualizado.getVersion(), nextVersion(atual)))) {
+                    outbox.statusChanged(id, nextVersion(atual), transicao.de(), transicao.para());
+                    stats.transitioned(atual.getMetodo(), atual.getCpfCnpjNormalizado(), atual.getValor(),
+                            transicao.de(), transicao.para());
+                    pendingIndex.transitioned(id, atual.getMetodo(), transicao.de(), transicao.para());
+                    resultado.setSucesso(true);
+                    resultado.setNovoStatus(transicao.para().name());
+                    atualizados.add(id);
+                } else {
+                    rejectBatchItem(resultado, new ConcurrentStatusUpdateException(id, transicao.de()));
+                }
+            }
+        }
+
+        return atualizados;
+    }
+
+    private Long nextVersion(PaymentStatusView view) {
+        return view.getVersion() == null ? null : view.getVersion() + 1;
+    }
+
+    private void rejectBatchItem(StatusTransitionResultDTO resultado, BusinessException e) {
+        metrics.rejected("updateStatusBatch", e.getReason());
+        resultado.setErro(e.getMessage());
+    }
+
+    private Map<Long, PaymentStatusView> findStatuses(Collection<Long> ids, boolean travar) {
+        Map<Long, PaymentStatusView> statuses = new HashMap<>(ids.size() * 2);
+        List<Long> todos = new ArrayList<>(ids);
+        if (travar) Collections.sort(todos);
+
+        for (int inicio = 0; inicio < todos.size(); inicio += BATCH_IN_CHUNK_SIZE) {
+            List<Long> lote = todos.subList(inicio, Math.min(todos.size(), inicio + BATCH_IN_CHUNK_SIZE));
+            List<PaymentStatusView> views = travar
+                    ? repository.findStatusByIdInForUpdate(lote)
+                    : repository.findStatusByIdIn(lote);
+            for (PaymentStatusView view : views) {
+                statuses.put(view.getId(), view);
+            }
+        }
+
+        return statuses;
+    }
+
+    private PaymentStatus parseNovoStatus(String novoStatus) {
+        PaymentStatus status = parseStatus(novoStatus == null ? null : novoStatus.replace(" ", "_"));
+        if (status == null) throw new BusinessException("status_invalido", "Novo status não informado");
+        return status;
+    }
+
+    private record StatusTransition(PaymentStatus de, PaymentStatus para) {
+    }
+
+    void checkTransition(PaymentStatus statusAtual, PaymentStatus novoStatus) {
         if(statusAtual == PaymentStatus.PENDENTE_PROCESSAMENTO) {
             if(novoStatus == PaymentStatus.PROCESSADO_COM_SUCESSO || novoStatus == PaymentStatus.PROCESSADO_COM_FALHA) {
-                existing.setStatus(novoStatus);
-                return repository.save(existing);
+                return;
             }
-            throw new BusinessException("Transição inválida a partir de PENDENTE_PROCESSAMENTO");
+            throw new BusinessException("transicao_invalida", "Transição inválida a partir de PENDENTE_PROCESSAMENTO");
         }
 
         if(statusAtual == PaymentStatus.PROCESSADO_COM_SUCESSO)
-            throw new BusinessException("Pagamento já processado com sucesso. Status não pode ser alterado");
+            throw new BusinessException("transicao_invalida", "Pagamento já processado com sucesso. Status não pode ser alterado");
 
         if(statusAtual == PaymentStatus.PROCESSADO_COM_FALHA) {
             if(novoStatus == PaymentStatus.PENDENTE_PROCESSAMENTO) {
-                existing.setStatus(novoStatus);
-                return repository.save(existing);
+                return;
             }
-            throw new BusinessException("Para o status de PROCESSADO_COM_FALHA só é permitida volta para PENDENTE_PROCESSAMENTO");
+            throw new BusinessException("transicao_invalida", "Para o status de PROCESSADO_COM_FALHA só é permitida volta para PENDENTE_PROCESSAMENTO");
         }
 
-        if(statusAtual == PaymentStatus.INATIVO) throw new BusinessException("Pagamento inativo!! Operação não permitida");
+        if(statusAtual == PaymentStatus.INATIVO) throw new BusinessException("transicao_invalida", "Pagamento inativo!! Operação não permitida");
 
-        throw new BusinessException("Transição de status inválida");
+        throw new BusinessException("transicao_invalida", "Transição de status inválida");
     }
 
     @Transactional
     public DeletePaymentResponseDTO deletePay(Long id) {
-        Payment existing = repository.findById(id).orElseThrow(() -> new  BusinessException("Pagamento não encontrado"));
+        PaymentMetrics.Sample sample = PaymentMetrics.start("deletePay")
+                .transition(PaymentStatus.PENDENTE_PROCESSAMENTO, PaymentStatus.INATIVO);
 
-        if(existing.getStatus() != PaymentStatus.PENDENTE_PROCESSAMENTO) {
-            throw new BusinessException("Só é possível excluir pagamentos com status PENDENTE_PROCESSAMENTO");
-        }
+        try {
+            if (cache.getIfPresent(id).filter(cached -> cached.getStatus().isTerminal()).isPresent()) {
+                throw new BusinessException("exclusao_invalida", "Só é possível excluir pagamentos com status PENDENTE_PROCESSAMENTO");
+            }
+
+            Payment existing = repository.findById(id)
+                    .orElseThrow(() -> new BusinessException("nao_encontrado", "Pagamento não encontrado"));
+            sample.metodo(existing.getMetodo());
 
-        existing.setStatus(PaymentStatus.INATIVO);
-        repository.save(existing);
+            if(existing.getStatus() != PaymentStatus.PENDENTE_PROCESSAMENTO) {
+                throw new BusinessException("exclusao_invalida", "Só é possível excluir pagamentos com status PENDENTE_PROCESSAMENTO");
+            }
 
-        return new DeletePaymentResponseDTO(200, "Pagamento desativado !!", LocalDateTime.now());
+            applyTransition(existing, PaymentStatus.PENDENTE_PROCESSAMENTO, PaymentStatus.INATIVO);
+            outbox.statusChanged(existing, PaymentStatus.PENDENTE_PROCESSAMENTO);
+            stats.transitioned(existing.getMetodo(), existing.getCpfCnpjNormalizado(), existing.getValor(),
+                    PaymentStatus.PENDENTE_PROCESSAMENTO, PaymentStatus.INATIVO);
+            pendingIndex.transitioned(existing.getId(), existing.getMetodo(),
+                    PaymentStatus.PENDENTE_PROCESSAMENTO, PaymentStatus.INATIVO);
+            cache.onWrite(existing, PaymentStatus.PENDENTE_PROCESSAMENTO);
+
+            return new DeletePaymentResponseDTO(200, "Pagamento desativado !!", LocalDateTime.now());
+        } catch (RuntimeException e) {
+            sample.failed(e);
+            throw e;
+        } finally {
+            metrics.record(sample);
+        }
     }
 }
@@ -0,0 +1,346 @@
+package com.kevinsarges.payflow_api.sevices;
+
+import com.kevinsarges.payflow_api.DTOs.PaymentDailyStatsDTO;
+import com.kevinsarges.payflow_api.DTOs.PaymentPayerStatsDTO;
+import com.kevinsarges.payflow_api.DTOs.PaymentStatsDTO;
+import com.kevinsarges.payflow_api.DTOs.PaymentStatsItemDTO;
+import com.kevinsarges.payflow_api.entities.Payment;
+import com.kevinsarges.payflow_api.entities.PaymentDailyStats;
+import com.kevinsarges.payflow_api.entities.PaymentDailyStatsId;
+import com.kevinsarges.payflow_api.entities.PaymentMethod;
+import com.kevinsarges.payflow_api.entities.PaymentPayerStats;
+import com.kevinsarges.payflow_api.entities.PaymentPayerStatsId;
+import com.kevinsarges.payflow_api.entities.PaymentStatus;
+import com.kevinsarges.payflow_api.repositories.PaymentDailyStatsRepository;
+import com.kevinsarges.payflow_api.repositories.PaymentPayerStatsRepository;
+import com.kevinsarges.payflow_api.repositories.PaymentStatsTotalView;
+import com.kevinsarges.payflow_api.utils.BusinessException;
+import com.kevinsarges.payflow_api.utils.CpfCnpj;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Contadores por dia, método e status mantidos em memória (LongAdder, valores em centavos) e somados na tabela
+// payment_daily_stats periodicamente; o saldo por pagador e status segue o mesmo caminho até payment_payer_stats.
+// As mudanças só entram depois do commit da transação que as causou. Os resumos leem as tabelas agregadas mais o que
+// ainda não foi gravado, sem consultar a tabela de pagamentos
+@Slf4j
+@Service
+public class PaymentStatsService {
+    private static final int DEFAULT_DAYS = 30;
+    private static final int MAX_DAYS = 366;
+
+    private final PaymentDailyStatsRepository repository;
+    private final PaymentPayerStatsRepository payerRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ZoneId zone;
+    private final ConcurrentMap<PaymentDailyStatsId, Cell> pendentes = new ConcurrentHashMap<>();
+    // Pagadores não têm dia para expirar: a célula zerada sai do mapa no flush, e o compute impede que um incremento
+    // concorrente caia numa célula já removida
+    private final ConcurrentMap<PaymentPayerStatsId, Cell> pagadores = new ConcurrentHashMap<>();
+    // O resumo não pode ler entre o drain dos contadores e o commit na tabela; as escritas não passam pelo lock
+    private final ReadWriteLock gravacao = new ReentrantReadWriteLock();
+
+    public PaymentStatsService(
+            PaymentDailyStatsRepository repository,
+            PaymentPayerStatsRepository payerRepository,
+            TransactionTemplate transactionTemplate,
+            @Value("${payflow.stats.zone:America/Sao_Paulo}") ZoneId zone
+    ) {
+        this.repository = repository;
+        this.payerRepository = payerRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.zone = zone;
+    }
+
+    public void created(Payment payment) {
+        record(new Change(payment.getMetodo(), payment.getCpfCnpjNormalizado(), cents(payment.getValor()), null,
+                payment.getStatus()));
+    }
+
+    public void transitioned(PaymentMethod metodo, String cpfCnpjNormalizado, BigDecimal valor, PaymentStatus de,
+                             PaymentStatus para) {
+        record(new Change(metodo, cpfCnpjNormalizado, cents(valor), de, para));
+    }
+
+    @Scheduled(fixedDelayString = "${payflow.stats.flush-interval:5s}")
+    public void flush() {
+        gravacao.writeLock().lock();
+        try {
+            drainAndWrite();
+        } finally {
+            gravacao.writeLock().unlock();
+        }
+    }
+
+    private void drainAndWrite() {
+        LocalDate hoje = LocalDate.now(zone);
+        Map<PaymentDailyStatsId, long[]> deltas = new ConcurrentHashMap<>();
+
+        Map<PaymentPayerStatsId, long[]> deltasPagadores = new ConcurrentHashMap<>();
+
+        pendentes.forEach((id, cell) -> {
+            long[] delta = cell.drain();
+            if (delta != null) deltas.put(id, delta);
+            else if (id.getDia().isBefore(hoje)) pendentes.remove(id, cell);
+        });
+        pagadores.forEach((id, cell) -> {
+            long[] delta = cell.drain();
+            if (delta != null) deltasPagadores.put(id, delta);
+            else pagadores.computeIfPresent(id, (k, atual) -> atual.isEmpty() ? null : atual);
+        });
+        if (deltas.isEmpty() && deltasPagadores.isEmpty()) return;
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                deltas.forEach(this::write);
+                deltasPagadores.forEach(this::write);
+            });
+        } catch (RuntimeException e) {
+            deltas.forEach((id, delta) -> cell(id).add(delta));
+            deltasPagadores.forEach(this::addPayer);
+            log.warn("Falha ao gravar as estatísticas de pagamentos, nova tentativa no próximo ciclo", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    public PaymentStatsDTO summary(LocalDate de, LocalDate ate) {
+        if (ate == null) ate = LocalDate.now(zone);
+        if (de == null) de = ate.minusDays(DEFAULT_DAYS - 1);
+        if (de.isAfter(ate) || de.plusDays(MAX_DAYS).isBefore(ate)) {
+            throw new BusinessException("validacao", "Período inválido: informe até " + MAX_DAYS + " dias");
+        }
+        gravacao.readLock().lock();
+        try {
+            return summarize(de, ate);
+        } finally {
+            gravacao.readLock().unlock();
+        }
+    }
+
+    public PaymentPayerStatsDTO payer(String cpfCnpj) {
+        String normalizado = CpfCnpj.normalize(cpfCnpj);
+        if (normalizado == null || normalizado.isEmpty()) {
+            throw new BusinessException("validacao", "Informe o cpfCnpj do pagador");
+        }
+        gravacao.readLock().lock();
+        try {
+            return summarizePayer(normalizado);
+        } finally {
+            gravacao.readLock().unlock();
+        }
+    }
+
+    // Os totais do pagador não contam os pagamentos INATIVO, que continuam visíveis em porStatus
+    private PaymentPayerStatsDTO summarizePayer(String cpfCnpjNormalizado) {
+        Map<PaymentStatus, long[]> porStatus = new EnumMap<>(PaymentStatus.class);
+        for (PaymentPayerStats stats : payerRepository.findByIdCpfCnpjNormalizado(cpfCnpjNormalizado)) {
+            merge(porStatus, stats.getId().getStatus(), new long[]{stats.getQuantidade(), 0, cents(stats.getValorTotal()), 0});
+        }
+        for (PaymentStatus status : PaymentStatus.values()) {
+            Cell cell = pagadores.get(new PaymentPayerStatsId(cpfCnpjNormalizado, status));
+            if (cell == null) continue;
+            long[] delta = cell.peek();
+            merge(porStatus, status, new long[]{delta[0], 0, delta[1], 0});
+        }
+        porStatus.values().removeIf(valores -> valores[0] == 0 && valores[2] == 0);
+
+        long quantidade = 0;
+        long centavos = 0;
+        for (Map.Entry<PaymentStatus, long[]> e : porStatus.entrySet()) {
+            if (e.getKey() == PaymentStatus.INATIVO) continue;
+            quantidade += e.getValue()[0];
+            centavos += e.getValue()[2];
+        }
+        return new PaymentPayerStatsDTO(cpfCnpjNormalizado, quantidade, money(centavos), totals(porStatus));
+    }
+
+    private PaymentStatsDTO summarize(LocalDate de, LocalDate ate) {
+        Map<PaymentStatus, long[]> porStatus = new EnumMap<>(PaymentStatus.class);
+        Map<PaymentMethod, long[]> porMetodo = new EnumMap<>(PaymentMethod.class);
+        Map<PaymentDailyStatsId, long[]> porDia = new TreeMap<>(Comparator
+                .comparing(PaymentDailyStatsId::getDia)
+                .thenComparing(PaymentDailyStatsId::getMetodo)
+                .thenComparing(PaymentDailyStatsId::getStatus));
+
+        for (PaymentStatsTotalView total : repository.findTotals()) {
+            long[] valores = {total.getQuantidade(), 0, cents(total.getValorTotal()), 0};
+            merge(porStatus, total.getStatus(), valores);
+            merge(porMetodo, total.getMetodo(), valores);
+        }
+        for (PaymentDailyStats dia : repository.findByDiaBetween(de, ate)) {
+            merge(porDia, dia.getId(), new long[]{dia.getEntradas(), dia.getSaidas(),
+                    cents(dia.getValorEntradas()), cents(dia.getValorSaidas())});
+        }
+
+        pendentes.forEach((id, cell) -> {
+            long[] delta = cell.peek();
+            long[] liquido = {delta[0] - delta[1], 0, delta[2] - delta[3], 0};
+            merge(porStatus, id.getStatus(), liquido);
+            merge(porMetodo, id.getMetodo(), liquido);
+            if (!id.getDia().isBefore(de) && !id.getDia().isAfter(ate)) merge(porDia, id, delta);
+        });
+
+        return new PaymentStatsDTO(
+                totals(porStatus),
+                totals(porMetodo),
+                porDia.entrySet().stream()
+                        .map(e -> new PaymentDailyStatsDTO(e.getKey().getDia(), e.getKey().getMetodo().name(),
+                                e.getKey().getStatus().name(), e.getValue()[0], e.getValue()[1],
+                                money(e.getValue()[2]), money(e.getValue()[3])))
+                        .toList()
+        );
+    }
+
+    private void record(Change change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(List.of(change));
+            return;
+        }
+
+        // Um buffer por transação: uma única sincronização mesmo em lotes com milhares de pagamentos
+        @SuppressWarnings("unchecked")
+        List<Change> buffer = (List<Change>) TransactionSynchronizationManager.getResource(this);
+        if (buffer == null) {
+            List<Change> novo = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, novo);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResource(PaymentStatsService.this);
+                    if (status == STATUS_COMMITTED) apply(novo);
+                }
+            });
+            buffer = novo;
+        }
+        buffer.add(change);
+    }
+
+    private void apply(List<Change> changes) {
+        LocalDate hoje = LocalDate.now(zone);
+        for (Change change : changes) {
+            if (change.de() != null) {
+                cell(new PaymentDailyStatsId(hoje, change.metodo(), change.de())).add(new long[]{0, 1, 0, change.centavos()});
+            }
+            cell(new PaymentDailyStatsId(hoje, change.metodo(), change.para())).add(new long[]{1, 0, change.centavos(), 0});
+
+            if (change.pagador() == null) continue;
+            if (change.de() != null) {
+                addPayer(new PaymentPayerStatsId(change.pagador(), change.de()), new long[]{-1, -change.centavos()});
+            }
+            addPayer(new PaymentPayerStatsId(change.pagador(), change.para()), new long[]{1, change.centavos()});
+        }
+    }
+
+    private void write(PaymentDailyStatsId id, long[] delta) {
+        int linhas = repository.increment(id.getDia(), id.getMetodo(), id.getStatus(),
+                delta[0], delta[1], money(delta[2]), money(delta[3]));
+        if (linhas == 0) {
+            repository.save(new PaymentDailyStats(id, delta[0], delta[1], money(delta[2]), money(delta[3])));
+        }
+    }
+
+    private void write(PaymentPayerStatsId id, long[] delta) {
+        int linhas = payerRepository.increment(id.getCpfCnpjNormalizado(), id.getStatus(), delta[0], money(delta[1]));
+        if (linhas == 0) {
+            payerRepository.save(new PaymentPayerStats(id, delta[0], money(delta[1])));
+        }
+    }
+
+    private Cell cell(PaymentDailyStatsId id) {
+        return pendentes.computeIfAbsent(id, k -> new Cell(4));
+    }
+
+    private void addPayer(PaymentPayerStatsId id, long[] delta) {
+        pagadores.compute(id, (k, cell) -> {
+            Cell atual = cell == null ? new Cell(2) : cell;
+            atual.add(delta);
+            return atual;
+        });
+    }
+
+    private static <K> void merge(Map<K, long[]> mapa, K chave, long[] valores) {
+        long[] atual = mapa.computeIfAbsent(chave, k -> new long[4]);
+        for (int i = 0; i < 4; i++) atual[i] += valores[i];
+    }
+
+    private static <K extends Enum<K>> List<PaymentStatsItemDTO> totals(Map<K, long[]> mapa) {
+        return mapa.entrySet().stream()
+                .map(e -> new PaymentStatsItemDTO(e.getKey().name(), e.getValue()[0], money(e.getValue()[2])))
+                .toList();
+    }
+
+    private static long cents(BigDecimal valor) {
+        return valor == null ? 0 : valor.setScale(2, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+    }
+
+    private static BigDecimal money(long centavos) {
+        return BigDecimal.valueOf(centavos, 2);
+    }
+
+    private record Change(PaymentMethod metodo, String pagador, long centavos, PaymentStatus de, PaymentStatus para) {
+    }
+
+    // Dia: entradas, saídas, centavos das entradas e das saídas. Pagador: quantidade e centavos
+    private static final class Cell {
+        private final LongAdder[] valores;
+
+        Cell(int tamanho) {
+            valores = new LongAdder[tamanho];
+            for (int i = 0; i < tamanho; i++) valores[i] = new LongAdder();
+        }
+
+        long[] peek() {
+            long[] soma = new long[valores.length];
+            for (int i = 0; i < valores.length; i++) soma[i] = valores[i].sum();
+            return soma;
+        }
+
+        boolean isEmpty() {
+            for (long valor : peek()) if (valor != 0) return false;
+            return true;
+        }
+
+        // Subtrai o que foi lido em vez de sumThenReset, para não perder incrementos concorrentes
+        long[] drain() {
+            long[] delta = peek();
+            boolean vazio = true;
+            for (long valor : delta) vazio &= valor == 0;
+            if (vazio) return null;
+
+            long[] negativo = new long[delta.length];
+            for (int i = 0; i < delta.length; i++) negativo[i] = -delta[i];
+            add(negativo);
+            return delta;
+        }
+
+        void add(long[] delta) {
+            for (int i = 0; i < valores.length; i++) valores[i].add(delta[i]);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.kevinsarges.payflow_api.sevices;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.kevinsarges.payflow_api.DTOs.BulkPaymentItemResultDTO;
+import com.kevinsarges.payflow_api.DTOs.BulkPaymentResponseDTO;
+import com.kevinsarges.payflow_api.DTOs.ImportPaymentResponseDTO;
+import com.kevinsarges.payflow_api.DTOs.PaymentRequestDTO;
+import com.kevinsarges.payflow_api.entities.Payment;
+import com.kevinsarges.payflow_api.repositories.PaymentRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class PaymentStreamService {
+    private static final int IMPORT_CHUNK_SIZE = 1000;
+    private static final int BULK_CHUNK_SIZE = 500;
+    private static final int MAX_IMPORT_ERRORS = 1000;
+
+    private final PaymentRepository repository;
+    private final PaymentService paymentService;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public void exportNdjson(OutputStream out) throws IOException {
+        try (Stream<Payment> payments = repository.streamAll();
+             SequenceWriter writer = objectMapper.writerFor(Payment.class)
+                     .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                     .withRootValueSeparator("\n")
+                     .writeValues(out)) {
+            Iterator<Payment> iterator = payments.iterator();
+
+            while (iterator.hasNext()) {
+                Payment payment = iterator.next();
+                writer.write(payment);
+                entityManager.detach(payment);
+            }
+        }
+    }
+
+    public ImportPaymentResponseDTO importNdjson(InputStream in) throws IOException {
+        ObjectReader reader = objectMapper.readerFor(PaymentRequestDTO.class);
+        List<PaymentRequestDTO> lote = new ArrayList<>(IMPORT_CHUNK_SIZE);
+        List<Integer> linhasLote = new ArrayList<>(IMPORT_CHUNK_SIZE);
+        List<BulkPaymentItemResultDTO> erros = new ArrayList<>();
+        long total = 0;
+        long criados = 0;
+
+        try (BufferedReader lines = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            int numeroLinha = 0;
+
+            while ((line = lines.readLine()) != null) {
+                numeroLinha++;
+                if (line.isBlank()) continue;
+                total++;
+
+                try {
+                    lote.add(reader.readValue(line));
+                    linhasLote.add(numeroLinha);
+                } catch (JsonProcessingException e) {
+                    addError(erros, new BulkPaymentItemResultDTO(numeroLinha, null, false, "JSON inválido"));
+                }
+
+                if (lote.size() == IMPORT_CHUNK_SIZE) {
+                    criados += flushImport(lote, linhasLote, erros);
+                }
+            }
+        }
+
+        if (!lote.isEmpty()) {
+            criados += flushImport(lote, linhasLote, erros);
+        }
+
+        erros.sort((a, b) -> Integer.compare(a.getLinha(), b.getLinha()));
+        return new ImportPaymentResponseDTO(total, criados, total - criados, erros);
+    }
+
+    // O array é lido elemento a elemento e gravado em fatias: o corpo inteiro nunca vira uma lista de DTOs em memória.
+    // Um elemento que não converte vira linha rejeitada; JSON malformado encerra a leitura ali, com o que veio antes gravado.
+    public BulkPaymentResponseDTO importJsonArray(InputStream in) throws IOException {
+        ObjectReader reader = objectMapper.readerFor(PaymentRequestDTO.class);
+        List<PaymentRequestDTO> lote = new ArrayList<>(BULK_CHUNK_SIZE);
+        List<Integer> linhasLote = new ArrayList<>(BULK_CHUNK_SIZE);
+        List<BulkPaymentItemResultDTO> resultados = new ArrayList<>();
+        int total = 0;
+        int criados = 0;
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            try {
+                if (parser.nextToken() != JsonToken.START_ARRAY) {
+                    resultados.add(new BulkPaymentItemResultDTO(0, null, false, "JSON inválido: esperado um array de pagamentos"));
+                    return new BulkPaymentResponseDTO(1, 0, 1, resultados);
+                }
+
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    JsonNode item = parser.readValueAsTree();
+                    int linha = total++;
+
+                    try {
+                        lote.add(reader.readValue(item));
+                        linhasLote.add(linha);
+                    } catch (JsonProcessingException e) {
+                        resultados.add(new BulkPaymentItemResultDTO(linha, null, false, "JSON inválido"));
+                    }
+
+                    if (lote.size() == BULK_CHUNK_SIZE) {
+                        criados += flushBulk(lote, linhasLote, resultados);
+                    }
+                }
+            } catch (JsonProcessingException e) {
+                resultados.add(new BulkPaymentItemResultDTO(total, null, false, "JSON inválido"));
+                total++;
+            }
+        }
+
+        if (!lote.isEmpty()) {
+            criados += flushBulk(lote, linhasLote, resultados);
+        }
+
+        resultados.sort((a, b) -> Integer.compare(a.getLinha(), b.getLinha()));
+        return new BulkPaymentResponseDTO(total, criados, total - criados, resultados);
+    }
+
+    private int flushBulk(List<PaymentRequestDTO> lote, List<Integer> linhasLote, List<BulkPaymentItemResultDTO> resultados) {
+        BulkPaymentResponseDTO result = paymentService.createBulk(lote);
+
+        for (BulkPaymentItemResultDTO item : result.getResultados()) {
+            item.setLinha(linhasLote.get(item.getLinha()));
+            resultados.add(item);
+        }
+
+        lote.clear();
+        linhasLote.clear();
+        return result.getCriados();
+    }
+
+    private int flushImport(List<PaymentRequestDTO> lote, List<Integer> linhasLote, List<BulkPaymentItemResultDTO> erros) {
+        BulkPaymentResponseDTO result = paymentService.createBulk(lote);
+
+        for (BulkPaymentItemResultDTO item : result.getResultados()) {
+            if (!item.isSucesso()) {
+                item.setLinha(linhasLote.get(item.getLinha()));
+                addError(erros, item);
+            }
+        }
+
+        lote.clear();
+        linhasLote.clear();
+        return result.getCriados();
+    }
+
+    private void addError(List<BulkPaymentItemResultDTO> erros, BulkPaymentItemResultDTO erro) {
+        if (erros.size() < MAX_IMPORT_ERRORS) erros.add(erro);
+    }
+}
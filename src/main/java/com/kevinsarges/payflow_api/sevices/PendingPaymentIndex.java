@@ -0,0 +1,323 @@
+package com.kevinsarges.payflow_api.sevices;
+
+import com.kevinsarges.payflow_api.entities.Payment;
+import com.kevinsarges.payflow_api.entities.PaymentMethod;
+import com.kevinsarges.payflow_api.entities.PaymentStatus;
+import com.kevinsarges.payflow_api.repositories.PaymentMethodView;
+import com.kevinsarges.payflow_api.repositories.PaymentRepository;
+import com.kevinsarges.payflow_api.utils.LongHashSet;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+// Ids dos pagamentos PENDENTE_PROCESSAMENTO por método, em memória, para contar e reservar pendentes sem consultar o
+// banco. Cada método tem um LongHashSet (um long[], sem Long por elemento): 10 milhões de pendentes ocupam de ~110 a
+// ~320 MB conforme a carga da tabela. O índice é montado a partir de payment no ApplicationReadyEvent e depois acompanha
+// create, createBulk, updateStatus, updateStatusBatch e deletePay depois do commit, como o PaymentStatsService. O que for
+// confirmado enquanto a montagem lê o banco é guardado e reaplicado no fim, então nenhuma mudança se perde na troca.
+//
+// Cada montagem lê todos os pendentes do banco e monta os conjuntos novos ao lado dos atuais: até a troca a memória do
+// índice dobra. Por isso a remontagem periódica (resync-enabled, a cada resync-interval) vem desligada: o que o índice
+// não vê (outro nó, escrita direta no banco) o PaymentProcessingEngine encontra na varredura periódica por status.
+//
+// claim tira os ids do índice e quem reservou devolve com release o que não mudou de status. O índice é deste nó: a
+// reserva no banco continua sendo o que impede que dois nós processem o mesmo pagamento. Por isso release recebe o fim
+// da reserva (reservadoAte): até lá o id fica em espera, contado mas fora do claim, em vez de voltar na hora e ser
+// recusado pelo UPDATE da reserva a cada ciclo do motor.
+@Slf4j
+@Component
+public class PendingPaymentIndex {
+    private static final PaymentMethod[] METODOS = PaymentMethod.values();
+
+    private final PaymentRepository repository;
+    private final boolean enabled;
+    private final boolean resyncEnabled;
+    private final int rebuildBatchSize;
+    private final Object lock = new Object();
+    private final Object montagem = new Object();
+    private Map<PaymentMethod, LongHashSet> pendentes = emptySets();
+    // Devolvidos com prazo: emEspera diz quais ainda valem (uma transição para fora de pendente os tira), a fila diz
+    // quando cada um volta para pendentes
+    private final Map<PaymentMethod, LongHashSet> emEspera = emptySets();
+    private final PriorityQueue<Espera> filaEspera = new PriorityQueue<>(Comparator.comparing(Espera::naoAntesDe));
+    // Não nulo enquanto rebuild lê o banco: guarda as mudanças para reaplicar no índice novo
+    private List<Change> duranteMontagem;
+    private int proximoMetodo;
+    private volatile boolean ready;
+
+    public PendingPaymentIndex(
+            PaymentRepository repository,
+            @Value("${payflow.pending-index.enabled:true}") boolean enabled,
+            @Value("${payflow.pending-index.resync-enabled:false}") boolean resyncEnabled,
+            @Value("${payflow.pending-index.rebuild-batch-size:10000}") int rebuildBatchSize,
+            MeterRegistry meterRegistry
+    ) {
+        this.repository = repository;
+        this.enabled = enabled;
+        this.resyncEnabled = resyncEnabled;
+        this.rebuildBatchSize = rebuildBatchSize;
+
+        for (PaymentMethod metodo : METODOS) {
+            Gauge.builder("payflow.pending.size", this, index -> index.ready ? index.size(metodo) : Double.NaN)
+                    .description("Pagamentos PENDENTE_PROCESSAMENTO no índice em memória")
+                    .tag("metodo", metodo.name())
+                    .register(meterRegistry);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        if (enabled) rebuildLogged();
+    }
+
+    // Corrige qualquer divergência com o banco (pagamentos alterados fora da API, por exemplo)
+    @Scheduled(fixedDelayString = "${payflow.pending-index.resync-interval:1h}",
+            initialDelayString = "${payflow.pending-index.resync-interval:1h}")
+    public void resync() {
+        if (enabled && resyncEnabled) rebuildLogged();
+    }
+
+    private void rebuildLogged() {
+        try {
+            long inicio = System.nanoTime();
+            int total = rebuild();
+            log.info("Índice de pagamentos pendentes montado com {} pagamentos em {} ms",
+                    total, (System.nanoTime() - inicio) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.warn("Falha ao montar o índice de pagamentos pendentes, nova tentativa no próximo ciclo", e);
+        }
+    }
+
+    public int rebuild() {
+        synchronized (montagem) {
+            synchronized (lock) {
+                duranteMontagem = new ArrayList<>();
+            }
+
+            try {
+                Map<PaymentMethod, LongHashSet> novos = emptySets();
+                long ultimo = 0;
+                while (true) {
+                    List<PaymentMethodView> pagina = repository.findByStatusAfter(
+                            PaymentStatus.PENDENTE_PROCESSAMENTO, ultimo, Limit.of(rebuildBatchSize));
+                    for (PaymentMethodView pendente : pagina) {
+                        novos.get(pendente.getMetodo()).add(pendente.getId());
+                    }
+                    if (pagina.size() < rebuildBatchSize) break;
+                    ultimo = pagina.get(pagina.size() - 1).getId();
+                }
+
+                synchronized (lock) {
+                    duranteMontagem.forEach(change -> change.applyTo(novos));
+                    // Em espera e ainda pendente no banco continua esperando; o que não está mais pendente sai
+                    for (Espera espera : filaEspera) {
+                        LongHashSet esperando = emEspera.get(espera.metodo());
+                        if (esperando.contains(espera.id()) && !novos.get(espera.metodo()).remove(espera.id())) {
+                            esperando.remove(espera.id());
+                        }
+                    }
+                    pendentes = novos;
+                    ready = true;
+                    return size();
+                }
+            } finally {
+                synchronized (lock) {
+                    duranteMontagem = null;
+                }
+            }
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Antes da primeira montagem conta no banco
+    public Map<PaymentMethod, Long> counts() {
+        Map<PaymentMethod, Long> contagens = new EnumMap<>(PaymentMethod.class);
+        if (!ready) {
+            for (PaymentMethod metodo : METODOS) {
+                contagens.put(metodo, repository.countByStatusAndMetodo(PaymentStatus.PENDENTE_PROCESSAMENTO, metodo));
+            }
+            return contagens;
+        }
+
+        synchronized (lock) {
+            for (PaymentMethod metodo : METODOS) {
+                contagens.put(metodo, (long) pendentes.get(metodo).size() + emEspera.get(metodo).size());
+            }
+        }
+        return contagens;
+    }
+
+    /**
+     * Tira até max pagamentos dos métodos informados, repartindo igualmente entre os métodos que têm pendentes e
+     * começando por um método diferente a cada chamada. A ordem dentro de um método é a da tabela hash, não a de
+     * criação. Ids devolvidos com prazo só entram depois dele. Devolve vazio enquanto o índice não estiver montado.
+     */
+    public Map<PaymentMethod, long[]> claim(int max, Set<PaymentMethod> metodos) {
+        Map<PaymentMethod, long[]> reservados = new EnumMap<>(PaymentMethod.class);
+        if (!ready || max <= 0) return reservados;
+
+        synchronized (lock) {
+            releaseDue(Instant.now());
+            int[] quantidades = new int[METODOS.length];
+            int restante = max;
+            while (restante > 0) {
+                int ativos = 0;
+                for (PaymentMethod metodo : metodos) {
+                    if (pendentes.get(metodo).size() > quantidades[metodo.ordinal()]) ativos++;
+                }
+                if (ativos == 0) break;
+
+                int cota = Math.max(1, restante / ativos);
+                for (int i = 0; i < METODOS.length && restante > 0; i++) {
+                    PaymentMethod metodo = METODOS[(proximoMetodo + i) % METODOS.length];
+                    if (!metodos.contains(metodo)) continue;
+                    int disponiveis = pendentes.get(metodo).size() - quantidades[metodo.ordinal()];
+                    int quantidade = Math.min(cota, Math.min(restante, disponiveis));
+                    quantidades[metodo.ordinal()] += quantidade;
+                    restante -= quantidade;
+                }
+            }
+            proximoMetodo = (proximoMetodo + 1) % METODOS.length;
+
+            for (PaymentMethod metodo : METODOS) {
+                int quantidade = quantidades[metodo.ordinal()];
+                if (quantidade == 0) continue;
+
+                LongHashSet conjunto = pendentes.get(metodo);
+                long[] ids = new long[quantidade];
+                conjunto.next(ids, 0, quantidade);
+                for (long id : ids) {
+                    conjunto.remove(id);
+                    if (duranteMontagem != null) duranteMontagem.add(new Change(id, metodo, false));
+                }
+                reservados.put(metodo, ids);
+            }
+        }
+        return reservados;
+    }
+
+    public void release(long id, PaymentMethod metodo) {
+        apply(List.of(new Change(id, metodo, true)));
+    }
+
+    // naoAntesDe: fim da reserva no banco. Sem prazo ou com prazo vencido volta na hora
+    public void release(long id, PaymentMethod metodo, Instant naoAntesDe) {
+        if (naoAntesDe == null || !naoAntesDe.isAfter(Instant.now())) {
+            release(id, metodo);
+            return;
+        }
+
+        synchronized (lock) {
+            pendentes.get(metodo).remove(id);
+            if (emEspera.get(metodo).add(id)) filaEspera.add(new Espera(id, metodo, naoAntesDe));
+        }
+    }
+
+    public void created(Payment payment) {
+        if (payment.getStatus() == PaymentStatus.PENDENTE_PROCESSAMENTO) {
+            record(new Change(payment.getId(), payment.getMetodo(), true));
+        }
+    }
+
+    public void transitioned(long id, PaymentMethod metodo, PaymentStatus de, PaymentStatus para) {
+        if (de == para) return;
+        if (para == PaymentStatus.PENDENTE_PROCESSAMENTO) record(new Change(id, metodo, true));
+        else if (de == PaymentStatus.PENDENTE_PROCESSAMENTO) record(new Change(id, metodo, false));
+    }
+
+    private void record(Change change) {
+        if (!enabled) return;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(List.of(change));
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        List<Change> buffer = (List<Change>) TransactionSynchronizationManager.getResource(this);
+        if (buffer == null) {
+            List<Change> novo = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, novo);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResource(PendingPaymentIndex.this);
+                    if (status == STATUS_COMMITTED) apply(novo);
+                }
+            });
+            buffer = novo;
+        }
+        buffer.add(change);
+    }
+
+    private void apply(List<Change> changes) {
+        synchronized (lock) {
+            for (Change change : changes) {
+                change.applyTo(pendentes);
+                if (!change.pendente()) emEspera.get(change.metodo()).remove(change.id());
+            }
+            if (duranteMontagem != null) duranteMontagem.addAll(changes);
+        }
+    }
+
+    // Chamado com lock
+    private void releaseDue(Instant agora) {
+        Espera espera;
+        while ((espera = filaEspera.peek()) != null && !espera.naoAntesDe().isAfter(agora)) {
+            filaEspera.poll();
+            if (!emEspera.get(espera.metodo()).remove(espera.id())) continue;
+
+            Change change = new Change(espera.id(), espera.metodo(), true);
+            change.applyTo(pendentes);
+            if (duranteMontagem != null) duranteMontagem.add(change);
+        }
+    }
+
+    private int size(PaymentMethod metodo) {
+        synchronized (lock) {
+            return pendentes.get(metodo).size() + emEspera.get(metodo).size();
+        }
+    }
+
+    private int size() {
+        int total = 0;
+        for (LongHashSet conjunto : pendentes.values()) total += conjunto.size();
+        for (LongHashSet conjunto : emEspera.values()) total += conjunto.size();
+        return total;
+    }
+
+    private static Map<PaymentMethod, LongHashSet> emptySets() {
+        Map<PaymentMethod, LongHashSet> conjuntos = new EnumMap<>(PaymentMethod.class);
+        for (PaymentMethod metodo : METODOS) conjuntos.put(metodo, new LongHashSet());
+        return conjuntos;
+    }
+
+    private record Espera(long id, PaymentMethod metodo, Instant naoAntesDe) {
+    }
+
+    private record Change(long id, PaymentMethod metodo, boolean pendente) {
+        void applyTo(Map<PaymentMethod, LongHashSet> conjuntos) {
+            if (pendente) conjuntos.get(metodo).add(id);
+            else conjuntos.get(metodo).remove(id);
+        }
+    }
+}
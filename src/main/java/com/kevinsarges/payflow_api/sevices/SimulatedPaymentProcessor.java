@@ -0,0 +1,47 @@
+package com.kevinsarges.payflow_api.sevices;
+
+import com.kevinsarges.payflow_api.entities.Payment;
+import com.kevinsarges.payflow_api.entities.PaymentMethod;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Processador de testes e desenvolvimento: atende todos os métodos com latência e taxa de falha configuráveis
+@Component
+@ConditionalOnProperty(name = "payflow.processing.simulated.enabled", havingValue = "true")
+public class SimulatedPaymentProcessor implements PaymentProcessor {
+    private final Duration latencia;
+    private final double taxaFalha;
+
+    public SimulatedPaymentProcessor(
+            @Value("${payflow.processing.simulated.latency:50ms}") Duration latencia,
+            @Value("${payflow.processing.simulated.failure-rate:0.1}") double taxaFalha
+    ) {
+        this.latencia = latencia;
+        this.taxaFalha = taxaFalha;
+    }
+
+    @Override
+    public Set<PaymentMethod> metodos() {
+        return EnumSet.allOf(PaymentMethod.class);
+    }
+
+    @Override
+    public boolean process(Payment payment) {
+        if (!latencia.isZero()) {
+            try {
+                Thread.sleep(latencia);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Processamento interrompido", e);
+            }
+        }
+
+        return ThreadLocalRandom.current().nextDouble() >= taxaFalha;
+    }
+}
@@ -0,0 +1,36 @@
+package com.kevinsarges.payflow_api.utils;
+
+import com.kevinsarges.payflow_api.DTOs.ErrorResponseDTO;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.time.LocalDateTime;
+
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+    @ExceptionHandler(ConcurrentStatusUpdateException.class)
+    public ResponseEntity<ErrorResponseDTO> handleConcurrentStatusUpdate(ConcurrentStatusUpdateException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new ErrorResponseDTO(HttpStatus.CONFLICT.value(), e.getMessage(), LocalDateTime.now()));
+    }
+
+    @ExceptionHandler(IdempotencyKeyReuseException.class)
+    public ResponseEntity<ErrorResponseDTO> handleIdempotencyKeyReuse(IdempotencyKeyReuseException e) {
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                .body(new ErrorResponseDTO(HttpStatus.UNPROCESSABLE_ENTITY.value(), e.getMessage(), LocalDateTime.now()));
+    }
+
+    @ExceptionHandler(CannotCreateTransactionException.class)
+    public ResponseEntity<ErrorResponseDTO> handlePoolExhausted(CannotCreateTransactionException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new ErrorResponseDTO(HttpStatus.SERVICE_UNAVAILABLE.value(),
+                        "Banco de dados sem conexões disponíveis no momento. Tente novamente", LocalDateTime.now()));
+    }
+}
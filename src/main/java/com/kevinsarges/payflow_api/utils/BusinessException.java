@@ -1,7 +1,18 @@
 package com.kevinsarges.payflow_api.utils;
 
 public class BusinessException extends RuntimeException {
+    private final String reason;
+
     public BusinessException(String message) {
+        this("regra_de_negocio", message);
+    }
+
+    public BusinessException(String reason, String message) {
         super(message);
+        this.reason = reason;
+    }
+
+    public String getReason() {
+        return reason;
     }
 }
@@ -0,0 +1,10 @@
+package com.kevinsarges.payflow_api.utils;
+
+import com.kevinsarges.payflow_api.entities.PaymentStatus;
+
+public class ConcurrentStatusUpdateException extends BusinessException {
+    public ConcurrentStatusUpdateException(Long id, PaymentStatus statusEsperado) {
+        super("conflito", "Pagamento " + id + " foi alterado por outra requisição (status esperado: " + statusEsperado
+                + "). Tente novamente");
+    }
+}
@@ -0,0 +1,23 @@
+package com.kevinsarges.payflow_api.utils;
+
+import java.util.Locale;
+
+public final class CpfCnpj {
+
+    private CpfCnpj() {
+    }
+
+    // Chave usada nas buscas por pagador: maiúsculas (o CNPJ alfanumérico) e só A-Z e 0-9, então "123.456.789-00" e
+    // "12345678900" caem na mesma chave. Precisa bater com o regexp_replace(upper(...), '[^A-Z0-9]', '', 'g') da V3
+    public static String normalize(String cpfCnpj) {
+        if (cpfCnpj == null) return null;
+
+        String maiusculo = cpfCnpj.toUpperCase(Locale.ROOT);
+        StringBuilder chave = new StringBuilder(maiusculo.length());
+        for (int i = 0; i < maiusculo.length(); i++) {
+            char c = maiusculo.charAt(i);
+            if ((c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')) chave.append(c);
+        }
+        return chave.toString();
+    }
+}
@@ -0,0 +1,7 @@
+package com.kevinsarges.payflow_api.utils;
+
+public class IdempotencyKeyReuseException extends BusinessException {
+    public IdempotencyKeyReuseException(String chave) {
+        super("idempotencia_conflitante", "Idempotency-Key " + chave + " já foi usada com outro conteúdo de requisição");
+    }
+}
@@ -0,0 +1,15 @@
+package com.kevinsarges.payflow_api.utils;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JacksonConfig {
+    // Troca a reflexão dos getters/setters por lambdas geradas (LambdaMetafactory) na serialização
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
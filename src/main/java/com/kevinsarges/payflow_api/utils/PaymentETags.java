@@ -0,0 +1,42 @@
+package com.kevinsarges.payflow_api.utils;
+
+import com.kevinsarges.payflow_api.DTOs.PageDTO;
+import com.kevinsarges.payflow_api.DTOs.PaymentSummaryDTO;
+import com.kevinsarges.payflow_api.entities.Payment;
+
+import java.time.Instant;
+
+// ETags derivados do @Version, sem serializar a resposta para saber se ela mudou. proximaTentativa é gravada pelo
+// PaymentRetryScheduler sem incrementar a versão (@OptimisticLock(excluded = true)) e atualizadoEm muda com ela, então
+// os dois entram no ETag do pagamento. Os campos da listagem só mudam junto com a versão
+public final class PaymentETags {
+
+    private PaymentETags() {
+    }
+
+    public static String of(Payment payment) {
+        return "\"" + payment.getId() + "-" + version(payment.getVersion()) + "-"
+                + Long.toHexString(instant(payment.getAtualizadoEm()) * 31 + instant(payment.getProximaTentativa())) + "\"";
+    }
+
+    public static String of(PageDTO<PaymentSummaryDTO> page) {
+        long hash = 17;
+        hash = 31 * hash + page.getPage();
+        hash = 31 * hash + page.getSize();
+        hash = 31 * hash + page.getTotalElements();
+        hash = 31 * hash + (page.isHasNext() ? 1 : 0);
+        for (PaymentSummaryDTO payment : page.getContent()) {
+            hash = 31 * hash + payment.getId();
+            hash = 31 * hash + version(payment.getVersion());
+        }
+        return "W/\"" + Long.toHexString(hash) + "\"";
+    }
+
+    private static long version(Long version) {
+        return version == null ? -1 : version;
+    }
+
+    private static long instant(Instant instant) {
+        return instant == null ? -1 : instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+    }
+}
@@ -0,0 +1,198 @@
+package com.kevinsarges.payflow_api.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.kevinsarges.payflow_api.DTOs.ErrorResponseDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+// Admissão antes do PaymentController: token bucket por cliente e limite de requisições simultâneas por grupo de
+// rotas. O cliente é a X-API-Key só quando ela está em payflow.ratelimit.api-keys; qualquer outra cai no IP, senão
+// uma chave nova a cada requisição ganharia um burst novo. Nada aqui usa lock: buckets com CAS e contadores atômicos
+@Component
+@ConditionalOnProperty(name = "payflow.ratelimit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitFilter extends OncePerRequestFilter {
+    public static final String API_KEY = "X-API-Key";
+    static final String RATE_LIMIT_LIMIT = "X-RateLimit-Limit";
+    static final String RATE_LIMIT_REMAINING = "X-RateLimit-Remaining";
+
+    enum Grupo { FILTER, BULK, DEFAULT }
+
+    private final Cache<String, TokenBucket> buckets;
+    private final double rate;
+    private final int burst;
+    private final Set<String> apiKeys;
+    private final Map<Grupo, Integer> limites = new EnumMap<>(Grupo.class);
+    private final Map<Grupo, AtomicInteger> emAndamento = new EnumMap<>(Grupo.class);
+    private final Map<Grupo, Map<String, Counter>> decisoes = new EnumMap<>(Grupo.class);
+    private final ObjectMapper objectMapper;
+    private final LongSupplier relogio;
+
+    @Autowired
+    public RateLimitFilter(
+            @Value("${payflow.ratelimit.rate:50}") double rate,
+            @Value("${payflow.ratelimit.burst:100}") int burst,
+            @Value("${payflow.ratelimit.clients.max-size:100000}") long maxClients,
+            @Value("${payflow.ratelimit.clients.idle-ttl:10m}") Duration idleTtl,
+            @Value("${payflow.ratelimit.concurrency.filter:16}") int concurrencyFilter,
+            @Value("${payflow.ratelimit.concurrency.bulk:4}") int concurrencyBulk,
+            @Value("${payflow.ratelimit.concurrency.default:64}") int concurrencyDefault,
+            @Value("${payflow.ratelimit.api-keys:}") Set<String> apiKeys,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry
+    ) {
+        this(rate, burst, maxClients, idleTtl, Map.of(Grupo.FILTER, concurrencyFilter, Grupo.BULK, concurrencyBulk,
+                Grupo.DEFAULT, concurrencyDefault), apiKeys, objectMapper, meterRegistry, System::nanoTime);
+    }
+
+    RateLimitFilter(
+            double rate,
+            int burst,
+            long maxClients,
+            Duration idleTtl,
+            Map<Grupo, Integer> limites,
+            Set<String> apiKeys,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            LongSupplier relogio
+    ) {
+        this.rate = rate;
+        this.burst = burst;
+        this.apiKeys = Set.copyOf(apiKeys);
+        this.buckets = Caffeine.newBuilder().maximumSize(maxClients).expireAfterAccess(idleTtl).build();
+        this.objectMapper = objectMapper;
+        this.relogio = relogio;
+        this.limites.putAll(limites);
+
+        for (Grupo grupo : Grupo.values()) {
+            AtomicInteger contador = new AtomicInteger();
+            emAndamento.put(grupo, contador);
+            String tag = grupo.name().toLowerCase();
+            meterRegistry.gauge("payflow.ratelimit.in_flight", Tags.of("group", tag), contador);
+
+            Map<String, Counter> porDecisao = new HashMap<>();
+            for (String decisao : new String[]{"allowed", "rate_limited", "concurrency_limited"}) {
+                porDecisao.put(decisao, Counter.builder("payflow.ratelimit.decisions")
+                        .tag("group", tag)
+                        .tag("decision", decisao)
+                        .register(meterRegistry));
+            }
+            decisoes.put(grupo, porDecisao);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/payments");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Grupo grupo = grupo(request);
+        long agora = relogio.getAsLong();
+        TokenBucket bucket = buckets.get(cliente(request), key -> new TokenBucket(rate, burst, agora));
+
+        long espera = bucket.tryConsume(agora);
+        response.setHeader(RATE_LIMIT_LIMIT, String.valueOf(burst));
+        response.setHeader(RATE_LIMIT_REMAINING, String.valueOf(Math.max(0, bucket.remaining(agora))));
+        if (espera > 0) {
+            reject(response, grupo, "rate_limited", espera,
+                    "Limite de requisições excedido para o cliente. Tente novamente em instantes");
+            return;
+        }
+
+        AtomicInteger contador = emAndamento.get(grupo);
+        if (contador.incrementAndGet() > limites.get(grupo)) {
+            contador.decrementAndGet();
+            reject(response, grupo, "concurrency_limited", TimeUnit.SECONDS.toNanos(1),
+                    "Muitas requisições simultâneas nesta rota. Tente novamente em instantes");
+            return;
+        }
+
+        decisoes.get(grupo).get("allowed").increment();
+        boolean liberar = true;
+        try {
+            chain.doFilter(request, response);
+            // Streaming (export NDJSON) continua depois que o filtro retorna: libera a vaga só ao terminar
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new Liberacao(contador));
+                liberar = false;
+            }
+        } finally {
+            if (liberar) contador.decrementAndGet();
+        }
+    }
+
+    private void reject(HttpServletResponse response, Grupo grupo, String decisao, long esperaNanos, String mensagem)
+            throws IOException {
+        decisoes.get(grupo).get(decisao).increment();
+
+        long segundos = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(esperaNanos + 999_999_999L));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(segundos));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(),
+                new ErrorResponseDTO(HttpStatus.TOO_MANY_REQUESTS.value(), mensagem, LocalDateTime.now()));
+    }
+
+    private static Grupo grupo(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        if (uri.startsWith("/payments/filter")) return Grupo.FILTER;
+        if (uri.startsWith("/payments/bulk") || uri.startsWith("/payments/import")
+                || uri.startsWith("/payments/export") || uri.startsWith("/payments/status/batch")) return Grupo.BULK;
+        return Grupo.DEFAULT;
+    }
+
+    private String cliente(HttpServletRequest request) {
+        String apiKey = request.getHeader(API_KEY);
+        return apiKey != null && apiKeys.contains(apiKey) ? "key:" + apiKey : "ip:" + request.getRemoteAddr();
+    }
+
+    private record Liberacao(AtomicInteger contador) implements AsyncListener {
+        @Override
+        public void onComplete(AsyncEvent event) {
+            contador.decrementAndGet();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.kevinsarges.payflow_api.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Token bucket no formato GCRA: o estado é só o instante teórico da próxima chegada, atualizado com CAS,
+// então não há lock nem thread de reabastecimento
+public final class TokenBucket {
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final AtomicLong proximaChegada;
+
+    public TokenBucket(double ratePerSecond, int burst, long agoraNanos) {
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / ratePerSecond));
+        this.toleranceNanos = intervalNanos * Math.max(1, burst);
+        this.proximaChegada = new AtomicLong(agoraNanos);
+    }
+
+    /** Consome um token; devolve 0 quando liberado ou quantos nanos faltam para o próximo token. */
+    public long tryConsume(long agoraNanos) {
+        while (true) {
+            long atual = proximaChegada.get();
+            long base = Math.max(atual, agoraNanos);
+            long espera = base + intervalNanos - toleranceNanos - agoraNanos;
+            if (espera > 0) return espera;
+            if (proximaChegada.compareAndSet(atual, base + intervalNanos)) return 0;
+        }
+    }
+
+    public int remaining(long agoraNanos) {
+        long ocupado = Math.max(0, proximaChegada.get() - agoraNanos);
+        return (int) ((toleranceNanos - ocupado) / intervalNanos);
+    }
+}
@@ -0,0 +1,54 @@
+create sequence payment_seq start with 1 increment by 50;
+create sequence payment_event_seq start with 1 increment by 50;
+
+create table payment (
+    id bigint not null,
+    codigo_debito numeric(38,0),
+    cpf_cnpj varchar(255),
+    metodo varchar(16),
+    numero_cartao varchar(255),
+    valor numeric(38,2),
+    status varchar(32),
+    version bigint,
+    lote_processamento varchar(255),
+    reservado_ate timestamp(6) with time zone,
+    tentativas integer,
+    proxima_tentativa timestamp(6) with time zone,
+    constraint pk_payment primary key (id)
+);
+
+create index idx_payment_codigo_debito_status on payment (codigo_debito, status);
+create index idx_payment_cpf_cnpj_status on payment (cpf_cnpj, status);
+create index idx_payment_status_id on payment (status, id);
+create index idx_payment_status_proxima_tentativa on payment (status, proxima_tentativa);
+
+create table payment_event (
+    id bigint not null,
+    payment_id bigint not null,
+    tipo varchar(32) not null,
+    status_anterior varchar(32),
+    status varchar(32) not null,
+    versao bigint,
+    codigo_debito numeric(38,0),
+    cpf_cnpj varchar(255),
+    metodo varchar(16),
+    valor numeric(38,2),
+    ocorrido_em timestamp(6) with time zone not null,
+    publicado_em timestamp(6) with time zone,
+    constraint pk_payment_event primary key (id)
+);
+
+create index idx_payment_event_publicado_em_id on payment_event (publicado_em, id);
+create index idx_payment_event_payment_id_versao on payment_event (payment_id, versao);
+
+create table idempotency_record (
+    chave varchar(255) not null,
+    request_hash varchar(64) not null,
+    payment_id bigint not null,
+    resposta varchar(4000) not null,
+    criado_em timestamp(6) with time zone not null,
+    expira_em timestamp(6) with time zone not null,
+    constraint pk_idempotency_record primary key (chave)
+);
+
+create index idx_idempotency_record_expira_em on idempotency_record (expira_em);
@@ -0,0 +1,17 @@
+create table payment_daily_stats (
+    dia date not null,
+    metodo varchar(16) not null,
+    status varchar(32) not null,
+    entradas bigint not null,
+    saidas bigint not null,
+    valor_entradas numeric(38,2),
+    valor_saidas numeric(38,2),
+    constraint pk_payment_daily_stats primary key (dia, metodo, status)
+);
+
+-- Pagamentos que já existiam entram como o saldo do dia da migration
+insert into payment_daily_stats (dia, metodo, status, entradas, saidas, valor_entradas, valor_saidas)
+select current_date, metodo, status, count(*), 0, coalesce(sum(valor), 0), 0
+from payment
+where metodo is not null and status is not null
+group by metodo, status;
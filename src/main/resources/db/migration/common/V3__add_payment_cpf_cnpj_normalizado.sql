@@ -0,0 +1,8 @@
+alter table payment add column cpf_cnpj_normalizado varchar(255);
+
+-- Mesma chave do CpfCnpj.normalize: maiúsculas e só A-Z e 0-9 (o flag 'g' exige o H2 em MODE=PostgreSQL)
+update payment
+set cpf_cnpj_normalizado = regexp_replace(upper(cpf_cnpj), '[^A-Z0-9]', '', 'g')
+where cpf_cnpj is not null;
+
+create index idx_payment_cpf_cnpj_normalizado_id on payment (cpf_cnpj_normalizado, id);
@@ -0,0 +1,10 @@
+alter table payment add column criado_em timestamp(6) with time zone;
+alter table payment add column atualizado_em timestamp(6) with time zone;
+
+-- Pagamentos anteriores à migration ficam com a data da migration
+update payment set criado_em = current_timestamp, atualizado_em = current_timestamp where criado_em is null;
+
+alter table payment alter column criado_em set not null;
+
+create index idx_payment_criado_em on payment (criado_em);
+create index idx_payment_status_criado_em on payment (status, criado_em);
@@ -0,0 +1,26 @@
+create table payment_archive (
+    id bigint not null,
+    codigo_debito numeric(38,0),
+    cpf_cnpj varchar(255),
+    cpf_cnpj_normalizado varchar(255),
+    metodo varchar(16),
+    numero_cartao varchar(255),
+    valor numeric(38,2),
+    status varchar(32),
+    version bigint,
+    tentativas integer,
+    criado_em timestamp(6) with time zone not null,
+    atualizado_em timestamp(6) with time zone,
+    arquivado_em timestamp(6) with time zone not null,
+    constraint pk_payment_archive primary key (id)
+);
+
+create index idx_payment_archive_cpf_cnpj_normalizado_id on payment_archive (cpf_cnpj_normalizado, id);
+
+create table payment_archive_checkpoint (
+    nome varchar(255) not null,
+    ultimo_id bigint,
+    varredura_concluida_em timestamp(6) with time zone,
+    constraint pk_payment_archive_checkpoint primary key (nome)
+);
+
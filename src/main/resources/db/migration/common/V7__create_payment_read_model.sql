@@ -0,0 +1,30 @@
+create table payment_read_model (
+    id bigint not null,
+    codigo_debito numeric(38,0),
+    cpf_cnpj varchar(255),
+    metodo varchar(16),
+    valor numeric(38,2),
+    status varchar(32),
+    version bigint,
+    criado_em timestamp(6) with time zone not null,
+    atualizado_em timestamp(6) with time zone,
+    projetado_em timestamp(6) with time zone not null,
+    constraint pk_payment_read_model primary key (id)
+);
+
+create index idx_payment_read_model_cpf_cnpj_status_id on payment_read_model (cpf_cnpj, status, id);
+create index idx_payment_read_model_codigo_debito_status_id on payment_read_model (codigo_debito, status, id);
+create index idx_payment_read_model_status_id on payment_read_model (status, id);
+create index idx_payment_read_model_criado_em on payment_read_model (criado_em);
+create index idx_payment_read_model_status_criado_em on payment_read_model (status, criado_em);
+
+alter table payment_event add column projetado_em timestamp(6) with time zone;
+create index idx_payment_event_projetado_em_id on payment_event (projetado_em, id);
+
+-- O read model começa com o estado atual de payment; os eventos existentes já estão refletidos nele
+insert into payment_read_model (id, codigo_debito, cpf_cnpj, metodo, valor, status, version, criado_em, atualizado_em,
+                                projetado_em)
+select id, codigo_debito, cpf_cnpj, metodo, valor, status, version, criado_em, atualizado_em, current_timestamp
+from payment;
+
+update payment_event set projetado_em = current_timestamp where projetado_em is null;
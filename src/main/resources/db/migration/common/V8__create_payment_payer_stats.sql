@@ -0,0 +1,14 @@
+create table payment_payer_stats (
+    cpf_cnpj_normalizado varchar(255) not null,
+    status varchar(32) not null,
+    quantidade bigint not null,
+    valor_total numeric(38,2),
+    constraint pk_payment_payer_stats primary key (cpf_cnpj_normalizado, status)
+);
+
+-- Pagamentos que já existiam entram como o saldo inicial de cada pagador
+insert into payment_payer_stats (cpf_cnpj_normalizado, status, quantidade, valor_total)
+select cpf_cnpj_normalizado, status, count(*), coalesce(sum(valor), 0)
+from payment
+where cpf_cnpj_normalizado is not null and status is not null
+group by cpf_cnpj_normalizado, status;
@@ -0,0 +1,3 @@
+-- O H2 não tem particionamento de tabelas: no H2 a tabela payment continua única, com os índices por criado_em da V4.
+-- O layout particionado por mês fica em db/migration/postgresql/V5__partition_payment_by_month.sql
+select 1;
@@ -0,0 +1,64 @@
+-- Recria payment particionada por mês em criado_em. A chave de partição precisa fazer parte da PK,
+-- então a PK passa a ser (id, criado_em); o id continua vindo de payment_seq e segue único na prática.
+alter table payment rename to payment_legado;
+alter table payment_legado rename constraint pk_payment to pk_payment_legado;
+
+create table payment (
+    id bigint not null,
+    codigo_debito numeric(38,0),
+    cpf_cnpj varchar(255),
+    cpf_cnpj_normalizado varchar(255),
+    metodo varchar(16),
+    numero_cartao varchar(255),
+    valor numeric(38,2),
+    status varchar(32),
+    version bigint,
+    lote_processamento varchar(255),
+    reservado_ate timestamp(6) with time zone,
+    tentativas integer,
+    proxima_tentativa timestamp(6) with time zone,
+    criado_em timestamp(6) with time zone not null,
+    atualizado_em timestamp(6) with time zone,
+    constraint pk_payment primary key (id, criado_em)
+) partition by range (criado_em);
+
+-- Uma partição por mês desde o pagamento mais antigo até três meses à frente (o job de manutenção cria as seguintes);
+-- a default só recebe o que cair fora dessas faixas
+do $$
+declare
+    mes date := date_trunc('month', coalesce((select min(criado_em) from payment_legado), now()) at time zone 'UTC')::date;
+    ultimo date := (date_trunc('month', now() at time zone 'UTC') + interval '3 months')::date;
+begin
+    while mes <= ultimo loop
+        execute format(
+            'create table %I partition of payment for values from (%L) to (%L)',
+            'payment_' || to_char(mes, 'YYYY_MM'),
+            mes::timestamp at time zone 'UTC',
+            (mes + interval '1 month')::timestamp at time zone 'UTC');
+        mes := (mes + interval '1 month')::date;
+    end loop;
+end $$;
+
+create table payment_default partition of payment default;
+
+insert into payment (id, codigo_debito, cpf_cnpj, cpf_cnpj_normalizado, metodo, numero_cartao, valor, status, version,
+                     lote_processamento, reservado_ate, tentativas, proxima_tentativa, criado_em, atualizado_em)
+select id, codigo_debito, cpf_cnpj, cpf_cnpj_normalizado, metodo, numero_cartao, valor, status, version,
+       lote_processamento, reservado_ate, tentativas, proxima_tentativa, criado_em, atualizado_em
+from payment_legado;
+
+drop table payment_legado;
+
+-- Índices criados na tabela particionada valem para todas as partições, inclusive as futuras
+-- idx_payment_id só acelera a busca por id: não é unique, porque um índice único numa tabela particionada precisa
+-- conter a chave de partição. A unicidade do id entre partições vem só de payment_seq; um insert manual com id
+-- repetido em outro mês não é barrado
+create index idx_payment_id on payment (id);
+comment on index idx_payment_id is 'Não garante id único entre partições; a unicidade vem de payment_seq';
+create index idx_payment_codigo_debito_status on payment (codigo_debito, status);
+create index idx_payment_cpf_cnpj_status on payment (cpf_cnpj, status);
+create index idx_payment_cpf_cnpj_normalizado_id on payment (cpf_cnpj_normalizado, id);
+create index idx_payment_status_id on payment (status, id);
+create index idx_payment_status_proxima_tentativa on payment (status, proxima_tentativa);
+create index idx_payment_criado_em on payment (criado_em);
+create index idx_payment_status_criado_em on payment (status, criado_em);
@@ -0,0 +1,212 @@
+package com.kevinsarges.payflow_api.benchmarks;
+
+import com.kevinsarges.payflow_api.DTOs.PaymentRequestDTO;
+import com.kevinsarges.payflow_api.PayflowApiApplication;
+import com.kevinsarges.payflow_api.sevices.PaymentService;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Statement;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Mono;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compara vazão e p99 de {@code GET /payments?size=20} no stack servlet (Tomcat + JDBC) e no reativo (Netty + R2DBC)
+ * com 10 mil conexões simultâneas. Cada statement recebe uma latência artificial para simular um banco remoto: no
+ * JDBC a thread dorme, no R2DBC a execução é adiada com {@code Mono.delay}, sem ocupar thread. Só leituras são medidas,
+ * então o DatabaseClient com a latência não precisa participar das transações do TransactionalOperator.
+ * {@code mvn -P reactive test -Dtest=ReactiveStackLoadTests -Dbenchmark=true -Dbenchmark.concurrency=10000 -Dbenchmark.dbLatencyMs=20}
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ReactiveStackLoadTests {
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 10_000);
+    private static final int REQUESTS = Integer.getInteger("benchmark.requests", 50_000);
+    private static final int DB_LATENCY_MS = Integer.getInteger("benchmark.dbLatencyMs", 20);
+    private static final int POOL_SIZE = Integer.getInteger("benchmark.poolSize", 100);
+    private static final int TOMCAT_THREADS = Integer.getInteger("benchmark.tomcatThreads", 200);
+
+    @Test
+    @DisplayName("Vazão e p99 com 10 mil conexões: servlet vs. reativo")
+    void compareStacks() throws Exception {
+        run(false);
+        run(true);
+    }
+
+    private void run(boolean reactive) throws Exception {
+        try (ConfigurableApplicationContext context = start(reactive)) {
+            seed(context.getBean(PaymentService.class));
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            URI uri = URI.create("http://localhost:" + port + "/payments?page=0&size=20");
+
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .connectTimeout(Duration.ofSeconds(30))
+                    .build();
+            HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(120)).GET().build();
+
+            for (int i = 0; i < 200; i++) client.send(request, HttpResponse.BodyHandlers.discarding());
+
+            long[] latencias = new long[REQUESTS];
+            AtomicInteger erros = new AtomicInteger();
+            Semaphore emVoo = new Semaphore(CONCURRENCY);
+            List<Future<?>> futures = new ArrayList<>(REQUESTS);
+            long inicio = System.nanoTime();
+
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < REQUESTS; i++) {
+                    int indice = i;
+                    emVoo.acquire();
+                    futures.add(executor.submit(() -> {
+                        long t0 = System.nanoTime();
+                        try {
+                            if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() != 200) {
+                                erros.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            erros.incrementAndGet();
+                        } finally {
+                            latencias[indice] = System.nanoTime() - t0;
+                            emVoo.release();
+                        }
+                    }));
+                }
+                for (Future<?> future : futures) future.get();
+            }
+
+            double segundos = (System.nanoTime() - inicio) / 1e9;
+            Arrays.sort(latencias);
+            System.out.printf("[benchmark] %-8s concorrência=%d requisições=%d latênciaDb=%dms pool=%d -> %.0f req/s, p50=%.1f ms, p99=%.1f ms, erros=%d%n",
+                    reactive ? "reativo" : "servlet", CONCURRENCY, REQUESTS, DB_LATENCY_MS, POOL_SIZE,
+                    REQUESTS / segundos, latencias[REQUESTS / 2] / 1e6, latencias[(int) (REQUESTS * 0.99)] / 1e6, erros.get());
+        }
+    }
+
+    private ConfigurableApplicationContext start(boolean reactive) {
+        return new SpringApplicationBuilder(PayflowApiApplication.class)
+                .profiles("test")
+                .properties(
+                        "server.port=0",
+                        "spring.main.web-application-type=" + (reactive ? "reactive" : "servlet"),
+                        "spring.datasource.url=jdbc:h2:mem:stack-" + reactive + ";DB_CLOSE_DELAY=-1",
+                        "spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                        "spring.datasource.hikari.minimum-idle=" + POOL_SIZE,
+                        "spring.datasource.hikari.connection-timeout=60000",
+                        "payflow.reactive.pool-size=" + POOL_SIZE,
+                        "server.tomcat.threads.max=" + TOMCAT_THREADS,
+                        "server.tomcat.max-connections=20000",
+                        "server.tomcat.accept-count=10000",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.org.hibernate.SQL=OFF",
+                        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=OFF"
+                )
+                .initializers(context -> context.getBeanFactory().addBeanPostProcessor(new LatencyInjector()))
+                .run();
+    }
+
+    private void seed(PaymentService service) {
+        List<PaymentRequestDTO> dtos = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            PaymentRequestDTO dto = new PaymentRequestDTO();
+            dto.setCodigoDebito(BigInteger.valueOf(i));
+            dto.setCpfCnpj("12345678900");
+            dto.setMetodo("PIX");
+            dto.setValor(BigDecimal.TEN);
+            dtos.add(dto);
+        }
+        service.createBulk(dtos);
+    }
+
+    // No stack reativo o DataSource só é usado pelo seed e pelas tarefas agendadas: a latência JDBC não entra na medição
+    private static final class LatencyInjector implements BeanPostProcessor {
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DatabaseClient client) {
+                return DatabaseClient.create(slow(client.getConnectionFactory()));
+            }
+            if (!(bean instanceof DataSource dataSource)) return bean;
+
+            return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{DataSource.class},
+                    (proxy, method, args) -> {
+                        Object result = invoke(method, dataSource, args);
+                        return result instanceof java.sql.Connection connection ? slowJdbc(connection) : result;
+                    });
+        }
+
+        private static java.sql.Connection slowJdbc(java.sql.Connection connection) {
+            return (java.sql.Connection) Proxy.newProxyInstance(LatencyInjector.class.getClassLoader(),
+                    new Class<?>[]{java.sql.Connection.class},
+                    (proxy, method, args) -> {
+                        Object result = invoke(method, connection, args);
+                        if (result instanceof java.sql.Statement && DB_LATENCY_MS > 0) Thread.sleep(DB_LATENCY_MS);
+                        return result;
+                    });
+        }
+
+        private static ConnectionFactory slow(ConnectionFactory connectionFactory) {
+            return (ConnectionFactory) Proxy.newProxyInstance(LatencyInjector.class.getClassLoader(),
+                    new Class<?>[]{ConnectionFactory.class},
+                    (proxy, method, args) -> {
+                        Object result = invoke(method, connectionFactory, args);
+                        if (!method.getName().equals("create")) return result;
+
+                        @SuppressWarnings("unchecked")
+                        Publisher<Connection> connections = (Publisher<Connection>) result;
+                        return Mono.from(connections).map(LatencyInjector::slow);
+                    });
+        }
+
+        private static Connection slow(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(LatencyInjector.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        Object result = invoke(method, connection, args);
+                        return result instanceof Statement statement ? slow(statement) : result;
+                    });
+        }
+
+        private static Statement slow(Statement statement) {
+            return (Statement) Proxy.newProxyInstance(LatencyInjector.class.getClassLoader(), new Class<?>[]{Statement.class},
+                    (proxy, method, args) -> {
+                        Object result = invoke(method, statement, args);
+                        if (result == statement) return proxy;
+                        if (!method.getName().equals("execute") || DB_LATENCY_MS <= 0) return result;
+                        return Mono.delay(Duration.ofMillis(DB_LATENCY_MS)).thenMany((Publisher<?>) result);
+                    });
+        }
+
+        private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
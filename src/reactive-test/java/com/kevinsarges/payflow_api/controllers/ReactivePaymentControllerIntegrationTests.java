@@ -0,0 +1,236 @@
+package com.kevinsarges.payflow_api.controllers;
+
+import com.kevinsarges.payflow_api.DTOs.PaymentRequestDTO;
+import com.kevinsarges.payflow_api.DTOs.PaymentSummaryDTO;
+import com.kevinsarges.payflow_api.entities.Payment;
+import com.kevinsarges.payflow_api.entities.PaymentEvent;
+import com.kevinsarges.payflow_api.entities.PaymentEventType;
+import com.kevinsarges.payflow_api.entities.PaymentMethod;
+import com.kevinsarges.payflow_api.entities.PaymentStatus;
+import com.kevinsarges.payflow_api.repositories.PaymentEventRepository;
+import com.kevinsarges.payflow_api.repositories.PaymentRepository;
+import com.kevinsarges.payflow_api.sevices.PendingPaymentIndex;
+import com.kevinsarges.payflow_api.sevices.ReactivePaymentService;
+import com.kevinsarges.payflow_api.utils.BusinessException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Banco em memória próprio: o contexto reativo não pode dividir o H2 com os contextos servlet dos outros testes
+@SpringBootTest(properties = {
+        "spring.main.web-application-type=reactive",
+        "spring.datasource.url=jdbc:h2:mem:payflowdb-reactive;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE"
+})
+@ActiveProfiles("test")
+class ReactivePaymentControllerIntegrationTests {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private PaymentRepository repository;
+
+    @Autowired
+    private PaymentEventRepository eventRepository;
+
+    @Autowired
+    private PendingPaymentIndex pendingIndex;
+
+    @Autowired
+    private ReactivePaymentService service;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private WebTestClient client;
+
+    @BeforeEach
+    void setup() {
+        client = WebTestClient.bindToApplicationContext(context).build();
+    }
+
+    @AfterEach
+    void cleanup() {
+        repository.deleteAll();
+        eventRepository.deleteAll();
+        pendingIndex.rebuild();
+    }
+
+    private Payment criarPagamento(BigInteger codigoDebito) {
+        PaymentRequestDTO dto = new PaymentRequestDTO();
+        dto.setCodigoDebito(codigoDebito);
+        dto.setCpfCnpj("12345678900");
+        dto.setMetodo("PIX");
+        dto.setValor(BigDecimal.valueOf(100.0));
+
+        return client.post().uri("/payments")
+                .bodyValue(dto)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists("X-Consistency-Token")
+                .expectBody(Payment.class)
+                .returnResult().getResponseBody();
+    }
+
+    private WebTestClient.ResponseSpec atualizarStatus(Long id, PaymentStatus novoStatus) {
+        return client.put().uri(uri -> uri.path("/payments/{id}/status")
+                        .queryParam("novoStatus", novoStatus.name())
+                        .build(id))
+                .exchange();
+    }
+
+    @Test
+    @DisplayName("Deve recusar pagamento com cartão sem número e DTO inválido sem gravar nada")
+    void deveRecusarPagamentoInvalido() {
+        PaymentRequestDTO semCartao = new PaymentRequestDTO();
+        semCartao.setCodigoDebito(BigInteger.ONE);
+        semCartao.setCpfCnpj("12345678900");
+        semCartao.setMetodo("CREDITO");
+        semCartao.setValor(BigDecimal.TEN);
+
+        client.post().uri("/payments").bodyValue(semCartao).exchange().expectStatus().is5xxServerError();
+
+        // Chamada direta ao serviço, sem o @Valid do controller: as validações do DTO são as do PaymentService
+        PaymentRequestDTO semValor = new PaymentRequestDTO();
+        semValor.setCodigoDebito(BigInteger.ONE);
+        semValor.setCpfCnpj("12345678900");
+        semValor.setMetodo("PIX");
+        BusinessException ex = assertThrows(BusinessException.class, () -> service.create(semValor).block());
+        assertEquals("validacao", ex.getReason());
+
+        assertEquals(0, repository.count());
+        assertEquals(0, eventRepository.count());
+    }
+
+    @Test
+    @DisplayName("Deve alterar o status de pagamento gravado sem version")
+    void deveAlterarStatusDePagamentoSemVersion() {
+        Payment criado = criarPagamento(BigInteger.ONE);
+        jdbcTemplate.update("update payment set version = null where id = ?", criado.getId());
+
+        atualizarStatus(criado.getId(), PaymentStatus.PROCESSADO_COM_SUCESSO)
+                .expectStatus().isOk()
+                .expectBody(Payment.class).value(payment -> {
+                    assertEquals(PaymentStatus.PROCESSADO_COM_SUCESSO, payment.getStatus());
+                    assertNull(payment.getVersion());
+                });
+    }
+
+    @Test
+    @DisplayName("Deve criar pelo R2DBC com o evento do outbox e buscar com ETag")
+    void deveCriarEBuscar() {
+        Payment criado = criarPagamento(BigInteger.ONE);
+
+        assertNotNull(criado.getId());
+        assertEquals(PaymentStatus.PENDENTE_PROCESSAMENTO, criado.getStatus());
+        assertEquals(0L, criado.getVersion());
+
+        Payment gravado = repository.findById(criado.getId()).orElseThrow();
+        assertEquals(0, BigDecimal.valueOf(100.0).compareTo(gravado.getValor()));
+        assertEquals("12345678900", gravado.getCpfCnpjNormalizado());
+        assertNotNull(gravado.getCriadoEm());
+
+        List<PaymentEvent> eventos = eventRepository.findAll();
+        assertEquals(1, eventos.size());
+        assertEquals(PaymentEventType.PAGAMENTO_CRIADO, eventos.get(0).getTipo());
+        assertEquals(criado.getId(), eventos.get(0).getPaymentId());
+        assertEquals(1L, pendingIndex.counts().get(PaymentMethod.PIX));
+
+        String eTag = client.get().uri("/payments/{id}", criado.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Payment.class).value(payment -> assertEquals(criado.getId(), payment.getId()))
+                .returnResult().getResponseHeaders().getETag();
+
+        client.get().uri("/payments/{id}", criado.getId())
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isNotModified();
+    }
+
+    @Test
+    @DisplayName("Deve aplicar as mesmas regras de transição e de exclusão do PaymentService")
+    void deveAplicarAsRegrasDeTransicao() {
+        Payment sucesso = criarPagamento(BigInteger.ONE);
+        Payment excluido = criarPagamento(BigInteger.TWO);
+
+        atualizarStatus(sucesso.getId(), PaymentStatus.PROCESSADO_COM_SUCESSO)
+                .expectStatus().isOk()
+                .expectBody(Payment.class).value(payment -> {
+                    assertEquals(PaymentStatus.PROCESSADO_COM_SUCESSO, payment.getStatus());
+                    assertEquals(1L, payment.getVersion());
+                });
+
+        // BusinessException não é mapeada no ApiExceptionHandler, como no stack servlet
+        atualizarStatus(sucesso.getId(), PaymentStatus.PENDENTE_PROCESSAMENTO).expectStatus().is5xxServerError();
+        assertEquals(PaymentStatus.PROCESSADO_COM_SUCESSO, repository.findById(sucesso.getId()).orElseThrow().getStatus());
+
+        client.delete().uri("/payments/{id}", excluido.getId()).exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.message").isEqualTo("Pagamento desativado !!");
+        client.delete().uri("/payments/{id}", excluido.getId()).exchange().expectStatus().is5xxServerError();
+        assertEquals(PaymentStatus.INATIVO, repository.findById(excluido.getId()).orElseThrow().getStatus());
+
+        assertEquals(0L, pendingIndex.counts().get(PaymentMethod.PIX));
+        assertEquals(4, eventRepository.count());
+        assertTrue(eventRepository.findAll().stream().anyMatch(e -> e.getTipo() == PaymentEventType.PAGAMENTO_INATIVADO));
+    }
+
+    @Test
+    @DisplayName("Deve paginar em JSON e fazer streaming em NDJSON com os mesmos filtros")
+    void deveListarPaginadoEEmStreaming() {
+        for (int i = 1; i <= 5; i++) criarPagamento(BigInteger.valueOf(i));
+        criarPagamento(BigInteger.valueOf(3));
+
+        client.get().uri("/payments?page=1&size=2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content.length()").isEqualTo(2)
+                .jsonPath("$.totalElements").isEqualTo(6)
+                .jsonPath("$.hasNext").isEqualTo(true);
+
+        List<PaymentSummaryDTO> todos = client.get().uri("/payments")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(PaymentSummaryDTO.class).getResponseBody()
+                .collectList().block();
+        assertNotNull(todos);
+        assertEquals(6, todos.size());
+
+        client.post().uri("/payments/filter")
+                .bodyValue("{\"codigoDebito\": 3}")
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.totalElements").isEqualTo(2);
+
+        List<PaymentSummaryDTO> filtrados = client.post().uri("/payments/filter")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .bodyValue("{\"status\": \"PENDENTE_PROCESSAMENTO\", \"codigoDebito\": 3}")
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(PaymentSummaryDTO.class).getResponseBody()
+                .collectList().block();
+        assertNotNull(filtrados);
+        assertEquals(2, filtrados.size());
+    }
+}
@@ -0,0 +1,130 @@
+package com.kevinsarges.payflow_api.controllers;
+
+import com.kevinsarges.payflow_api.DTOs.DeletePaymentResponseDTO;
+import com.kevinsarges.payflow_api.DTOs.FilterPaymentRequestDTO;
+import com.kevinsarges.payflow_api.DTOs.PageDTO;
+import com.kevinsarges.payflow_api.DTOs.PaymentRequestDTO;
+import com.kevinsarges.payflow_api.DTOs.PaymentSummaryDTO;
+import com.kevinsarges.payflow_api.DTOs.StatusUpdateDTO;
+import com.kevinsarges.payflow_api.entities.Payment;
+import com.kevinsarges.payflow_api.entities.PaymentStatus;
+import com.kevinsarges.payflow_api.sevices.ReactivePaymentService;
+import com.kevinsarges.payflow_api.utils.BusinessException;
+import com.kevinsarges.payflow_api.utils.PaymentETags;
+import io.swagger.v3.oas.annotations.Operation;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+
+// Mesmas rotas e respostas do PaymentController para create, busca, listagem, filtro, status e exclusão, servidas
+// pelo WebFlux quando a aplicação sobe com o profile reactive. Listagem e filtro com Accept: application/x-ndjson
+// devolvem as linhas em streaming, sem paginação
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+@RequestMapping("/payments")
+public class ReactivePaymentController {
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String CONSISTENCY_TOKEN = "X-Consistency-Token";
+
+    private final ReactivePaymentService service;
+
+    @PostMapping
+    @Operation(summary = "Criando um pagamento")
+    public Mono<ResponseEntity<Payment>> create(@Valid @RequestBody PaymentRequestDTO dto) {
+        return service.create(dto).flatMap(this::written);
+    }
+
+    @GetMapping(value = "/export", produces = NDJSON)
+    @Operation(summary = "Exportando todos os pagamentos em NDJSON (streaming)")
+    public Flux<Payment> exportNdjson() {
+        return service.exportAll();
+    }
+
+    @GetMapping
+    @Operation(summary = "Lista todos os pagamentos")
+    public Mono<ResponseEntity<PageDTO<PaymentSummaryDTO>>> list(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestHeader(value = CONSISTENCY_TOKEN, required = false) String consistencyToken
+    ) {
+        return Mono.defer(() -> service.listAll(page, size, readAfter(consistencyToken)))
+                .map(result -> conditional(PaymentETags.of(result), result));
+    }
+
+    @GetMapping(produces = NDJSON)
+    @Operation(summary = "Lista todos os pagamentos em NDJSON (streaming, sem paginação)")
+    public Flux<PaymentSummaryDTO> listNdjson() {
+        return service.streamSummaries(null, null, null, null, null);
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Buscando um pagamento pelo id")
+    public Mono<ResponseEntity<Payment>> findById(@PathVariable Long id) {
+        return service.findById(id).map(payment -> conditional(PaymentETags.of(payment), payment));
+    }
+
+    @PostMapping("/filter")
+    @Operation(summary = "Listando os pagamentos através de filtros")
+    public Mono<PageDTO<PaymentSummaryDTO>> filterListPayments(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestHeader(value = CONSISTENCY_TOKEN, required = false) String consistencyToken,
+            @Valid @RequestBody FilterPaymentRequestDTO dto
+    ) {
+        return Mono.defer(() -> service.filterListPayments(dto.getCodigoDebito(), dto.getCpfCnpj(), dto.getStatus(),
+                dto.getCriadoDe(), dto.getCriadoAte(), page, size, readAfter(consistencyToken)));
+    }
+
+    @PostMapping(value = "/filter", produces = NDJSON)
+    @Operation(summary = "Listando os pagamentos através de filtros em NDJSON (streaming, sem paginação)")
+    public Flux<PaymentSummaryDTO> filterNdjson(@Valid @RequestBody FilterPaymentRequestDTO dto) {
+        return service.streamSummaries(dto.getCodigoDebito(), dto.getCpfCnpj(), dto.getStatus(),
+                dto.getCriadoDe(), dto.getCriadoAte());
+    }
+
+    @PutMapping("/{id}/status")
+    @Operation(summary = "Atualizando status de um pagamento (PENDENTE_PROCESSAMENTO, PROCESSADO_COM_SUCESSO, PROCESSADO_COM_FALHA, INATIVO)")
+    public Mono<ResponseEntity<Payment>> updateStatus(@PathVariable Long id, @Valid StatusUpdateDTO status) {
+        PaymentStatus novoStatus = PaymentStatus.valueOf(
+                status.getNovoStatus().toUpperCase().replace(" ", "_"));
+        return service.updateStatus(id, novoStatus).flatMap(this::written);
+    }
+
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Deletando um pagamento")
+    public Mono<ResponseEntity<DeletePaymentResponseDTO>> delete(@PathVariable Long id) {
+        return service.deletePay(id).flatMap(this::written);
+    }
+
+    // O token só é gerado depois do commit, quando o Mono do service emite
+    private <T> Mono<ResponseEntity<T>> written(T body) {
+        return service.consistencyToken().map(token -> ResponseEntity.ok()
+                .header(CONSISTENCY_TOKEN, String.valueOf(token))
+                .body(body));
+    }
+
+    private static Long readAfter(String consistencyToken) {
+        if (consistencyToken == null || consistencyToken.isBlank()) return null;
+
+        try {
+            return Long.parseLong(consistencyToken);
+        } catch (NumberFormatException e) {
+            throw new BusinessException("validacao", CONSISTENCY_TOKEN + " inválido");
+        }
+    }
+
+    // Com If-None-Match igual ao ETag o WebFlux responde 304 sem serializar o corpo
+    private static <T> ResponseEntity<T> conditional(String eTag, T body) {
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(CacheControl.noCache())
+                .body(body);
+    }
+}
@@ -0,0 +1,316 @@
+package com.kevinsarges.payflow_api.repositories;
+
+import com.kevinsarges.payflow_api.DTOs.PaymentSummaryDTO;
+import com.kevinsarges.payflow_api.entities.Payment;
+import com.kevinsarges.payflow_api.entities.PaymentEvent;
+import com.kevinsarges.payflow_api.entities.PaymentMethod;
+import com.kevinsarges.payflow_api.entities.PaymentStatus;
+import io.r2dbc.spi.Readable;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Acesso não bloqueante a payment e payment_event para o stack reativo, em SQL sobre o DatabaseClient. O Spring Data
+// R2DBC não foi usado porque não convive com os repositórios JPA das mesmas entidades. O r2dbc-h2 envia String como
+// CLOB, que o H2 não converte para as colunas ENUM: por isso os parâmetros de texto vão com cast para varchar
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactivePaymentRepository {
+    // Mesmo allocationSize das sequences mapeadas no JPA
+    private static final int ALLOCATION_SIZE = 50;
+    private static final String COLUMNS = """
+            id, codigo_debito, cpf_cnpj, metodo, numero_cartao, valor, status, version, tentativas,
+            proxima_tentativa, criado_em, atualizado_em""";
+    private static final String SUMMARY_COLUMNS = "id, codigo_debito, cpf_cnpj, metodo, valor, status, criado_em, version";
+
+    private final DatabaseClient client;
+    private final IdBlock paymentIds = new IdBlock("payment_seq");
+    private final IdBlock eventIds = new IdBlock("payment_event_seq");
+
+    public ReactivePaymentRepository(DatabaseClient client) {
+        this.client = client;
+    }
+
+    public Mono<Payment> insert(Payment payment) {
+        return paymentIds.next().flatMap(id -> {
+            Instant agora = Instant.now();
+            payment.setId(id);
+            payment.setVersion(0L);
+            payment.setCriadoEm(agora);
+            payment.setAtualizadoEm(agora);
+
+            return Params.of(client.sql("""
+                        insert into payment (id, codigo_debito, cpf_cnpj, cpf_cnpj_normalizado, metodo, numero_cartao,
+                            valor, status, version, criado_em, atualizado_em)
+                        values (:id, :codigoDebito, cast(:cpfCnpj as varchar), cast(:cpfCnpjNormalizado as varchar),
+                            cast(:metodo as varchar), cast(:numeroCartao as varchar), :valor, cast(:status as varchar),
+                            :version, :criadoEm, :atualizadoEm)
+                    """))
+                    .bind("id", id)
+                    .bind("codigoDebito", decimal(payment.getCodigoDebito()), BigDecimal.class)
+                    .bind("cpfCnpj", payment.getCpfCnpj(), String.class)
+                    .bind("cpfCnpjNormalizado", payment.getCpfCnpjNormalizado(), String.class)
+                    .bind("metodo", payment.getMetodo().name())
+                    .bind("numeroCartao", payment.getNumeroCartao(), String.class)
+                    .bind("valor", payment.getValor(), BigDecimal.class)
+                    .bind("status", payment.getStatus().name())
+                    .bind("version", 0L)
+                    .bind("criadoEm", timestamp(agora))
+                    .bind("atualizadoEm", timestamp(agora))
+                    .spec()
+                    .fetch().rowsUpdated()
+                    .thenReturn(payment);
+        });
+    }
+
+    public Mono<Payment> findById(long id) {
+        return client.sql("select " + COLUMNS + " from payment where id = :id")
+                .bind("id", id)
+                .map(ReactivePaymentRepository::payment)
+                .one();
+    }
+
+    public Flux<Payment> streamAll() {
+        return client.sql("select " + COLUMNS + " from payment order by id")
+                .map(ReactivePaymentRepository::payment)
+                .all();
+    }
+
+    // Mesmo UPDATE condicional do PaymentRepository.transitionStatus
+    public Mono<Long> transitionStatus(long id, PaymentStatus statusAtual, PaymentStatus novoStatus, Instant agora) {
+        return client.sql("""
+                    update payment set status = cast(:novoStatus as varchar), version = version + 1, atualizado_em = :agora,
+                        lote_processamento = null, reservado_ate = null, proxima_tentativa = null,
+                        tentativas = case when cast(:novoStatus as varchar) = 'PROCESSADO_COM_FALHA'
+                            then coalesce(tentativas, 0) + 1 else tentativas end
+                    where id = :id and status = cast(:statusAtual as varchar)
+                """)
+                .bind("novoStatus", novoStatus.name())
+                .bind("agora", timestamp(agora))
+                .bind("id", id)
+                .bind("statusAtual", statusAtual.name())
+                .fetch().rowsUpdated();
+    }
+
+    // O read model tem as mesmas colunas da listagem, então a mesma consulta serve para as duas tabelas
+    public Flux<PaymentSummaryDTO> findSummaries(boolean readModel, Filters filters, long offset, int limit) {
+        Params params = filters.where(client, "select " + SUMMARY_COLUMNS + " from " + table(readModel),
+                " order by id limit :limit offset :offset");
+        return params.bind("limit", limit).bind("offset", offset).spec()
+                .map(ReactivePaymentRepository::summary)
+                .all();
+    }
+
+    public Flux<PaymentSummaryDTO> streamSummaries(boolean readModel, Filters filters) {
+        return filters.where(client, "select " + SUMMARY_COLUMNS + " from " + table(readModel), " order by id").spec()
+                .map(ReactivePaymentRepository::summary)
+                .all();
+    }
+
+    public Mono<Long> count(boolean readModel, Filters filters) {
+        return filters.where(client, "select count(*) from " + table(readModel), "").spec()
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+
+    // Mesmas consultas do PaymentEventRepository.findMaxId e existsByProjetadoEmIsNullAndIdLessThanEqual
+    public Mono<Long> maxEventId() {
+        return client.sql("select coalesce(max(id), 0) from payment_event")
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+
+    public Mono<Boolean> hasUnprojectedEventUpTo(long id) {
+        return client.sql("select 1 from payment_event where projetado_em is null and id <= :id limit 1")
+                .bind("id", id)
+                .map(row -> true)
+                .first()
+                .defaultIfEmpty(false);
+    }
+
+    public Mono<Void> insertEvent(PaymentEvent event) {
+        return eventIds.next().flatMap(id -> {
+            event.setId(id);
+            return Params.of(client.sql("""
+                        insert into payment_event (id, payment_id, tipo, status_anterior, status, versao, codigo_debito,
+                            cpf_cnpj, metodo, valor, ocorrido_em)
+                        values (:id, :paymentId, cast(:tipo as varchar), cast(:statusAnterior as varchar),
+                            cast(:status as varchar), :versao, :codigoDebito, cast(:cpfCnpj as varchar),
+                            cast(:metodo as varchar), :valor, :ocorridoEm)
+                    """))
+                    .bind("id", id)
+                    .bind("paymentId", event.getPaymentId())
+                    .bind("tipo", event.getTipo().name())
+                    .bind("statusAnterior", name(event.getStatusAnterior()), String.class)
+                    .bind("status", event.getStatus().name())
+                    .bind("versao", event.getVersao(), Long.class)
+                    .bind("codigoDebito", decimal(event.getCodigoDebito()), BigDecimal.class)
+                    .bind("cpfCnpj", event.getCpfCnpj(), String.class)
+                    .bind("metodo", name(event.getMetodo()), String.class)
+                    .bind("valor", event.getValor(), BigDecimal.class)
+                    .bind("ocorridoEm", timestamp(event.getOcorridoEm()))
+                    .spec()
+                    .fetch().rowsUpdated()
+                    .then();
+        });
+    }
+
+    private static String table(boolean readModel) {
+        return readModel ? "payment_read_model" : "payment";
+    }
+
+    private static Payment payment(Readable row) {
+        Payment payment = new Payment();
+        payment.setId(row.get("id", Long.class));
+        payment.setCodigoDebito(integer(row.get("codigo_debito", BigDecimal.class)));
+        payment.setCpfCnpj(row.get("cpf_cnpj", String.class));
+        payment.setMetodo(PaymentMethod.valueOf(row.get("metodo", String.class)));
+        payment.setNumeroCartao(row.get("numero_cartao", String.class));
+        payment.setValor(row.get("valor", BigDecimal.class));
+        payment.setStatus(PaymentStatus.valueOf(row.get("status", String.class)));
+        payment.setVersion(row.get("version", Long.class));
+        payment.setTentativas(row.get("tentativas", Integer.class));
+        payment.setProximaTentativa(instant(row.get("proxima_tentativa", OffsetDateTime.class)));
+        payment.setCriadoEm(instant(row.get("criado_em", OffsetDateTime.class)));
+        payment.setAtualizadoEm(instant(row.get("atualizado_em", OffsetDateTime.class)));
+        return payment;
+    }
+
+    private static PaymentSummaryDTO summary(Readable row) {
+        return new PaymentSummaryDTO(
+                row.get("id", Long.class),
+                integer(row.get("codigo_debito", BigDecimal.class)),
+                row.get("cpf_cnpj", String.class),
+                PaymentMethod.valueOf(row.get("metodo", String.class)),
+                row.get("valor", BigDecimal.class),
+                PaymentStatus.valueOf(row.get("status", String.class)),
+                instant(row.get("criado_em", OffsetDateTime.class)),
+                row.get("version", Long.class)
+        );
+    }
+
+    private static BigDecimal decimal(BigInteger valor) {
+        return valor == null ? null : new BigDecimal(valor);
+    }
+
+    private static BigInteger integer(BigDecimal valor) {
+        return valor == null ? null : valor.toBigIntegerExact();
+    }
+
+    private static OffsetDateTime timestamp(Instant instante) {
+        return instante == null ? null : instante.atOffset(ZoneOffset.UTC);
+    }
+
+    private static Instant instant(OffsetDateTime timestamp) {
+        return timestamp == null ? null : timestamp.toInstant();
+    }
+
+    private static String name(Enum<?> valor) {
+        return valor == null ? null : valor.name();
+    }
+
+    // Mesmos filtros do PaymentSpecifications.filters
+    public record Filters(BigInteger codigoDebito, String cpfCnpj, PaymentStatus status, Instant criadoDe, Instant criadoAte) {
+        public static final Filters NONE = new Filters(null, null, null, null, null);
+
+        Params where(DatabaseClient client, String select, String suffix) {
+            List<String> condicoes = new ArrayList<>(5);
+            Map<String, Object> valores = new LinkedHashMap<>();
+
+            if (codigoDebito != null) {
+                condicoes.add("codigo_debito = :codigoDebito");
+                valores.put("codigoDebito", new BigDecimal(codigoDebito));
+            }
+            if (cpfCnpj != null) {
+                condicoes.add("cpf_cnpj = cast(:cpfCnpj as varchar)");
+                valores.put("cpfCnpj", cpfCnpj);
+            }
+            if (status != null) {
+                condicoes.add("status = cast(:status as varchar)");
+                valores.put("status", status.name());
+            }
+            if (criadoDe != null) {
+                condicoes.add("criado_em >= :criadoDe");
+                valores.put("criadoDe", timestamp(criadoDe));
+            }
+            if (criadoAte != null) {
+                condicoes.add("criado_em < :criadoAte");
+                valores.put("criadoAte", timestamp(criadoAte));
+            }
+
+            String sql = condicoes.isEmpty() ? select : select + " where " + String.join(" and ", condicoes);
+            Params params = Params.of(client.sql(sql + suffix));
+            valores.forEach(params::bind);
+            return params;
+        }
+    }
+
+    // O DatabaseClient exige bindNull com o tipo quando o valor é nulo
+    private static final class Params {
+        private DatabaseClient.GenericExecuteSpec spec;
+
+        private Params(DatabaseClient.GenericExecuteSpec spec) {
+            this.spec = spec;
+        }
+
+        static Params of(DatabaseClient.GenericExecuteSpec spec) {
+            return new Params(spec);
+        }
+
+        Params bind(String nome, Object valor) {
+            spec = spec.bind(nome, valor);
+            return this;
+        }
+
+        <T> Params bind(String nome, T valor, Class<T> tipo) {
+            spec = valor == null ? spec.bindNull(nome, tipo) : spec.bind(nome, valor);
+            return this;
+        }
+
+        DatabaseClient.GenericExecuteSpec spec() {
+            return spec;
+        }
+    }
+
+    // Mesmo esquema do otimizador pooled do Hibernate: cada valor v da sequence reserva os ids (v - 49, v], então os
+    // ids gerados aqui nunca colidem com os do JPA. Dois blocos buscados ao mesmo tempo só desperdiçam ids
+    private final class IdBlock {
+        private final String sequence;
+        private long proximo;
+        private long ultimo = -1;
+
+        IdBlock(String sequence) {
+            this.sequence = sequence;
+        }
+
+        Mono<Long> next() {
+            return Mono.defer(() -> {
+                synchronized (this) {
+                    if (proximo <= ultimo) return Mono.just(proximo++);
+                }
+                return client.sql("select next value for " + sequence)
+                        .map(row -> row.get(0, Long.class))
+                        .one()
+                        .map(valor -> {
+                            synchronized (this) {
+                                ultimo = valor;
+                                proximo = Math.max(1, valor - ALLOCATION_SIZE + 1);
+                                return proximo++;
+                            }
+                        });
+            });
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.kevinsarges.payflow_api.sevices;
+
+import com.kevinsarges.payflow_api.DTOs.DeletePaymentResponseDTO;
+import com.kevinsarges.payflow_api.DTOs.PageDTO;
+import com.kevinsarges.payflow_api.DTOs.PaymentRequestDTO;
+import com.kevinsarges.payflow_api.DTOs.PaymentSummaryDTO;
+import com.kevinsarges.payflow_api.entities.Payment;
+import com.kevinsarges.payflow_api.entities.PaymentStatus;
+import com.kevinsarges.payflow_api.repositories.ReactivePaymentRepository;
+import com.kevinsarges.payflow_api.repositories.ReactivePaymentRepository.Filters;
+import com.kevinsarges.payflow_api.utils.BusinessException;
+import com.kevinsarges.payflow_api.utils.ConcurrentStatusUpdateException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+// Versão não bloqueante de create, findById, listagem, filtro, updateStatus e deletePay para o stack reativo. As
+// validações e as regras de transição são as do PaymentService; o pagamento e o evento do outbox são gravados na mesma
+// transação R2DBC e, depois do commit, cache, estatísticas e índice de pendentes são atualizados como na versão JPA
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactivePaymentService {
+    // Mesmo limite do spring.data.web.pageable.max-page-size padrão
+    private static final int MAX_PAGE_SIZE = 2000;
+
+    private final PaymentService rules;
+    private final ReactivePaymentRepository repository;
+    private final TransactionalOperator transactionalOperator;
+    private final PaymentCache cache;
+    private final PaymentMetrics metrics;
+    private final PaymentStatsService stats;
+    private final PaymentProjection projection;
+    private final PendingPaymentIndex pendingIndex;
+
+    public Mono<Payment> create(PaymentRequestDTO dto) {
+        PaymentMetrics.Sample sample = PaymentMetrics.start("create");
+
+        Mono<Payment> criacao = Mono.fromCallable(() -> {
+                    rules.validateRequest(dto);
+                    Payment pay = rules.buildPayment(dto);
+                    sample.metodo(pay.getMetodo());
+                    return pay;
+                })
+                .flatMap(pay -> repository.insert(pay)
+                        .flatMap(saved -> repository.insertEvent(PaymentOutbox.createdEvent(saved, Instant.now()))
+                                .thenReturn(saved))
+                        .as(transactionalOperator::transactional))
+                .doOnNext(saved -> {
+                    stats.created(saved);
+                    pendingIndex.created(saved);
+                    cache.onWrite(saved, null);
+                });
+        return timed(sample, criacao);
+    }
+
+    public Mono<Payment> findById(long id) {
+        return Mono.justOrEmpty(cache.getIfPresent(id))
+                .switchIfEmpty(repository.findById(id))
+                .switchIfEmpty(Mono.error(() -> new BusinessException("nao_encontrado", "Pagamento não encontrado")));
+    }
+
+    // Como o PaymentProjection.consistencyToken, sem bloquear o event loop
+    public Mono<Long> consistencyToken() {
+        return repository.maxEventId();
+    }
+
+    // lidoApos: token de consistência da última escrita do cliente, como no PaymentService.listAll
+    public Mono<PageDTO<PaymentSummaryDTO>> listAll(int page, int size, Long lidoApos) {
+        return page(Filters.NONE, page, size, lidoApos);
+    }
+
+    public Mono<PageDTO<PaymentSummaryDTO>> filterListPayments(
+            BigInteger codigoDebito,
+            String cpfCnpj,
+            String status,
+            Instant criadoDe,
+            Instant criadoAte,
+            int page,
+            int size,
+            Long lidoApos
+    ) {
+        PaymentMetrics.Sample sample = PaymentMetrics.start("filterListPayments");
+
+        Mono<PageDTO<PaymentSummaryDTO>> consulta = Mono.defer(() ->
+                page(filters(codigoDebito, cpfCnpj, status, criadoDe, criadoAte), page, size, lidoApos));
+        return timed(sample, consulta);
+    }
+
+    // Sem paginação: as linhas saem conforme o cliente consome, sem montar a lista inteira em memória
+    public Flux<PaymentSummaryDTO> streamSummaries(
+            BigInteger codigoDebito,
+            String cpfCnpj,
+            String status,
+            Instant criadoDe,
+            Instant criadoAte
+    ) {
+        return Flux.defer(() -> repository.streamSummaries(projection.canServe(null),
+                filters(codigoDebito, cpfCnpj, status, criadoDe, criadoAte)));
+    }
+
+    public Flux<Payment> exportAll() {
+        return repository.streamAll();
+    }
+
+    public Mono<Payment> updateStatus(long id, PaymentStatus novoStatus) {
+        PaymentMetrics.Sample sample = PaymentMetrics.start("updateStatus").transition(null, novoStatus);
+
+        Mono<Payment> atualizacao = Mono.defer(() -> {
+            cache.getIfPresent(id)
+                    .filter(cached -> cached.getStatus().isTerminal())
+                    .ifPresent(cached -> {
+                        sample.metodo(cached.getMetodo()).transition(cached.getStatus(), novoStatus);
+                        rules.checkTransition(cached.getStatus(), novoStatus);
+                    });
+
+            return transition(id, novoStatus, sample, statusAtual -> rules.checkTransition(statusAtual, novoStatus));
+        });
+        return timed(sample, atualizacao);
+    }
+
+    public Mono<DeletePaymentResponseDTO> deletePay(long id) {
+        PaymentMetrics.Sample sample = PaymentMetrics.start("deletePay")
+                .transition(PaymentStatus.PENDENTE_PROCESSAMENTO, PaymentStatus.INATIVO);
+
+        Mono<DeletePaymentResponseDTO> exclusao = Mono.defer(() -> {
+            if (cache.getIfPresent(id).filter(cached -> cached.getStatus().isTerminal()).isPresent()) {
+                throw new BusinessException("exclusao_invalida", "Só é possível excluir pagamentos com status PENDENTE_PROCESSAMENTO");
+            }
+
+            return transition(id, PaymentStatus.INATIVO, sample, statusAtual -> {
+                if (statusAtual != PaymentStatus.PENDENTE_PROCESSAMENTO) {
+                    throw new BusinessException("exclusao_invalida", "Só é possível excluir pagamentos com status PENDENTE_PROCESSAMENTO");
+                }
+            });
+        }).map(deleted -> new DeletePaymentResponseDTO(200, "Pagamento desativado !!", LocalDateTime.now()));
+        return timed(sample, exclusao);
+    }
+
+    // Mesmo UPDATE condicional do PaymentService.applyTransition: sem linha afetada, outra requisição mudou o status antes
+    private Mono<Payment> transition(long id, PaymentStatus novoStatus, PaymentMetrics.Sample sample,
+                                     Consumer<PaymentStatus> regra) {
+        return repository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new BusinessException("nao_encontrado", "Pagamento não encontrado")))
+                .flatMap(existing -> {
+                    PaymentStatus statusAtual = existing.getStatus();
+                    sample.metodo(existing.getMetodo()).transition(statusAtual, novoStatus);
+                    regra.accept(statusAtual);
+
+                    Instant agora = Instant.now();
+                    return repository.transitionStatus(id, statusAtual, novoStatus, agora).flatMap(linhas -> {
+                        if (linhas == 0) return Mono.error(new ConcurrentStatusUpdateException(id, statusAtual));
+
+                        existing.setStatus(novoStatus);
+                        existing.setAtualizadoEm(agora);
+                        if (existing.getVersion() != null) existing.setVersion(existing.getVersion() + 1);
+                        return repository.insertEvent(PaymentOutbox.statusChangedEvent(
+                                        id, existing.getVersion(), statusAtual, novoStatus))
+                                .thenReturn(new Transition(existing, statusAtual));
+                    });
+                })
+                .as(transactionalOperator::transactional)
+                .map(transicao -> {
+                    Payment updated = transicao.payment();
+                    stats.transitioned(updated.getMetodo(), updated.getCpfCnpjNormalizado(), updated.getValor(),
+                            transicao.de(), novoStatus);
+                    pendingIndex.transitioned(updated.getId(), updated.getMetodo(), transicao.de(), novoStatus);
+                    cache.onWrite(updated, transicao.de());
+                    return updated;
+                });
+    }
+
+    private Mono<PageDTO<PaymentSummaryDTO>> page(Filters filters, int page, int size, Long lidoApos) {
+        int pagina = Math.max(0, page);
+        int tamanho = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        return canServe(lidoApos).flatMap(readModel -> Mono.zip(
+                repository.findSummaries(readModel, filters, (long) pagina * tamanho, tamanho).collectList(),
+                repository.count(readModel, filters)
+        )).map(resultado -> new PageDTO<>(resultado.getT1(), pagina, tamanho, resultado.getT2(),
+                (long) (pagina + 1) * tamanho < resultado.getT2()));
+    }
+
+    // Mesma regra do PaymentProjection.canServe, com o token conferido pelo R2DBC
+    private Mono<Boolean> canServe(Long lidoApos) {
+        boolean fresco = projection.isFresh();
+        if (!fresco || lidoApos == null) return Mono.just(projection.record(fresco));
+        return repository.hasUnprojectedEventUpTo(lidoApos).map(pendente -> projection.record(!pendente));
+    }
+
+    private Filters filters(BigInteger codigoDebito, String cpfCnpj, String status, Instant criadoDe, Instant criadoAte) {
+        PaymentStatus st = rules.parseStatus(status);
+        rules.validatePeriod(criadoDe, criadoAte);
+        return new Filters(codigoDebito, cpfCnpj, st, criadoDe, criadoAte);
+    }
+
+    private <T> Mono<T> timed(PaymentMetrics.Sample sample, Mono<T> operacao) {
+        return operacao
+                .doOnError(RuntimeException.class, sample::failed)
+                .doFinally(signal -> metrics.record(sample));
+    }
+
+    private record Transition(Payment payment, PaymentStatus de) {
+    }
+}
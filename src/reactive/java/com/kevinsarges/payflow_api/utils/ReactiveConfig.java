@@ -0,0 +1,62 @@
+package com.kevinsarges.payflow_api.utils;
+
+import io.r2dbc.h2.H2ConnectionConfiguration;
+import io.r2dbc.h2.H2ConnectionFactory;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+// Conexões R2DBC do stack reativo (profile reactive), no mesmo banco H2 do spring.datasource.url. O auto-configure de
+// R2DBC do Boot fica desligado e o pool não é exposto como bean: um ConnectionFactory no contexto faz o Boot desistir
+// do DataSource do JPA, e um segundo TransactionManager deixaria o @Transactional sem saber qual usar. Por isso o
+// R2dbcTransactionManager só existe dentro do TransactionalOperator
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveConfig {
+    private static final String H2_PREFIX = "jdbc:h2:";
+
+    private final ConnectionPool pool;
+
+    public ReactiveConfig(
+            @Value("${spring.datasource.url}") String url,
+            @Value("${spring.datasource.username}") String username,
+            @Value("${spring.datasource.password}") String password,
+            @Value("${payflow.reactive.pool-size:20}") int poolSize
+    ) {
+        if (!url.startsWith(H2_PREFIX)) {
+            throw new IllegalStateException("O stack reativo só suporta H2: " + url);
+        }
+
+        H2ConnectionFactory h2 = new H2ConnectionFactory(H2ConnectionConfiguration.builder()
+                .url(url.substring(H2_PREFIX.length()))
+                .username(username)
+                .password(password)
+                .build());
+        this.pool = new ConnectionPool(ConnectionPoolConfiguration.builder(h2)
+                .initialSize(poolSize)
+                .maxSize(poolSize)
+                .build());
+    }
+
+    @Bean
+    public DatabaseClient databaseClient() {
+        return DatabaseClient.create(pool);
+    }
+
+    @Bean
+    public TransactionalOperator transactionalOperator() {
+        return TransactionalOperator.create(new R2dbcTransactionManager(pool));
+    }
+
+    @PreDestroy
+    public void close() {
+        pool.dispose();
+    }
+}
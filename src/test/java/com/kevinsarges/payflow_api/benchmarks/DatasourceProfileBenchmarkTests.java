@@ -0,0 +1,96 @@
+package com.kevinsarges.payflow_api.benchmarks;
+
+import com.kevinsarges.payflow_api.DTOs.PaymentRequestDTO;
+import com.kevinsarges.payflow_api.PayflowApiApplication;
+import com.kevinsarges.payflow_api.entities.PaymentStatus;
+import com.kevinsarges.payflow_api.sevices.PaymentService;
+import org.h2.tools.Server;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compara a configuração padrão (SQL logado, ddl-auto, sem order_updates) com o profile {@code prod}
+ * contra o mesmo H2 em modo servidor: criação em lote, transições de status uma a uma e filtros.
+ * {@code mvn test -Dtest=DatasourceProfileBenchmarkTests -Dbenchmark=true -Dbenchmark.payments=20000}
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class DatasourceProfileBenchmarkTests {
+    private static final int PAYMENTS = Integer.getInteger("benchmark.payments", 20_000);
+    private static final int TRANSITIONS = Integer.getInteger("benchmark.transitions", 2_000);
+    private static final int FILTERS = Integer.getInteger("benchmark.filters", 1_000);
+
+    @Test
+    @DisplayName("Vazão com a configuração padrão vs. profile prod")
+    void compareProfiles() throws Exception {
+        Path dir = Files.createTempDirectory("payflow-h2-server");
+        Server server = Server.createTcpServer("-tcpPort", "0", "-baseDir", dir.toString(), "-ifNotExists").start();
+
+        try {
+            String base = "jdbc:h2:tcp://localhost:" + server.getPort() + "/";
+            run("padrão", null, base + "default");
+            run("prod", "prod", base + "prod;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE");
+        } finally {
+            server.stop();
+        }
+    }
+
+    private void run(String nome, String profile, String url) {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(PayflowApiApplication.class);
+        if (profile != null) builder.profiles(profile);
+
+        // Argumentos de linha de comando têm precedência sobre os arquivos do profile
+        try (ConfigurableApplicationContext context = builder.run(
+                "--server.port=0",
+                "--spring.datasource.url=" + url,
+                "--spring.datasource.password=",
+                "--payflow.outbox.relay.enabled=false",
+                "--payflow.retry.enabled=false")) {
+            PaymentService service = context.getBean(PaymentService.class);
+
+            long t0 = System.nanoTime();
+            List<Long> ids = new ArrayList<>(PAYMENTS);
+            for (int inicio = 0; inicio < PAYMENTS; inicio += 1000) {
+                List<PaymentRequestDTO> lote = new ArrayList<>(1000);
+                for (int i = inicio; i < Math.min(PAYMENTS, inicio + 1000); i++) lote.add(request(i));
+                service.createBulk(lote).getResultados().forEach(r -> ids.add(r.getId()));
+            }
+            double criacao = (System.nanoTime() - t0) / 1e9;
+
+            long t1 = System.nanoTime();
+            for (int i = 0; i < TRANSITIONS; i++) {
+                service.updateStatus(ids.get(i), PaymentStatus.PROCESSADO_COM_SUCESSO);
+            }
+            double transicoes = (System.nanoTime() - t1) / 1e9;
+
+            long t2 = System.nanoTime();
+            for (int i = 0; i < FILTERS; i++) {
+                service.filterListPayments(null, String.format("%011d", i % 500), "PENDENTE_PROCESSAMENTO",
+                        PageRequest.of(0, 20));
+            }
+            double filtros = (System.nanoTime() - t2) / 1e9;
+
+            System.out.printf("[benchmark] %-7s create=%.0f/s updateStatus=%.0f/s filtro=%.0f/s%n",
+                    nome, PAYMENTS / criacao, TRANSITIONS / transicoes, FILTERS / filtros);
+        }
+    }
+
+    private static PaymentRequestDTO request(int i) {
+        PaymentRequestDTO dto = new PaymentRequestDTO();
+        dto.setCodigoDebito(BigInteger.valueOf(i));
+        dto.setCpfCnpj(String.format("%011d", i % 500));
+        dto.setMetodo("PIX");
+        dto.setValor(BigDecimal.TEN);
+        return dto;
+    }
+}
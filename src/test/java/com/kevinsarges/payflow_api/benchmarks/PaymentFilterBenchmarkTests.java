@@ -0,0 +1,146 @@
+package com.kevinsarges.payflow_api.benchmarks;
+
+import com.kevinsarges.payflow_api.entities.PaymentStatus;
+import com.kevinsarges.payflow_api.sevices.PaymentService;
+import com.kevinsarges.payflow_api.utils.CpfCnpj;
+import com.kevinsarges.payflow_api.utils.CursorCodec;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Latência do filtro de pagamentos com a tabela populada (10M linhas por padrão).
+ * Só roda quando pedido explicitamente:
+ * {@code mvn test -Dtest=PaymentFilterBenchmarkTests -Dbenchmark=true -Dbenchmark.rows=10000000 -DargLine=-Xmx8g}
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=OFF",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=OFF"
+})
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class PaymentFilterBenchmarkTests {
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 10_000_000);
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 200);
+    private static final int PAYERS = Math.max(1, ROWS / 20);
+    private static final int DEBITS = Math.max(1, ROWS / 10);
+    private static final int SEED_BATCH = 10_000;
+    private static final int HEAVY_PAYER_EVERY = Math.max(1, ROWS / 5_000);
+    private static final String HEAVY_PAYER = "99.999.999/0001-99";
+
+    private static final String CATCH_ALL = """
+            SELECT id FROM payment
+            WHERE (? IS NULL OR codigo_debito = ?)
+            AND (? IS NULL OR cpf_cnpj = ?)
+            AND (? IS NULL OR status = ?)
+            LIMIT 20
+            """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PaymentService service;
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.update("DELETE FROM payment");
+        String[] metodos = {"BOLETO", "PIX", "CREDITO", "DEBITO"};
+        String[] status = Arrays.stream(PaymentStatus.values()).map(Enum::name).toArray(String[]::new);
+        long inicio = System.nanoTime();
+        Instant agora = Instant.now();
+
+        for (int offset = 0; offset < ROWS; offset += SEED_BATCH) {
+            List<Object[]> lote = new ArrayList<>(SEED_BATCH);
+            for (int i = offset; i < Math.min(ROWS, offset + SEED_BATCH); i++) {
+                String cpfCnpj = i % HEAVY_PAYER_EVERY == 0 ? HEAVY_PAYER : cpf(i % PAYERS);
+                lote.add(new Object[]{i + 1L, BigInteger.valueOf(i % DEBITS), cpfCnpj, CpfCnpj.normalize(cpfCnpj),
+                        metodos[i % metodos.length], "4111111111111111", 100, status[(i / 7) % status.length],
+                        Timestamp.from(agora.minusSeconds(ROWS - i))});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO payment (id, codigo_debito, cpf_cnpj, cpf_cnpj_normalizado, metodo, " +
+                    "numero_cartao, valor, status, criado_em) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", lote);
+        }
+
+        System.out.printf("[benchmark] %d pagamentos inseridos em %d ms%n", ROWS, (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    @Test
+    @DisplayName("Latência do filtro composto dinamicamente vs. filtro catch-all")
+    void filterLatency() {
+        PageRequest page = PageRequest.of(0, 20);
+
+        measure("specification cpfCnpj", () -> service.filterListPayments(null, cpf(randomPayer()), null, page));
+        measure("catch-all      cpfCnpj", () -> catchAll(null, cpf(randomPayer()), null));
+
+        measure("specification codigoDebito+status", () -> service.filterListPayments(
+                BigInteger.valueOf(randomDebit()), null, "PENDENTE_PROCESSAMENTO", page));
+        measure("catch-all      codigoDebito+status", () -> catchAll(
+                BigInteger.valueOf(randomDebit()), null, "PENDENTE_PROCESSAMENTO"));
+
+        measure("specification cpfCnpj+status", () -> service.filterListPayments(
+                null, cpf(randomPayer()), "PROCESSADO_COM_FALHA", page));
+        measure("catch-all      cpfCnpj+status", () -> catchAll(null, cpf(randomPayer()), "PROCESSADO_COM_FALHA"));
+    }
+
+    @Test
+    @DisplayName("Latência da consulta por pagador (chave normalizada + projeção)")
+    void payerLatency() {
+        PageRequest page = PageRequest.of(0, 20);
+
+        measure("payer view     cpfCnpj", () -> service.listByPayer(cpf(randomPayer()), null, 20));
+        measure("specification cpfCnpj", () -> service.filterListPayments(null, cpf(randomPayer()), null, page));
+
+        measure("payer view     pagador com muitos pagamentos", () -> service.listByPayer(
+                HEAVY_PAYER, CursorCodec.encode((long) (Math.random() * ROWS)), 100));
+    }
+
+    private Object catchAll(BigInteger codigoDebito, String cpfCnpj, String status) {
+        return jdbcTemplate.queryForList(CATCH_ALL, Long.class,
+                codigoDebito, codigoDebito, cpfCnpj, cpfCnpj, status, status);
+    }
+
+    private void measure(String nome, Supplier<?> query) {
+        for (int i = 0; i < Math.min(ITERATIONS, 20); i++) query.get();
+
+        long[] amostras = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long inicio = System.nanoTime();
+            query.get();
+            amostras[i] = System.nanoTime() - inicio;
+        }
+
+        Arrays.sort(amostras);
+        System.out.printf("[benchmark] %-40s rows=%d p50=%.3f ms p99=%.3f ms%n", nome, ROWS,
+                amostras[ITERATIONS / 2] / 1e6, amostras[(int) (ITERATIONS * 0.99)] / 1e6);
+    }
+
+    private static int randomPayer() {
+        return (int) (Math.random() * PAYERS);
+    }
+
+    private static int randomDebit() {
+        return (int) (Math.random() * DEBITS);
+    }
+
+    private static String cpf(int payer) {
+        return String.format("%011d", payer);
+    }
+}
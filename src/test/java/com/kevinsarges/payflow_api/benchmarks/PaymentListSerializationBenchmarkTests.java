@@ -0,0 +1,133 @@
+package com.kevinsarges.payflow_api.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.kevinsarges.payflow_api.DTOs.PageDTO;
+import com.kevinsarges.payflow_api.entities.PaymentStatus;
+import com.kevinsarges.payflow_api.repositories.PaymentRepository;
+import com.kevinsarges.payflow_api.utils.CpfCnpj;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Listagem com entidades + {@code Page} do Spring vs. projeção DTO + envelope compacto: latência e bytes
+ * alocados por requisição (consulta + JSON), sem passar pelo cache de filtros.
+ * {@code mvn test -Dtest=PaymentListSerializationBenchmarkTests -Dbenchmark=true -Dbenchmark.rows=200000}
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=OFF",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=OFF"
+})
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class PaymentListSerializationBenchmarkTests {
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 200_000);
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 500);
+    private static final int PAGE_SIZE = Integer.getInteger("benchmark.page-size", 100);
+    private static final int PAYERS = Math.max(1, ROWS / 200);
+    private static final int SEED_BATCH = 10_000;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PaymentRepository repository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.update("DELETE FROM payment");
+        String[] metodos = {"BOLETO", "PIX", "CREDITO", "DEBITO"};
+        String[] status = Arrays.stream(PaymentStatus.values()).map(Enum::name).toArray(String[]::new);
+        Instant agora = Instant.now();
+
+        for (int offset = 0; offset < ROWS; offset += SEED_BATCH) {
+            List<Object[]> lote = new ArrayList<>(SEED_BATCH);
+            for (int i = offset; i < Math.min(ROWS, offset + SEED_BATCH); i++) {
+                String cpfCnpj = cpf(i % PAYERS);
+                lote.add(new Object[]{i + 1L, BigInteger.valueOf(i), cpfCnpj, CpfCnpj.normalize(cpfCnpj),
+                        metodos[i % metodos.length], "4111111111111111", 100, status[(i / 7) % status.length], 0L,
+                        Timestamp.from(agora.minusSeconds(ROWS - i))});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO payment (id, codigo_debito, cpf_cnpj, cpf_cnpj_normalizado, metodo, " +
+                    "numero_cartao, valor, status, version, criado_em) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", lote);
+        }
+    }
+
+    @Test
+    @DisplayName("Entidades + Page vs. projeção DTO + envelope compacto (com e sem Blackbird)")
+    void listSerialization() {
+        ObjectMapper semBlackbird = new ObjectMapper().registerModule(new JavaTimeModule());
+
+        measure("entidades + Page       listagem", () -> objectMapper.writeValueAsBytes(
+                repository.findAll(randomPage())));
+        measure("projeção + envelope    listagem", () -> objectMapper.writeValueAsBytes(
+                PageDTO.from(repository.findSummariesByFilters(null, null, null, null, null, randomPage()))));
+        measure("projeção sem Blackbird listagem", () -> semBlackbird.writeValueAsBytes(
+                PageDTO.from(repository.findSummariesByFilters(null, null, null, null, null, randomPage()))));
+
+        measure("entidades + Page       cpfCnpj", () -> objectMapper.writeValueAsBytes(
+                repository.findByFilters(null, cpf(randomPayer()), null, PageRequest.of(0, PAGE_SIZE))));
+        measure("projeção + envelope    cpfCnpj", () -> objectMapper.writeValueAsBytes(
+                PageDTO.from(repository.findSummariesByFilters(null, cpf(randomPayer()), null, null, null, PageRequest.of(0, PAGE_SIZE)))));
+    }
+
+    private void measure(String nome, Callable<byte[]> request) {
+        try {
+            for (int i = 0; i < Math.min(ITERATIONS, 50); i++) request.call();
+
+            long[] amostras = new long[ITERATIONS];
+            long bytesJson = 0;
+            long alocadoAntes = THREADS.getCurrentThreadAllocatedBytes();
+            for (int i = 0; i < ITERATIONS; i++) {
+                long inicio = System.nanoTime();
+                bytesJson += request.call().length;
+                amostras[i] = System.nanoTime() - inicio;
+            }
+            long alocado = THREADS.getCurrentThreadAllocatedBytes() - alocadoAntes;
+
+            Arrays.sort(amostras);
+            System.out.printf("[benchmark] %-32s p50=%.3f ms p99=%.3f ms alocado=%d KB/req json=%d B/req%n", nome,
+                    amostras[ITERATIONS / 2] / 1e6, amostras[(int) (ITERATIONS * 0.99)] / 1e6,
+                    alocado / ITERATIONS / 1024, bytesJson / ITERATIONS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private PageRequest randomPage() {
+        return PageRequest.of((int) (Math.random() * (ROWS / PAGE_SIZE)), PAGE_SIZE);
+    }
+
+    private static int randomPayer() {
+        return (int) (Math.random() * PAYERS);
+    }
+
+    private static String cpf(int payer) {
+        return String.format("%011d", payer);
+    }
+}
@@ -0,0 +1,167 @@
+package com.kevinsarges.payflow_api.benchmarks;
+
+import com.kevinsarges.payflow_api.DTOs.PaymentRequestDTO;
+import com.kevinsarges.payflow_api.PayflowApiApplication;
+import com.kevinsarges.payflow_api.sevices.PaymentService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compara vazão e p99 de {@code GET /payments/cursor} com o pool de threads padrão do Tomcat e com virtual threads.
+ * Cada statement JDBC recebe uma latência artificial para simular um banco remoto.
+ * {@code mvn test -Dtest=ThreadingModeLoadTests -Dbenchmark=true -Dbenchmark.concurrency=1000 -Dbenchmark.dbLatencyMs=20}
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ThreadingModeLoadTests {
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 1000);
+    private static final int REQUESTS = Integer.getInteger("benchmark.requests", 20_000);
+    private static final int DB_LATENCY_MS = Integer.getInteger("benchmark.dbLatencyMs", 20);
+    private static final int POOL_SIZE = Integer.getInteger("benchmark.poolSize", 300);
+    private static final int TOMCAT_THREADS = Integer.getInteger("benchmark.tomcatThreads", 200);
+
+    @Test
+    @DisplayName("Vazão e p99: threads de plataforma vs. virtual threads")
+    void compareThreadingModes() throws Exception {
+        run(false);
+        run(true);
+    }
+
+    private void run(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = start(virtualThreads)) {
+            seed(context.getBean(PaymentService.class));
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            URI uri = URI.create("http://localhost:" + port + "/payments/cursor?size=20");
+
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+            HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(60)).GET().build();
+
+            for (int i = 0; i < 200; i++) client.send(request, HttpResponse.BodyHandlers.discarding());
+
+            long[] latencias = new long[REQUESTS];
+            AtomicInteger erros = new AtomicInteger();
+            Semaphore emVoo = new Semaphore(CONCURRENCY);
+            List<Future<?>> futures = new ArrayList<>(REQUESTS);
+            long inicio = System.nanoTime();
+
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < REQUESTS; i++) {
+                    int indice = i;
+                    emVoo.acquire();
+                    futures.add(executor.submit(() -> {
+                        long t0 = System.nanoTime();
+                        try {
+                            if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() != 200) {
+                                erros.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            erros.incrementAndGet();
+                        } finally {
+                            latencias[indice] = System.nanoTime() - t0;
+                            emVoo.release();
+                        }
+                    }));
+                }
+                for (Future<?> future : futures) future.get();
+            }
+
+            double segundos = (System.nanoTime() - inicio) / 1e9;
+            Arrays.sort(latencias);
+            System.out.printf("[benchmark] %-16s concorrência=%d requisições=%d latênciaDb=%dms -> %.0f req/s, p50=%.1f ms, p99=%.1f ms, erros=%d%n",
+                    virtualThreads ? "virtual threads" : "platform threads", CONCURRENCY, REQUESTS, DB_LATENCY_MS,
+                    REQUESTS / segundos, latencias[REQUESTS / 2] / 1e6, latencias[(int) (REQUESTS * 0.99)] / 1e6, erros.get());
+        }
+    }
+
+    private ConfigurableApplicationContext start(boolean virtualThreads) {
+        return new SpringApplicationBuilder(PayflowApiApplication.class)
+                .profiles("test")
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:load-" + virtualThreads + ";DB_CLOSE_DELAY=-1",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                        "spring.datasource.hikari.minimum-idle=" + POOL_SIZE,
+                        "spring.datasource.hikari.connection-timeout=30000",
+                        "server.tomcat.threads.max=" + TOMCAT_THREADS,
+                        "server.tomcat.max-connections=20000",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.org.hibernate.SQL=OFF",
+                        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=OFF"
+                )
+                .initializers(context -> context.getBeanFactory().addBeanPostProcessor(new LatencyInjector()))
+                .run();
+    }
+
+    private void seed(PaymentService service) {
+        List<PaymentRequestDTO> dtos = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            PaymentRequestDTO dto = new PaymentRequestDTO();
+            dto.setCodigoDebito(BigInteger.valueOf(i));
+            dto.setCpfCnpj("12345678900");
+            dto.setMetodo("PIX");
+            dto.setValor(BigDecimal.TEN);
+            dtos.add(dto);
+        }
+        service.createBulk(dtos);
+    }
+
+    private static final class LatencyInjector implements BeanPostProcessor {
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource dataSource)) return bean;
+
+            return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{DataSource.class},
+                    (proxy, method, args) -> {
+                        Object result = invoke(method, dataSource, args);
+                        return result instanceof Connection connection ? slowConnection(connection) : result;
+                    });
+        }
+
+        private static Connection slowConnection(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(LatencyInjector.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        Object result = invoke(method, connection, args);
+                        if (result instanceof Statement && DB_LATENCY_MS > 0) Thread.sleep(DB_LATENCY_MS);
+                        return result;
+                    });
+        }
+
+        private static Object invoke(java.lang.reflect.Method method, Object target, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.kevinsarges.payflow_api.controllers;
+
+import com.kevinsarges.payflow_api.DTOs.PaymentRequestDTO;
+import com.kevinsarges.payflow_api.entities.Payment;
+import com.kevinsarges.payflow_api.entities.PaymentStatus;
+import com.kevinsarges.payflow_api.repositories.PaymentEventRepository;
+import com.kevinsarges.payflow_api.repositories.PaymentRepository;
+import com.kevinsarges.payflow_api.sevices.PaymentRetryScheduler;
+import com.kevinsarges.payflow_api.sevices.PaymentService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class PaymentControllerIntegrationTests {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private PaymentRepository repository;
+
+    @Autowired
+    private PaymentEventRepository eventRepository;
+
+    @Autowired
+    private PaymentService service;
+
+    @Autowired
+    private PaymentRetryScheduler retryScheduler;
+
+    private MockMvc mockMvc;
+    private Payment pagamento;
+
+    @BeforeEach
+    void setup() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+
+        PaymentRequestDTO dto = new PaymentRequestDTO();
+        dto.setCodigoDebito(BigInteger.ONE);
+        dto.setCpfCnpj("12345678900");
+        dto.setMetodo("PIX");
+        dto.setValor(BigDecimal.valueOf(100.0));
+        pagamento = service.create(dto);
+    }
+
+    @AfterEach
+    void cleanup() {
+        repository.deleteAll();
+        eventRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Deve responder 304 na busca por id enquanto a versão do pagamento não mudar")
+    void deveResponderNotModifiedNaBuscaPorId() throws Exception {
+        String eTag = mockMvc.perform(get("/payments/{id}", pagamento.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertNotNull(eTag);
+        mockMvc.perform(get("/payments/{id}", pagamento.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        service.updateStatus(pagamento.getId(), PaymentStatus.PROCESSADO_COM_SUCESSO);
+
+        String novoETag = mockMvc.perform(get("/payments/{id}", pagamento.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("PROCESSADO_COM_SUCESSO"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(eTag, novoETag);
+    }
+
+    @Test
+    @DisplayName("Deve trocar o ETag quando o reagendamento grava a próxima tentativa sem mudar a versão")
+    void deveTrocarETagAoReagendar() throws Exception {
+        service.updateStatus(pagamento.getId(), PaymentStatus.PROCESSADO_COM_FALHA);
+        String eTag = mockMvc.perform(get("/payments/{id}", pagamento.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.proximaTentativa").doesNotExist())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertEquals(1, retryScheduler.schedule());
+
+        String novoETag = mockMvc.perform(get("/payments/{id}", pagamento.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.proximaTentativa").exists())
+                .andExpect(jsonPath("$.version").value(1))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(eTag, novoETag);
+    }
+
+    @Test
+    @DisplayName("Deve responder 304 na listagem enquanto nenhum pagamento da página mudar")
+    void deveResponderNotModifiedNaListagem() throws Exception {
+        String eTag = mockMvc.perform(get("/payments").param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(pagamento.getId()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/payments").param("size", "10").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        service.updateStatus(pagamento.getId(), PaymentStatus.PROCESSADO_COM_FALHA);
+
+        mockMvc.perform(get("/payments").param("size", "10").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].status").value("PROCESSADO_COM_FALHA"));
+    }
+
+    @Test
+    @DisplayName("Deve gravar em fatias um lote maior que uma transação e devolver o resultado de cada linha")
+    void deveGravarLoteGrandeEmFatias() throws Exception {
+        String item = "{\"codigoDebito\": 1, \"cpfCnpj\": \"12345678900\", \"metodo\": \"PIX\", \"valor\": 10}";
+        String invalido = "{\"codigoDebito\": 1, \"cpfCnpj\": \"12345678900\", \"metodo\": \"PIX\", \"valor\": \"dez\"}";
+        List<String> itens = new ArrayList<>(Collections.nCopies(1200, item));
+        itens.set(700, invalido);
+        String lote = "[" + String.join(",", itens) + "]";
+
+        mockMvc.perform(post("/payments/bulk").contentType(MediaType.APPLICATION_JSON).content(lote))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(1200))
+                .andExpect(jsonPath("$.criados").value(1199))
+                .andExpect(jsonPath("$.resultados[700].linha").value(700))
+                .andExpect(jsonPath("$.resultados[700].sucesso").value(false))
+                .andExpect(jsonPath("$.resultados[1199].sucesso").value(true));
+
+        assertEquals(1200, repository.count(), "1199 do lote mais o pagamento do setup");
+    }
+
+    @Test
+    @DisplayName("Deve manter as linhas já gravadas quando o JSON do lote quebra no meio")
+    void deveManterLinhasGravadasQuandoJsonQuebra() throws Exception {
+        String item = "{\"codigoDebito\": 1, \"cpfCnpj\": \"12345678900\", \"metodo\": \"PIX\", \"valor\": 10}";
+        String lote = "[" + item + "," + item + ", {\"codigoDebito\": ";
+
+        mockMvc.perform(post("/payments/bulk").contentType(MediaType.APPLICATION_JSON).content(lote))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.criados").value(2))
+                .andExpect(jsonPath("$.resultados[2].erro").value("JSON inválido"));
+
+        assertEquals(3, repository.count());
+    }
+}
@@ -7,12 +7,14 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -109,4 +111,41 @@ public class PaymentRepositoryTest {
 
         assertTrue(result.isEmpty());
     }
+
+    @Test
+    @DisplayName("Deve buscar a página seguinte ao último id informado, ordenada por id")
+    void deveBuscarPaginaAposUltimoId() {
+        Payment p1 = repository.save(criarPagamento(BigInteger.valueOf(1), "11111111111",
+                PaymentStatus.PENDENTE_PROCESSAMENTO, PaymentMethod.PIX));
+        Payment p2 = repository.save(criarPagamento(BigInteger.valueOf(2), "11111111111",
+                PaymentStatus.PROCESSADO_COM_SUCESSO, PaymentMethod.CREDITO));
+        Payment p3 = repository.save(criarPagamento(BigInteger.valueOf(3), "11111111111",
+                PaymentStatus.PENDENTE_PROCESSAMENTO, PaymentMethod.BOLETO));
+
+        List<Payment> todos = repository.findAllAfter(p1.getId(), Limit.of(10));
+        List<Payment> pendentes = repository.findByFiltersAfter(null, "11111111111",
+                PaymentStatus.PENDENTE_PROCESSAMENTO, 0L, Limit.of(10));
+
+        assertEquals(List.of(p2.getId(), p3.getId()), todos.stream().map(Payment::getId).toList());
+        assertEquals(List.of(p1.getId(), p3.getId()), pendentes.stream().map(Payment::getId).toList());
+    }
+
+    @Test
+    @DisplayName("Deve buscar os pagamentos do pagador pela chave normalizada do CPF/CNPJ")
+    void deveBuscarPorPagadorNormalizado() {
+        Payment p1 = repository.save(criarPagamento(BigInteger.valueOf(1), "12.345.678/0001-90",
+                PaymentStatus.PENDENTE_PROCESSAMENTO, PaymentMethod.PIX));
+        Payment p2 = repository.save(criarPagamento(BigInteger.valueOf(2), "12345678000190",
+                PaymentStatus.PROCESSADO_COM_SUCESSO, PaymentMethod.CREDITO));
+        repository.save(criarPagamento(BigInteger.valueOf(3), "98765432000110",
+                PaymentStatus.PENDENTE_PROCESSAMENTO, PaymentMethod.PIX));
+
+        List<PayerPaymentView> pagador = repository.findByPayerAfter("12345678000190", 0L, Limit.of(10));
+        List<PayerPaymentView> proxima = repository.findByPayerAfter("12345678000190", p1.getId(), Limit.of(10));
+
+        assertEquals("12345678000190", p1.getCpfCnpjNormalizado());
+        assertEquals(List.of(p1.getId(), p2.getId()), pagador.stream().map(PayerPaymentView::getId).toList());
+        assertEquals(List.of(p2.getId()), proxima.stream().map(PayerPaymentView::getId).toList());
+        assertEquals(BigInteger.valueOf(2), proxima.get(0).getCodigoDebito());
+    }
 }
@@ -0,0 +1,64 @@
+package com.kevinsarges.payflow_api.repositories;
+
+import com.kevinsarges.payflow_api.entities.Payment;
+import com.kevinsarges.payflow_api.entities.PaymentMethod;
+import com.kevinsarges.payflow_api.entities.PaymentStatus;
+import com.kevinsarges.payflow_api.utils.CpfCnpj;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Sobe o schema pelas migrations do Flyway (H2 em modo PostgreSQL) e deixa o Hibernate validar as entidades contra ele
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:migration;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.flyway.enabled=true",
+        "spring.flyway.locations=classpath:db/migration/common,classpath:db/migration/{vendor}",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+public class SchemaMigrationTest {
+
+    @Autowired
+    private PaymentRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("As migrations devem criar um schema compatível com as entidades")
+    void migrationsDevemBaterComAsEntidades() {
+        Payment pay = new Payment();
+        pay.setCodigoDebito(BigInteger.TEN);
+        pay.setCpfCnpj("12345678900");
+        pay.setMetodo(PaymentMethod.PIX);
+        pay.setValor(BigDecimal.valueOf(100.0));
+        pay.setStatus(PaymentStatus.PENDENTE_PROCESSAMENTO);
+
+        Payment salvo = repository.save(pay);
+
+        assertEquals(1, repository.findByFiltersAfter(null, "12345678900", PaymentStatus.PENDENTE_PROCESSAMENTO, 0L,
+                Limit.of(10)).size());
+        assertEquals(0L, salvo.getVersion());
+    }
+
+    @Test
+    @DisplayName("A normalização do cpfCnpj na V3 deve gerar a mesma chave do CpfCnpj.normalize")
+    void backfillDeveNormalizarComoOJava() {
+        for (String cpfCnpj : new String[]{"123.456.789-00", "12.ABC.345/01de-77", " 11 222 333 ", "1_2\t3+4é5"}) {
+            String sql = jdbcTemplate.queryForObject(
+                    "select regexp_replace(upper(?), '[^A-Z0-9]', '', 'g')", String.class, cpfCnpj);
+            assertEquals(CpfCnpj.normalize(cpfCnpj), sql, cpfCnpj);
+        }
+    }
+}
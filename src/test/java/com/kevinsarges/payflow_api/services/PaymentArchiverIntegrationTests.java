@@ -0,0 +1,146 @@
+package com.kevinsarges.payflow_api.services;
+
+import com.kevinsarges.payflow_api.DTOs.CursorPageDTO;
+import com.kevinsarges.payflow_api.DTOs.PaymentRequestDTO;
+import com.kevinsarges.payflow_api.entities.Payment;
+import com.kevinsarges.payflow_api.entities.PaymentArchive;
+import com.kevinsarges.payflow_api.entities.PaymentStatus;
+import com.kevinsarges.payflow_api.repositories.PaymentArchiveCheckpointRepository;
+import com.kevinsarges.payflow_api.repositories.PaymentArchiveRepository;
+import com.kevinsarges.payflow_api.repositories.PaymentEventRepository;
+import com.kevinsarges.payflow_api.repositories.PaymentReadModelRepository;
+import com.kevinsarges.payflow_api.repositories.PaymentRepository;
+import com.kevinsarges.payflow_api.sevices.PaymentArchiver;
+import com.kevinsarges.payflow_api.sevices.PaymentCache;
+import com.kevinsarges.payflow_api.sevices.PaymentService;
+import com.kevinsarges.payflow_api.utils.BusinessException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class PaymentArchiverIntegrationTests {
+
+    @Autowired
+    private PaymentRepository repository;
+
+    @Autowired
+    private PaymentArchiveRepository archiveRepository;
+
+    @Autowired
+    private PaymentArchiveCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private PaymentEventRepository eventRepository;
+
+    @Autowired
+    private PaymentReadModelRepository readModelRepository;
+
+    @Autowired
+    private PaymentCache cache;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PaymentService service;
+
+    @AfterEach
+    void cleanup() {
+        repository.deleteAll();
+        archiveRepository.deleteAll();
+        checkpointRepository.deleteAll();
+        eventRepository.deleteAll();
+    }
+
+    // Sem carência, para que os pagamentos recém-finalizados já possam ser arquivados
+    private PaymentArchiver archiver(int batchSize, int maxBatchesPerRun) {
+        return new PaymentArchiver(repository, archiveRepository, checkpointRepository, readModelRepository, cache,
+                transactionTemplate,
+                true, Duration.ZERO, Duration.ZERO, batchSize, maxBatchesPerRun, Duration.ofHours(1),
+                new SimpleMeterRegistry());
+    }
+
+    private Payment criarPagamento(String cpfCnpj, PaymentStatus status) {
+        PaymentRequestDTO dto = new PaymentRequestDTO();
+        dto.setCodigoDebito(BigInteger.ONE);
+        dto.setCpfCnpj(cpfCnpj);
+        dto.setMetodo("PIX");
+        dto.setValor(BigDecimal.TEN);
+
+        Payment payment = service.create(dto);
+        if (status == PaymentStatus.INATIVO) service.deletePay(payment.getId());
+        else if (status != PaymentStatus.PENDENTE_PROCESSAMENTO) service.updateStatus(payment.getId(), status);
+        return payment;
+    }
+
+    @Test
+    @DisplayName("Deve mover apenas pagamentos inativos e processados com sucesso para o arquivo")
+    void deveArquivarPagamentosFinalizados() {
+        Payment inativo = criarPagamento("123.456.789-00", PaymentStatus.INATIVO);
+        Payment sucesso = criarPagamento("12345678900", PaymentStatus.PROCESSADO_COM_SUCESSO);
+        Payment pendente = criarPagamento("12345678900", PaymentStatus.PENDENTE_PROCESSAMENTO);
+        Payment falha = criarPagamento("12345678900", PaymentStatus.PROCESSADO_COM_FALHA);
+
+        assertEquals(2, archiver(100, 4).archive());
+
+        assertFalse(repository.existsById(inativo.getId()));
+        assertFalse(repository.existsById(sucesso.getId()));
+        assertTrue(repository.existsById(pendente.getId()));
+        assertTrue(repository.existsById(falha.getId()));
+        assertThrows(BusinessException.class, () -> service.findById(sucesso.getId()));
+
+        PaymentArchive arquivado = service.findArchivedById(sucesso.getId());
+        assertEquals(PaymentStatus.PROCESSADO_COM_SUCESSO, arquivado.getStatus());
+        assertEquals(1L, arquivado.getVersion());
+        assertNotNull(arquivado.getCriadoEm());
+        assertNotNull(arquivado.getArquivadoEm());
+
+        CursorPageDTO<PaymentArchive> historico = service.listArchivedByPayer("12345678900", null, 10);
+        assertEquals(2, historico.getSize());
+        assertEquals(inativo.getId(), historico.getContent().get(0).getId());
+        assertFalse(historico.isHasNext());
+    }
+
+    @Test
+    @DisplayName("Deve continuar o arquivamento do checkpoint gravado e esperar o intervalo após uma varredura completa")
+    void deveRetomarDoCheckpoint() {
+        Payment primeiro = criarPagamento("12345678900", PaymentStatus.INATIVO);
+        Payment segundo = criarPagamento("12345678900", PaymentStatus.INATIVO);
+        Payment terceiro = criarPagamento("12345678900", PaymentStatus.INATIVO);
+
+        assertEquals(1, archiver(1, 1).archive());
+        assertEquals(primeiro.getId(), checkpointRepository.findAll().get(0).getUltimoId());
+
+        // Outra instância, como depois de um restart, segue do checkpoint
+        assertEquals(2, archiver(1, 10).archive());
+        assertFalse(repository.existsById(segundo.getId()));
+        assertFalse(repository.existsById(terceiro.getId()));
+        assertEquals(0L, checkpointRepository.findAll().get(0).getUltimoId());
+        assertNotNull(checkpointRepository.findAll().get(0).getVarreduraConcluidaEm());
+
+        criarPagamento("12345678900", PaymentStatus.INATIVO);
+        assertEquals(0, archiver(1, 10).archive());
+        assertEquals(3, archiveRepository.count());
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção ao buscar pagamento que não está no arquivo")
+    void deveLancarExcecaoSeNaoArquivado() {
+        Payment pendente = criarPagamento("12345678900", PaymentStatus.PENDENTE_PROCESSAMENTO);
+
+        assertThrows(BusinessException.class, () -> service.findArchivedById(pendente.getId()));
+    }
+}
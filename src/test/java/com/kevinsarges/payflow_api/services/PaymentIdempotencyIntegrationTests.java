@@ -0,0 +1,122 @@
+package com.kevinsarges.payflow_api.services;
+
+import com.kevinsarges.payflow_api.DTOs.PaymentRequestDTO;
+import com.kevinsarges.payflow_api.repositories.IdempotencyRecordRepository;
+import com.kevinsarges.payflow_api.repositories.PaymentEventRepository;
+import com.kevinsarges.payflow_api.repositories.PaymentRepository;
+import com.kevinsarges.payflow_api.sevices.PaymentIdempotencyService;
+import com.kevinsarges.payflow_api.utils.IdempotencyKeyReuseException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class PaymentIdempotencyIntegrationTests {
+    private static final int THREADS = 8;
+
+    @Autowired
+    private PaymentRepository repository;
+
+    @Autowired
+    private PaymentEventRepository eventRepository;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRepository;
+
+    @Autowired
+    private PaymentIdempotencyService service;
+
+    private PaymentRequestDTO pagamentoPix;
+
+    @BeforeEach
+    void setup() {
+        pagamentoPix = new PaymentRequestDTO();
+        pagamentoPix.setCodigoDebito(BigInteger.ONE);
+        pagamentoPix.setCpfCnpj("12345678900");
+        pagamentoPix.setMetodo("PIX");
+        pagamentoPix.setValor(BigDecimal.valueOf(100.0));
+    }
+
+    @AfterEach
+    void cleanup() {
+        idempotencyRepository.deleteAll();
+        repository.deleteAll();
+        eventRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Deve devolver a resposta original ao repetir a mesma Idempotency-Key")
+    void deveDevolverRespostaOriginalNoReplay() {
+        String chave = UUID.randomUUID().toString();
+
+        PaymentIdempotencyService.Result primeira = service.create(chave, pagamentoPix);
+        PaymentIdempotencyService.Result segunda = service.create(chave, pagamentoPix);
+
+        assertFalse(primeira.replay());
+        assertTrue(segunda.replay());
+        assertEquals(primeira.payment().getId(), segunda.payment().getId());
+        assertEquals(primeira.payment().getStatus(), segunda.payment().getStatus());
+        assertEquals(1, repository.count());
+        assertTrue(idempotencyRepository.existsById(chave));
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar a mesma Idempotency-Key com outro conteúdo")
+    void deveRejeitarChaveReutilizadaComOutroConteudo() {
+        String chave = UUID.randomUUID().toString();
+        service.create(chave, pagamentoPix);
+
+        pagamentoPix.setValor(BigDecimal.valueOf(200.0));
+
+        assertThrows(IdempotencyKeyReuseException.class, () -> service.create(chave, pagamentoPix));
+        assertEquals(1, repository.count());
+    }
+
+    @Test
+    @DisplayName("Requisições simultâneas com a mesma Idempotency-Key devem criar um único pagamento")
+    void deveColapsarRequisicoesSimultaneas() throws Exception {
+        String chave = UUID.randomUUID().toString();
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<PaymentIdempotencyService.Result>> resultados = new ArrayList<>();
+
+        for (int t = 0; t < THREADS; t++) {
+            resultados.add(executor.submit(() -> {
+                largada.await();
+                return service.create(chave, pagamentoPix);
+            }));
+        }
+
+        largada.countDown();
+        executor.shutdown();
+
+        Long id = null;
+        int criados = 0;
+        for (Future<PaymentIdempotencyService.Result> resultado : resultados) {
+            PaymentIdempotencyService.Result result = resultado.get();
+            if (!result.replay()) criados++;
+            if (id == null) id = result.payment().getId();
+            assertEquals(id, result.payment().getId());
+        }
+
+        assertEquals(1, criados);
+        assertEquals(1, repository.count());
+    }
+}
@@ -0,0 +1,120 @@
+package com.kevinsarges.payflow_api.services;
+
+import com.kevinsarges.payflow_api.DTOs.PaymentEventDTO;
+import com.kevinsarges.payflow_api.DTOs.PaymentRequestDTO;
+import com.kevinsarges.payflow_api.entities.Payment;
+import com.kevinsarges.payflow_api.entities.PaymentEvent;
+import com.kevinsarges.payflow_api.entities.PaymentStatus;
+import com.kevinsarges.payflow_api.repositories.PaymentEventRepository;
+import com.kevinsarges.payflow_api.repositories.PaymentRepository;
+import com.kevinsarges.payflow_api.sevices.InMemoryPaymentEventPublisher;
+import com.kevinsarges.payflow_api.sevices.PaymentOutboxRelay;
+import com.kevinsarges.payflow_api.sevices.PaymentService;
+import com.kevinsarges.payflow_api.utils.BusinessException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class PaymentOutboxIntegrationTests {
+
+    @Autowired
+    private PaymentRepository repository;
+
+    @Autowired
+    private PaymentEventRepository eventRepository;
+
+    @Autowired
+    private PaymentService service;
+
+    @Autowired
+    private PaymentOutboxRelay relay;
+
+    @Autowired
+    private InMemoryPaymentEventPublisher publisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private PaymentRequestDTO pagamentoPix;
+
+    @BeforeEach
+    void setup() {
+        eventRepository.deleteAll();
+        publisher.clear();
+
+        pagamentoPix = new PaymentRequestDTO();
+        pagamentoPix.setCodigoDebito(BigInteger.ONE);
+        pagamentoPix.setCpfCnpj("12345678900");
+        pagamentoPix.setMetodo("PIX");
+        pagamentoPix.setValor(BigDecimal.valueOf(100.0));
+    }
+
+    @AfterEach
+    void cleanup() {
+        repository.deleteAll();
+        eventRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Deve publicar os eventos do pagamento em ordem e apenas uma vez")
+    void devePublicarEventosEmOrdem() {
+        Payment pix = service.create(pagamentoPix);
+        service.updateStatus(pix.getId(), PaymentStatus.PROCESSADO_COM_FALHA);
+        service.updateStatus(pix.getId(), PaymentStatus.PENDENTE_PROCESSAMENTO);
+        service.deletePay(pix.getId());
+
+        assertEquals(4, relay.drain());
+        assertEquals(0, relay.drain());
+
+        List<PaymentEventDTO> eventos = publisher.getEventos();
+        assertEquals(List.of("PAGAMENTO_CRIADO", "STATUS_ALTERADO", "STATUS_ALTERADO", "PAGAMENTO_INATIVADO"),
+                eventos.stream().map(PaymentEventDTO::getTipo).toList());
+        assertEquals(List.of(0L, 1L, 2L, 3L), eventos.stream().map(PaymentEventDTO::getVersao).toList());
+        assertEquals("PIX", eventos.get(0).getMetodo());
+        assertEquals("PROCESSADO_COM_FALHA", eventos.get(2).getStatusAnterior());
+        assertEquals("INATIVO", eventos.get(3).getStatus());
+    }
+
+    @Test
+    @DisplayName("Não deve gravar evento quando a transição é rejeitada")
+    void naoDeveGravarEventoDeTransicaoRejeitada() {
+        Payment pix = service.create(pagamentoPix);
+        service.updateStatus(pix.getId(), PaymentStatus.PROCESSADO_COM_SUCESSO);
+
+        assertThrows(BusinessException.class, () -> service.deletePay(pix.getId()));
+
+        assertEquals(2, eventRepository.findByPaymentIdOrderByVersaoAscIdAsc(pix.getId()).size());
+    }
+
+    @Test
+    @DisplayName("Deve apagar na limpeza só os eventos publicados que já foram projetados no read model")
+    void deveApagarSoEventosPublicadosEProjetados() {
+        Payment pix = service.create(pagamentoPix);
+        service.updateStatus(pix.getId(), PaymentStatus.PROCESSADO_COM_SUCESSO);
+        relay.drain();
+
+        Long projetado = eventRepository.findByPaymentIdOrderByVersaoAscIdAsc(pix.getId()).get(0).getId();
+        transactionTemplate.executeWithoutResult(status ->
+                eventRepository.markProjected(List.of(projetado), Instant.now()));
+
+        eventRepository.deletePublishedBefore(Instant.now().plusSeconds(1));
+
+        List<PaymentEvent> restantes = eventRepository.findByPaymentIdOrderByVersaoAscIdAsc(pix.getId());
+        assertEquals(1, restantes.size());
+        assertNull(restantes.get(0).getProjetadoEm());
+    }
+}
@@ -0,0 +1,154 @@
+package com.kevinsarges.payflow_api.services;
+
+import com.kevinsarges.payflow_api.DTOs.PaymentRequestDTO;
+import com.kevinsarges.payflow_api.entities.Payment;
+import com.kevinsarges.payflow_api.entities.PaymentMethod;
+import com.kevinsarges.payflow_api.entities.PaymentStatus;
+import com.kevinsarges.payflow_api.repositories.PaymentEventRepository;
+import com.kevinsarges.payflow_api.repositories.PaymentRepository;
+import com.kevinsarges.payflow_api.sevices.PaymentProcessingEngine;
+import com.kevinsarges.payflow_api.sevices.PaymentService;
+import com.kevinsarges.payflow_api.sevices.PendingPaymentIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class PaymentProcessingEngineIntegrationTests {
+    private static final int PAYMENTS = 300;
+    private static final int THREADS = 6;
+
+    @Autowired
+    private PaymentRepository repository;
+
+    @Autowired
+    private PaymentEventRepository eventRepository;
+
+    @Autowired
+    private PaymentService service;
+
+    @Autowired
+    private PaymentProcessingEngine engine;
+
+    @Autowired
+    private PendingPaymentIndex pendingIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanup() {
+        repository.deleteAll();
+        eventRepository.deleteAll();
+    }
+
+    private List<Long> criarPagamentos(int quantidade) {
+        List<PaymentRequestDTO> dtos = new ArrayList<>();
+        for (int i = 0; i < quantidade; i++) {
+            PaymentRequestDTO dto = new PaymentRequestDTO();
+            dto.setCodigoDebito(BigInteger.valueOf(i));
+            dto.setCpfCnpj("12345678900");
+            dto.setMetodo(i % 2 == 0 ? "PIX" : "BOLETO");
+            dto.setValor(BigDecimal.TEN);
+            dtos.add(dto);
+        }
+        return service.createBulk(dtos).getResultados().stream().map(r -> r.getId()).toList();
+    }
+
+    @Test
+    @DisplayName("Cada pagamento pendente deve ser reservado por um único consumidor")
+    void deveReservarCadaPagamentoUmaVez() throws Exception {
+        criarPagamentos(PAYMENTS);
+
+        Set<Long> reservados = ConcurrentHashMap.newKeySet();
+        AtomicInteger duplicados = new AtomicInteger();
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        for (int t = 0; t < THREADS; t++) {
+            executor.submit(() -> {
+                largada.await();
+                int vazios = 0;
+                while (vazios < 3) {
+                    List<Payment> lote = engine.claim(25);
+                    if (lote.isEmpty()) vazios++;
+                    for (Payment payment : lote) {
+                        if (!reservados.add(payment.getId())) duplicados.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+
+        largada.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+
+        assertEquals(0, duplicados.get());
+        assertEquals(PAYMENTS, reservados.size());
+        assertTrue(engine.claim(25).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve processar os pagamentos pendentes e gravar o resultado pelas regras de transição")
+    void deveProcessarPagamentosPendentes() throws Exception {
+        List<Long> ids = criarPagamentos(50);
+
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (System.nanoTime() < limite) {
+            if (engine.dispatch() == 0 && engine.inFlight() == 0
+                    && repository.findAllById(ids).stream().noneMatch(p -> p.getStatus() == PaymentStatus.PENDENTE_PROCESSAMENTO)) {
+                break;
+            }
+            Thread.sleep(20);
+        }
+
+        for (Payment payment : repository.findAllById(ids)) {
+            assertEquals(PaymentStatus.PROCESSADO_COM_SUCESSO, payment.getStatus());
+            assertEquals(1L, payment.getVersion());
+            assertNull(payment.getReservadoAte());
+        }
+    }
+
+    @Test
+    @DisplayName("Deve reservar pela varredura no banco o pendente que o índice não conhece")
+    void deveReservarPendenteForaDoIndice() throws Exception {
+        pendingIndex.rebuild();
+        // Como um pagamento criado por outro nó: vai direto para a tabela, sem passar pelo índice deste nó
+        jdbcTemplate.update("""
+                insert into payment (id, codigo_debito, cpf_cnpj, cpf_cnpj_normalizado, metodo, valor, status, version,
+                                     tentativas, criado_em)
+                values (9000000, 1, '12345678900', '12345678900', 'PIX', 10, 'PENDENTE_PROCESSAMENTO', 0, 0, current_timestamp)
+                """);
+        assertTrue(pendingIndex.isReady());
+        assertEquals(0L, pendingIndex.counts().get(PaymentMethod.PIX));
+
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < limite
+                && repository.findById(9000000L).orElseThrow().getStatus() == PaymentStatus.PENDENTE_PROCESSAMENTO) {
+            engine.dispatch();
+            Thread.sleep(50);
+        }
+
+        assertEquals(PaymentStatus.PROCESSADO_COM_SUCESSO, repository.findById(9000000L).orElseThrow().getStatus());
+    }
+}
@@ -0,0 +1,150 @@
+package com.kevinsarges.payflow_api.services;
+
+import com.kevinsarges.payflow_api.DTOs.PaymentRequestDTO;
+import com.kevinsarges.payflow_api.DTOs.PaymentSummaryDTO;
+import com.kevinsarges.payflow_api.entities.Payment;
+import com.kevinsarges.payflow_api.entities.PaymentReadModel;
+import com.kevinsarges.payflow_api.entities.PaymentStatus;
+import com.kevinsarges.payflow_api.repositories.PaymentEventRepository;
+import com.kevinsarges.payflow_api.repositories.PaymentReadModelRepository;
+import com.kevinsarges.payflow_api.repositories.PaymentRepository;
+import com.kevinsarges.payflow_api.sevices.PaymentOutbox;
+import com.kevinsarges.payflow_api.sevices.PaymentProjection;
+import com.kevinsarges.payflow_api.sevices.PaymentService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class PaymentProjectionIntegrationTests {
+
+    @Autowired
+    private PaymentRepository repository;
+
+    @Autowired
+    private PaymentEventRepository eventRepository;
+
+    @Autowired
+    private PaymentReadModelRepository readModelRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PaymentOutbox outbox;
+
+    @Autowired
+    private PaymentService service;
+
+    private PaymentProjection projection;
+
+    @BeforeEach
+    void setup() {
+        // A projeção fica desligada no profile de teste; aqui ela é acionada manualmente
+        projection = new PaymentProjection(eventRepository, repository, readModelRepository, entityManager,
+                transactionTemplate, true, 2, Duration.ofMinutes(1), new SimpleMeterRegistry());
+        projection.drain();
+    }
+
+    @AfterEach
+    void cleanup() {
+        repository.deleteAll();
+        eventRepository.deleteAll();
+        readModelRepository.deleteAll();
+    }
+
+    private Payment criarPagamento(String cpfCnpj) {
+        PaymentRequestDTO dto = new PaymentRequestDTO();
+        dto.setCodigoDebito(BigInteger.ONE);
+        dto.setCpfCnpj(cpfCnpj);
+        dto.setMetodo("PIX");
+        dto.setValor(BigDecimal.TEN);
+        return service.create(dto);
+    }
+
+    @Test
+    @DisplayName("Deve projetar criações e mudanças de status no read model")
+    void deveProjetarEscritasNoReadModel() {
+        Payment pix = criarPagamento("12345678900");
+        Payment outro = criarPagamento("98765432100");
+        service.updateStatus(pix.getId(), PaymentStatus.PROCESSADO_COM_SUCESSO);
+        service.deletePay(outro.getId());
+
+        projection.drain();
+
+        PaymentReadModel linha = readModelRepository.findById(pix.getId()).orElseThrow();
+        assertEquals(PaymentStatus.PROCESSADO_COM_SUCESSO, linha.getStatus());
+        assertEquals(1L, linha.getVersion());
+        assertEquals(repository.findById(pix.getId()).orElseThrow().getCriadoEm(), linha.getCriadoEm());
+        assertEquals(PaymentStatus.INATIVO, readModelRepository.findById(outro.getId()).orElseThrow().getStatus());
+        assertTrue(eventRepository.findNaoProjetados(Limit.of(10)).isEmpty());
+
+        Page<PaymentSummaryDTO> filtro = projection.findSummaries(null, "12345678900",
+                PaymentStatus.PROCESSADO_COM_SUCESSO, null, null, PageRequest.of(0, 10));
+        assertEquals(1, filtro.getTotalElements());
+        assertEquals(pix.getId(), filtro.getContent().get(0).getId());
+    }
+
+    @Test
+    @DisplayName("Deve remover do read model pagamentos que não existem mais na tabela de pagamentos")
+    void deveRemoverPagamentosQueSairamDaTabela() {
+        Payment pix = criarPagamento("12345678900");
+        projection.drain();
+        assertTrue(readModelRepository.existsById(pix.getId()));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            repository.deleteById(pix.getId());
+            outbox.statusChanged(pix.getId(), 1L, PaymentStatus.PENDENTE_PROCESSAMENTO, PaymentStatus.INATIVO);
+        });
+        projection.drain();
+
+        assertFalse(readModelRepository.existsById(pix.getId()));
+    }
+
+    @Test
+    @DisplayName("Deve servir leituras do read model só dentro da defasagem máxima e com os eventos do token projetados")
+    void deveRespeitarDefasagemETokenDeConsistencia() {
+        criarPagamento("12345678900");
+        projection.drain();
+        long projetado = projection.consistencyToken();
+
+        Payment escrita = criarPagamento("98765432100");
+        service.updateStatus(escrita.getId(), PaymentStatus.PROCESSADO_COM_SUCESSO);
+        long token = projection.consistencyToken();
+        assertTrue(token > projetado);
+
+        assertTrue(projection.canServe(null));
+        assertTrue(projection.canServe(projetado));
+        assertFalse(projection.canServe(token));
+
+        // Outra instância (outro nó) confere o mesmo token no banco, sem depender da própria projeção
+        PaymentProjection outroNo = new PaymentProjection(eventRepository, repository, readModelRepository,
+                entityManager, transactionTemplate, true, 500, Duration.ofMinutes(1), new SimpleMeterRegistry());
+        outroNo.drain();
+        assertTrue(projection.canServe(token));
+
+        PaymentProjection nuncaProjetou = new PaymentProjection(eventRepository, repository, readModelRepository,
+                entityManager, transactionTemplate, true, 2, Duration.ofMinutes(1), new SimpleMeterRegistry());
+        assertFalse(nuncaProjetou.canServe(null));
+    }
+}
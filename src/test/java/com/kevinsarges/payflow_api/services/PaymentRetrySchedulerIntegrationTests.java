@@ -0,0 +1,136 @@
+package com.kevinsarges.payflow_api.services;
+
+import com.kevinsarges.payflow_api.DTOs.PaymentRequestDTO;
+import com.kevinsarges.payflow_api.entities.Payment;
+import com.kevinsarges.payflow_api.entities.PaymentStatus;
+import com.kevinsarges.payflow_api.repositories.PaymentEventRepository;
+import com.kevinsarges.payflow_api.repositories.PaymentRepository;
+import com.kevinsarges.payflow_api.sevices.PaymentRetryScheduler;
+import com.kevinsarges.payflow_api.sevices.PaymentService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Banco próprio: o create-drop deste contexto não pode reiniciar as sequences do contexto compartilhado
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:payflowdb-retry;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "payflow.retry.base-delay=10s",
+        "payflow.retry.max-delay=1m",
+        "payflow.retry.max-attempts=" + PaymentRetrySchedulerIntegrationTests.MAX_TENTATIVAS
+})
+@ActiveProfiles("test")
+class PaymentRetrySchedulerIntegrationTests {
+    static final int MAX_TENTATIVAS = 3;
+
+    @Autowired
+    private PaymentRepository repository;
+
+    @Autowired
+    private PaymentEventRepository eventRepository;
+
+    @Autowired
+    private PaymentService service;
+
+    @Autowired
+    private PaymentRetryScheduler scheduler;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanup() {
+        repository.deleteAll();
+        eventRepository.deleteAll();
+    }
+
+    private Payment criarPagamentoComFalha() {
+        PaymentRequestDTO dto = new PaymentRequestDTO();
+        dto.setCodigoDebito(BigInteger.ONE);
+        dto.setCpfCnpj("12345678900");
+        dto.setMetodo("PIX");
+        dto.setValor(BigDecimal.TEN);
+
+        Payment payment = service.create(dto);
+        service.updateStatus(payment.getId(), PaymentStatus.PROCESSADO_COM_FALHA);
+        return payment;
+    }
+
+    private void vencerTentativa(Long id) {
+        Payment payment = repository.findById(id).orElseThrow();
+        payment.setProximaTentativa(Instant.now().minusSeconds(1));
+        repository.save(payment);
+    }
+
+    @Test
+    @DisplayName("Deve agendar a nova tentativa com backoff e devolver o pagamento para a fila quando vencer")
+    void deveReenfileirarPagamentoComFalha() {
+        Instant antes = Instant.now();
+        Payment payment = criarPagamentoComFalha();
+
+        assertEquals(1, scheduler.schedule());
+
+        Payment agendado = repository.findById(payment.getId()).orElseThrow();
+        assertEquals(1, agendado.getTentativas());
+        assertEquals(1L, agendado.getVersion());
+        assertFalse(agendado.getProximaTentativa().isBefore(antes.plus(Duration.ofSeconds(5))));
+        assertFalse(agendado.getProximaTentativa().isAfter(Instant.now().plus(Duration.ofSeconds(10))));
+        assertEquals(0, scheduler.requeueDue());
+
+        vencerTentativa(payment.getId());
+
+        assertEquals(1, scheduler.requeueDue());
+        Payment reenfileirado = repository.findById(payment.getId()).orElseThrow();
+        assertEquals(PaymentStatus.PENDENTE_PROCESSAMENTO, reenfileirado.getStatus());
+        assertNull(reenfileirado.getProximaTentativa());
+    }
+
+    @Test
+    @DisplayName("Deve reagendar com backoff crescente até o limite de tentativas e parar depois da última")
+    void naoDeveReagendarAposLimiteDeTentativas() {
+        Payment payment = criarPagamentoComFalha();
+
+        for (int tentativa = 1; tentativa < MAX_TENTATIVAS; tentativa++) {
+            Instant antes = Instant.now();
+            assertEquals(1, scheduler.schedule());
+
+            Payment agendado = repository.findById(payment.getId()).orElseThrow();
+            assertEquals(tentativa, agendado.getTentativas());
+            // base-delay 10s: metade fixa de 10s * 2^(tentativa - 1), mais até a outra metade
+            Duration teto = Duration.ofSeconds(10L << (tentativa - 1));
+            assertFalse(agendado.getProximaTentativa().isBefore(antes.plus(teto.dividedBy(2))));
+            assertFalse(agendado.getProximaTentativa().isAfter(Instant.now().plus(teto)));
+
+            vencerTentativa(payment.getId());
+            assertEquals(1, scheduler.requeueDue());
+            service.updateStatus(payment.getId(), PaymentStatus.PROCESSADO_COM_FALHA);
+        }
+
+        assertEquals(0, scheduler.schedule());
+        assertEquals(0, scheduler.requeueDue());
+        Payment esgotado = repository.findById(payment.getId()).orElseThrow();
+        assertEquals(MAX_TENTATIVAS, esgotado.getTentativas());
+        assertEquals(PaymentStatus.PROCESSADO_COM_FALHA, esgotado.getStatus());
+        assertNull(esgotado.getProximaTentativa());
+    }
+
+    @Test
+    @DisplayName("Deve agendar falha gravada sem contagem de tentativas")
+    void deveAgendarFalhaSemTentativas() {
+        Payment payment = criarPagamentoComFalha();
+        jdbcTemplate.update("update payment set tentativas = null where id = ?", payment.getId());
+
+        assertEquals(1, scheduler.schedule());
+        assertNotNull(repository.findById(payment.getId()).orElseThrow().getProximaTentativa());
+    }
+}
@@ -0,0 +1,59 @@
+package com.kevinsarges.payflow_api.services;
+
+import com.kevinsarges.payflow_api.DTOs.PaymentRequestDTO;
+import com.kevinsarges.payflow_api.entities.Payment;
+import com.kevinsarges.payflow_api.sevices.PaymentSequenceAlignment;
+import com.kevinsarges.payflow_api.sevices.PaymentService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Banco próprio com ddl-auto=update, como o ./data do profile padrão
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:payflowdb-sequence;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.hibernate.ddl-auto=update"
+})
+@ActiveProfiles("test")
+class PaymentSequenceAlignmentIntegrationTests {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PaymentSequenceAlignment alignment;
+
+    @Autowired
+    private PaymentService service;
+
+    @Test
+    @DisplayName("Deve reiniciar a sequence acima dos ids gravados antes dela existir")
+    void deveReiniciarSequenceAcimaDoMaiorId() {
+        // Linha do tempo do IDENTITY: id alto gravado sem passar pela sequence, que continua em 1
+        jdbcTemplate.update("""
+                insert into payment (id, codigo_debito, cpf_cnpj, cpf_cnpj_normalizado, metodo, valor, status, version,
+                                     tentativas, criado_em)
+                values (5000, 1, '12345678900', '12345678900', 'PIX', 10, 'PENDENTE_PROCESSAMENTO', 0, 0, current_timestamp)
+                """);
+        jdbcTemplate.execute("alter sequence payment_seq restart with 1");
+
+        alignment.align();
+
+        PaymentRequestDTO dto = new PaymentRequestDTO();
+        dto.setCodigoDebito(BigInteger.TWO);
+        dto.setCpfCnpj("12345678900");
+        dto.setMetodo("PIX");
+        dto.setValor(BigDecimal.TEN);
+        Payment criado = service.create(dto);
+
+        assertTrue(criado.getId() > 5000);
+        assertEquals(2, jdbcTemplate.queryForObject("select count(*) from payment", Integer.class));
+    }
+}
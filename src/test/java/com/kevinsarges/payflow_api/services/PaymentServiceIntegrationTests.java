@@ -1,12 +1,20 @@
 package com.kevinsarges.payflow_api.services;
 
+import com.kevinsarges.payflow_api.DTOs.BatchStatusUpdateResponseDTO;
+import com.kevinsarges.payflow_api.DTOs.BulkPaymentResponseDTO;
+import com.kevinsarges.payflow_api.DTOs.CursorPageDTO;
 import com.kevinsarges.payflow_api.DTOs.PaymentRequestDTO;
+import com.kevinsarges.payflow_api.DTOs.PaymentSummaryDTO;
+import com.kevinsarges.payflow_api.DTOs.StatusTransitionItemDTO;
 import com.kevinsarges.payflow_api.entities.Payment;
 import com.kevinsarges.payflow_api.entities.PaymentMethod;
 import com.kevinsarges.payflow_api.entities.PaymentStatus;
+import com.kevinsarges.payflow_api.repositories.PayerPaymentView;
 import com.kevinsarges.payflow_api.repositories.PaymentRepository;
 import com.kevinsarges.payflow_api.sevices.PaymentService;
 import com.kevinsarges.payflow_api.utils.BusinessException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -19,6 +27,8 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.time.Instant;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -36,6 +46,9 @@ class PaymentServiceIntegrationTests {
     @Autowired
     private PaymentService service;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     private PaymentRequestDTO pagamentoPix;
     private PaymentRequestDTO pagamentoBoleto;
     private PaymentRequestDTO pagamentoDebito;
@@ -218,7 +231,7 @@ class PaymentServiceIntegrationTests {
     void deveListarTodosOsPagamentos() {
         service.create(pagamentoPix);
 
-        Page<Payment> result = service.listAll(PageRequest.of(0, 10));
+        Page<PaymentSummaryDTO> result = service.listAll(PageRequest.of(0, 10));
 
         assertFalse(result.isEmpty());
         assertEquals(1, result.getTotalElements());
@@ -229,7 +242,7 @@ class PaymentServiceIntegrationTests {
     void deveFiltrarPagamentosPorCpfCnpj() {
         service.create(pagamentoPix);
 
-        Page<Payment> result = service.filterListPayments(null, "12345678900", null, PageRequest.of(0, 10));
+        Page<PaymentSummaryDTO> result = service.filterListPayments(null, "12345678900", null, PageRequest.of(0, 10));
 
         assertEquals(1, result.getTotalElements());
         assertEquals("12345678900", result.getContent().get(0).getCpfCnpj());
@@ -238,8 +251,170 @@ class PaymentServiceIntegrationTests {
     @Test
     @DisplayName("Deve retornar lista vazia se filtro não encontrar resultados")
     void deveRetornarListaVaziaSeNenhumPagamentoEncontradoNoFiltro() {
-        Page<Payment> result = service.filterListPayments(BigInteger.TEN, null, "INATIVO", PageRequest.of(0, 10));
+        Page<PaymentSummaryDTO> result = service.filterListPayments(BigInteger.TEN, null, "INATIVO", PageRequest.of(0, 10));
 
         assertTrue(result.isEmpty());
     }
+
+    @Test
+    @DisplayName("Deve registrar data de criação e atualizar a data de alteração ao mudar o status")
+    void deveRegistrarDatasDeCriacaoEAtualizacao() {
+        Payment saved = service.create(pagamentoPix);
+        repository.flush();
+
+        assertNotNull(saved.getCriadoEm());
+        assertNotNull(saved.getAtualizadoEm());
+
+        Payment result = service.updateStatus(saved.getId(), PaymentStatus.PROCESSADO_COM_SUCESSO);
+
+        assertEquals(saved.getCriadoEm(), result.getCriadoEm());
+        assertFalse(result.getAtualizadoEm().isBefore(saved.getCriadoEm()));
+    }
+
+    @Test
+    @DisplayName("Deve filtrar pagamentos pelo período de criação")
+    void deveFiltrarPagamentosPorPeriodoDeCriacao() {
+        Payment saved = service.create(pagamentoPix);
+        repository.flush();
+        Instant criadoEm = saved.getCriadoEm();
+
+        Page<PaymentSummaryDTO> dentro = service.filterListPayments(null, "12345678900", null,
+                criadoEm, criadoEm.plusSeconds(1), PageRequest.of(0, 10));
+        Page<PaymentSummaryDTO> depois = service.filterListPayments(null, "12345678900", null,
+                criadoEm.plusSeconds(1), null, PageRequest.of(0, 10));
+
+        assertEquals(1, dentro.getTotalElements());
+        assertEquals(saved.getId(), dentro.getContent().get(0).getId());
+        assertTrue(depois.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção se o período de criação for inválido")
+    void deveLancarExcecaoSePeriodoInvalido() {
+        Instant agora = Instant.now();
+
+        assertThrows(BusinessException.class,
+                () -> service.filterListPayments(null, null, null, agora, agora, PageRequest.of(0, 10)));
+    }
+
+    @Test
+    @DisplayName("Deve criar pagamentos em lote e informar o resultado de cada linha")
+    void deveCriarPagamentosEmLote() {
+        pagamentoCredito.setNumeroCartao(null);
+
+        BulkPaymentResponseDTO result = service.createBulk(List.of(pagamentoPix, pagamentoCredito, pagamentoBoleto));
+
+        assertEquals(2, result.getCriados());
+        assertEquals(1, result.getRejeitados());
+        assertNotNull(result.getResultados().get(0).getId());
+        assertNotNull(result.getResultados().get(2).getId());
+        assertEquals("Número do cartão obrigatório para pagamento com cartão", result.getResultados().get(1).getErro());
+        assertEquals(2, repository.count());
+    }
+
+    @Test
+    @DisplayName("Deve percorrer os pagamentos com paginação por cursor")
+    void devePercorrerPagamentosPorCursor() {
+        service.createBulk(List.of(pagamentoPix, pagamentoBoleto, pagamentoDebito));
+
+        CursorPageDTO<Payment> primeira = service.listAfter(null, 2);
+        CursorPageDTO<Payment> segunda = service.listAfter(primeira.getNextCursor(), 2);
+
+        assertEquals(2, primeira.getSize());
+        assertTrue(primeira.isHasNext());
+        assertEquals(1, segunda.getSize());
+        assertFalse(segunda.isHasNext());
+        assertNull(segunda.getNextCursor());
+        assertTrue(segunda.getContent().get(0).getId() > primeira.getContent().get(1).getId());
+    }
+
+    @Test
+    @DisplayName("Deve listar os pagamentos do pagador com CPF formatado ou não, paginando por cursor")
+    void deveListarPagamentosDoPagador() {
+        pagamentoBoleto.setCpfCnpj("123.456.789-00");
+        pagamentoDebito.setCpfCnpj("98765432100");
+        service.createBulk(List.of(pagamentoPix, pagamentoBoleto, pagamentoDebito));
+
+        CursorPageDTO<PayerPaymentView> primeira = service.listByPayer("123.456.789-00", null, 1);
+        CursorPageDTO<PayerPaymentView> segunda = service.listByPayer("12345678900", primeira.getNextCursor(), 10);
+
+        assertEquals(1, primeira.getSize());
+        assertTrue(primeira.isHasNext());
+        assertEquals(1, segunda.getSize());
+        assertFalse(segunda.isHasNext());
+        assertEquals(new BigDecimal("100.00"), primeira.getContent().get(0).getValor());
+        assertEquals(PaymentStatus.PENDENTE_PROCESSAMENTO, segunda.getContent().get(0).getStatus());
+        assertThrows(BusinessException.class, () -> service.listByPayer(" . - ", null, 10));
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção quando o cursor for inválido")
+    void deveLancarExcecaoQuandoCursorInvalido() {
+        BusinessException ex = assertThrows(BusinessException.class,
+                () -> service.filterListPaymentsAfter(null, null, null, "nao-e-um-cursor", 10));
+
+        assertEquals("Cursor inválido: nao-e-um-cursor", ex.getMessage());
+    }
+
+    private StatusTransitionItemDTO transicao(Long id, String novoStatus) {
+        StatusTransitionItemDTO item = new StatusTransitionItemDTO();
+        item.setId(id);
+        item.setNovoStatus(novoStatus);
+        return item;
+    }
+
+    @Test
+    @DisplayName("Deve atualizar status em lote sem abortar o lote quando uma transição for inválida")
+    void deveAtualizarStatusEmLote() {
+        Payment pix = service.create(pagamentoPix);
+        Payment boleto = service.create(pagamentoBoleto);
+        Payment debito = service.create(pagamentoDebito);
+        service.updateStatus(debito.getId(), PaymentStatus.PROCESSADO_COM_SUCESSO);
+
+        BatchStatusUpdateResponseDTO result = service.updateStatusBatch(List.of(
+                transicao(pix.getId(), "PROCESSADO_COM_SUCESSO"),
+                transicao(boleto.getId(), "processado com falha"),
+                transicao(debito.getId(), "PENDENTE_PROCESSAMENTO"),
+                transicao(999_999L, "PROCESSADO_COM_SUCESSO"),
+                transicao(pix.getId(), "PROCESSADO_COM_FALHA")
+        ));
+
+        assertEquals(5, result.getTotal());
+        assertEquals(2, result.getAtualizados());
+        assertEquals(3, result.getRejeitados());
+        assertTrue(result.getResultados().get(0).isSucesso());
+        assertTrue(result.getResultados().get(1).isSucesso());
+        assertEquals("Pagamento já processado com sucesso. Status não pode ser alterado", result.getResultados().get(2).getErro());
+        assertEquals("Pagamento não encontrado", result.getResultados().get(3).getErro());
+        assertEquals("Pagamento repetido no lote", result.getResultados().get(4).getErro());
+
+        assertEquals(PaymentStatus.PROCESSADO_COM_SUCESSO, repository.findById(pix.getId()).orElseThrow().getStatus());
+        assertEquals(PaymentStatus.PROCESSADO_COM_FALHA, repository.findById(boleto.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    @DisplayName("Deve registrar latência e motivo de rejeição das transições de status")
+    void deveRegistrarMetricasDeTransicao() {
+        Payment pix = service.create(pagamentoPix);
+        service.updateStatus(pix.getId(), PaymentStatus.PROCESSADO_COM_SUCESSO);
+        double rejeicoesAntes = meterRegistry.counter("payflow.payments.rejections",
+                "operation", "updateStatus", "reason", "transicao_invalida").count();
+
+        assertThrows(BusinessException.class,
+                () -> service.updateStatus(pix.getId(), PaymentStatus.PENDENTE_PROCESSAMENTO));
+
+        Timer sucesso = meterRegistry.get("payflow.payments.operation")
+                .tags("operation", "updateStatus", "metodo", "PIX",
+                        "transition", "PENDENTE_PROCESSAMENTO->PROCESSADO_COM_SUCESSO", "outcome", "success")
+                .timer();
+        Timer rejeitada = meterRegistry.get("payflow.payments.operation")
+                .tags("operation", "updateStatus", "metodo", "PIX",
+                        "transition", "PROCESSADO_COM_SUCESSO->PENDENTE_PROCESSAMENTO", "outcome", "rejected")
+                .timer();
+
+        assertTrue(sucesso.count() >= 1);
+        assertTrue(rejeitada.count() >= 1);
+        assertEquals(rejeicoesAntes + 1, meterRegistry.counter("payflow.payments.rejections",
+                "operation", "updateStatus", "reason", "transicao_invalida").count());
+    }
 }
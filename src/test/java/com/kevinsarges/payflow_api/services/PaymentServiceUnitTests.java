@@ -1,13 +1,25 @@
 package com.kevinsarges.payflow_api.services;
 
 
+import com.kevinsarges.payflow_api.DTOs.BulkPaymentResponseDTO;
 import com.kevinsarges.payflow_api.DTOs.PaymentRequestDTO;
+import com.kevinsarges.payflow_api.DTOs.PaymentSummaryDTO;
 import com.kevinsarges.payflow_api.entities.Payment;
 import com.kevinsarges.payflow_api.entities.PaymentMethod;
 import com.kevinsarges.payflow_api.entities.PaymentStatus;
+import com.kevinsarges.payflow_api.repositories.PaymentArchiveRepository;
 import com.kevinsarges.payflow_api.repositories.PaymentRepository;
+import com.kevinsarges.payflow_api.sevices.PaymentCache;
+import com.kevinsarges.payflow_api.sevices.PaymentMetrics;
+import com.kevinsarges.payflow_api.sevices.PaymentOutbox;
+import com.kevinsarges.payflow_api.sevices.PaymentProjection;
+import com.kevinsarges.payflow_api.sevices.PaymentStatsService;
+import com.kevinsarges.payflow_api.sevices.PendingPaymentIndex;
 import com.kevinsarges.payflow_api.sevices.PaymentService;
 import com.kevinsarges.payflow_api.utils.BusinessException;
+import com.kevinsarges.payflow_api.utils.ConcurrentStatusUpdateException;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -18,11 +30,16 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -32,6 +49,36 @@ public class PaymentServiceUnitTests {
     @Mock
     private PaymentRepository repository;
 
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private Validator validator;
+
+    @Mock
+    private PaymentCache cache;
+
+    @Mock
+    private PaymentMetrics metrics;
+
+    @Mock
+    private PaymentOutbox outbox;
+
+    @Mock
+    private PaymentStatsService stats;
+
+    @Mock
+    private PaymentArchiveRepository archiveRepository;
+
+    @Mock
+    private PaymentProjection projection;
+
+    @Mock
+    private PendingPaymentIndex pendingIndex;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
     @InjectMocks
     private PaymentService service;
 
@@ -113,6 +160,17 @@ public class PaymentServiceUnitTests {
         pagamentoCredito.setStatus(PaymentStatus.PENDENTE_PROCESSAMENTO);
     }
 
+    @SuppressWarnings("unchecked")
+    private void cacheRepassandoFiltroParaORepositorio() {
+        when(cache.getFilter(any(), any(), any(), any(), any(), any(), any()))
+                .thenAnswer(inv -> ((Supplier<Page<PaymentSummaryDTO>>) inv.getArgument(6)).get());
+    }
+
+    private PaymentSummaryDTO resumo(Payment payment) {
+        return new PaymentSummaryDTO(payment.getId(), payment.getCodigoDebito(), payment.getCpfCnpj(),
+                payment.getMetodo(), payment.getValor(), payment.getStatus(), payment.getCriadoEm(), payment.getVersion());
+    }
+
     @Test
     @DisplayName("Deve criar um pagamento com o PIX")
     void deveCriarPagamentoComPix() {
@@ -176,14 +234,16 @@ public class PaymentServiceUnitTests {
     @Test
     @DisplayName("Deve atualizar o status de PENDENTE_PROCESSAMENTO para PROCESSADO_COM_SUCESSO")
     void deveAtualizarStatusDePendenteParaProcessadoComSucesso() {
+        pagamentoBoleto.setId(1L);
         pagamentoBoleto.setStatus(PaymentStatus.PENDENTE_PROCESSAMENTO);
         when(repository.findById(1L)).thenReturn(Optional.of(pagamentoBoleto));
-        when(repository.save(any(Payment.class))).thenReturn(pagamentoBoleto);
+        when(repository.transitionStatus(eq(1L), eq(PaymentStatus.PENDENTE_PROCESSAMENTO), eq(PaymentStatus.PROCESSADO_COM_SUCESSO), any()))
+                .thenReturn(1);
 
         Payment result = service.updateStatus(1L, PaymentStatus.PROCESSADO_COM_SUCESSO);
 
         assertEquals(PaymentStatus.PROCESSADO_COM_SUCESSO, result.getStatus());
-        verify(repository).save(pagamentoBoleto);
+        verify(repository).transitionStatus(eq(1L), eq(PaymentStatus.PENDENTE_PROCESSAMENTO), eq(PaymentStatus.PROCESSADO_COM_SUCESSO), any());
     }
 
     @Test
@@ -196,20 +256,22 @@ public class PaymentServiceUnitTests {
                 () -> service.updateStatus(1L, PaymentStatus.PENDENTE_PROCESSAMENTO));
 
         assertEquals("Pagamento já processado com sucesso. Status não pode ser alterado", ex.getMessage());
-        verify(repository, never()).save(any());
+        verify(repository, never()).transitionStatus(any(), any(), any(), any());
     }
 
     @Test
     @DisplayName("Deve atualizar o status de um pagamento que esta em PROCESSADO_COM_FALHA para PENDENTE_PROCESSAMENTO")
     void devePermitirProcessadoComFalhaVoltarParaPendente() {
+        pagamentoPix.setId(1L);
         pagamentoPix.setStatus(PaymentStatus.PROCESSADO_COM_FALHA);
         when(repository.findById(1L)).thenReturn(Optional.of(pagamentoPix));
-        when(repository.save(any(Payment.class))).thenReturn(pagamentoPix);
+        when(repository.transitionStatus(eq(1L), eq(PaymentStatus.PROCESSADO_COM_FALHA), eq(PaymentStatus.PENDENTE_PROCESSAMENTO), any()))
+                .thenReturn(1);
 
         Payment result = service.updateStatus(1L, PaymentStatus.PENDENTE_PROCESSAMENTO);
 
         assertEquals(PaymentStatus.PENDENTE_PROCESSAMENTO, result.getStatus());
-        verify(repository).save(pagamentoPix);
+        verify(repository).transitionStatus(eq(1L), eq(PaymentStatus.PROCESSADO_COM_FALHA), eq(PaymentStatus.PENDENTE_PROCESSAMENTO), any());
     }
 
     @Test
@@ -226,13 +288,15 @@ public class PaymentServiceUnitTests {
     @Test
     @DisplayName("Deve desativar um pagamento que esta com o status de PENDENTE_PROCESSAMENTO")
     void deveInativarPagamentoComStatusPendente() {
+        pagamentoBoleto.setId(1L);
         pagamentoBoleto.setStatus(PaymentStatus.PENDENTE_PROCESSAMENTO);
         when(repository.findById(1L)).thenReturn(Optional.of(pagamentoBoleto));
+        when(repository.transitionStatus(eq(1L), eq(PaymentStatus.PENDENTE_PROCESSAMENTO), eq(PaymentStatus.INATIVO), any())).thenReturn(1);
 
         service.deletePay(1L);
 
         assertEquals(PaymentStatus.INATIVO, pagamentoBoleto.getStatus());
-        verify(repository).save(pagamentoBoleto);
+        verify(repository).transitionStatus(eq(1L), eq(PaymentStatus.PENDENTE_PROCESSAMENTO), eq(PaymentStatus.INATIVO), any());
     }
 
     @Test
@@ -245,7 +309,7 @@ public class PaymentServiceUnitTests {
                 () -> service.deletePay(1L));
 
         assertEquals("Só é possível excluir pagamentos com status PENDENTE_PROCESSAMENTO", ex.getMessage());
-        verify(repository, never()).save(any());
+        verify(repository, never()).transitionStatus(any(), any(), any(), any());
     }
 
     @Test
@@ -263,39 +327,127 @@ public class PaymentServiceUnitTests {
     @DisplayName("Deve lista todos os pagamentos")
     void deveListarTodosOsPagamentos() {
         PageRequest pageable = PageRequest.of(0, 10);
-        when(repository.findAll(pageable)).thenReturn(new PageImpl<>(List.of(pagamentoPix)));
+        PaymentSummaryDTO resumo = resumo(pagamentoPix);
+        when(repository.findSummariesByFilters(null, null, null, null, null, pageable)).thenReturn(new PageImpl<>(List.of(resumo)));
 
-        Page<Payment> result = service.listAll(pageable);
+        Page<PaymentSummaryDTO> result = service.listAll(pageable);
 
         assertEquals(1, result.getTotalElements());
-        assertEquals(pagamentoPix, result.getContent().get(0));
-        verify(repository, times(1)).findAll(pageable);
+        assertEquals(resumo, result.getContent().get(0));
+        verify(repository, times(1)).findSummariesByFilters(null, null, null, null, null, pageable);
     }
 
     @Test
     @DisplayName("Deve filtrar os pagamentos por um CPF ou CNPJ")
     void deveFiltrarPagamentosPorCpfCnpj() {
         PageRequest pageable = PageRequest.of(0, 10);
-        when(repository.findByFilters(null, "12345678900", null, pageable))
-                .thenReturn(new PageImpl<>(List.of(pagamentoCredito)));
+        cacheRepassandoFiltroParaORepositorio();
+        when(repository.findSummariesByFilters(null, "12345678900", null, null, null, pageable))
+                .thenReturn(new PageImpl<>(List.of(resumo(pagamentoCredito))));
 
-        Page<Payment> result = service.filterListPayments(null, "12345678900", null, pageable);
+        Page<PaymentSummaryDTO> result = service.filterListPayments(null, "12345678900", null, pageable);
 
         assertEquals(1, result.getTotalElements());
         assertEquals("12345678900", result.getContent().get(0).getCpfCnpj());
-        verify(repository, times(1)).findByFilters(null, "12345678900", null, pageable);
+        verify(repository, times(1)).findSummariesByFilters(null, "12345678900", null, null, null, pageable);
     }
 
     @Test
     @DisplayName("Deve retorna uma lista vazia se não encontrar nenhum pagamento no filtro")
     void deveRetornarListaVaziaSeNenhumPagamentoEncontradoNoFiltro() {
         PageRequest pageable = PageRequest.of(0, 10);
-        when(repository.findByFilters(BigInteger.TEN, null, PaymentStatus.INATIVO, pageable))
+        cacheRepassandoFiltroParaORepositorio();
+        when(repository.findSummariesByFilters(BigInteger.TEN, null, PaymentStatus.INATIVO, null, null, pageable))
                 .thenReturn(Page.empty());
 
-        Page<Payment> result = service.filterListPayments(BigInteger.TEN, null, "INATIVO", pageable);
+        Page<PaymentSummaryDTO> result = service.filterListPayments(BigInteger.TEN, null, "INATIVO", pageable);
 
         assertTrue(result.isEmpty());
-        verify(repository, times(1)).findByFilters(BigInteger.TEN, null, PaymentStatus.INATIVO, pageable);
+        verify(repository, times(1)).findSummariesByFilters(BigInteger.TEN, null, PaymentStatus.INATIVO, null, null, pageable);
+    }
+
+    @Test
+    @DisplayName("Deve filtrar pelo read model quando a projeção estiver em dia")
+    void deveFiltrarPeloReadModelQuandoProjecaoEmDia() {
+        PageRequest pageable = PageRequest.of(0, 10);
+        Long lidoApos = 42L;
+        when(projection.canServe(lidoApos)).thenReturn(true);
+        when(projection.findSummaries(null, "12345678900", PaymentStatus.PENDENTE_PROCESSAMENTO, null, null, pageable))
+                .thenReturn(new PageImpl<>(List.of(resumo(pagamentoPix))));
+
+        Page<PaymentSummaryDTO> result = service.filterListPayments(null, "12345678900", "PENDENTE_PROCESSAMENTO",
+                null, null, pageable, lidoApos);
+
+        assertEquals(1, result.getTotalElements());
+        verify(repository, never()).findSummariesByFilters(any(), any(), any(), any(), any(), any());
+        verify(cache, never()).getFilter(any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Deve criar os pagamentos válidos de um lote e rejeitar as linhas inválidas")
+    void deveCriarPagamentosEmLoteERejeitarLinhasInvalidas() {
+        PaymentRequestDTO dtoInvalido = new PaymentRequestDTO();
+        dtoInvalido.setCodigoDebito(BigInteger.TWO);
+        dtoInvalido.setCpfCnpj("12345678900");
+        dtoInvalido.setMetodo("CHEQUE");
+        dtoInvalido.setValor(BigDecimal.TEN);
+
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        BulkPaymentResponseDTO result = service.createBulk(List.of(dtoPix, dtoInvalido, dtoCredito));
+
+        assertEquals(3, result.getTotal());
+        assertEquals(2, result.getCriados());
+        assertEquals(1, result.getRejeitados());
+        assertFalse(result.getResultados().get(1).isSucesso());
+        assertEquals("Método de pagamento inválido: CHEQUE", result.getResultados().get(1).getErro());
+        verify(repository, times(1)).saveAll(anyList());
+        verify(entityManager, times(1)).flush();
+        verify(repository, never()).save(any());
+        verify(transactionTemplate, times(1)).executeWithoutResult(any());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar a alteração de um pagamento finalizado que está no cache sem consultar o banco")
+    void deveRejeitarAlteracaoDePagamentoFinalizadoEmCacheSemConsultarBanco() {
+        pagamentoPix.setStatus(PaymentStatus.PROCESSADO_COM_SUCESSO);
+        when(cache.getIfPresent(1L)).thenReturn(Optional.of(pagamentoPix));
+
+        BusinessException ex = assertThrows(BusinessException.class,
+                () -> service.updateStatus(1L, PaymentStatus.PENDENTE_PROCESSAMENTO));
+
+        assertEquals("Pagamento já processado com sucesso. Status não pode ser alterado", ex.getMessage());
+        verify(repository, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("Deve atualizar o cache depois de alterar o status de um pagamento")
+    void deveAtualizarCacheAposAlterarStatus() {
+        pagamentoDebito.setId(1L);
+        when(repository.findById(1L)).thenReturn(Optional.of(pagamentoDebito));
+        when(repository.transitionStatus(eq(1L), eq(PaymentStatus.PENDENTE_PROCESSAMENTO), eq(PaymentStatus.PROCESSADO_COM_FALHA), any()))
+                .thenReturn(1);
+
+        service.updateStatus(1L, PaymentStatus.PROCESSADO_COM_FALHA);
+
+        verify(cache).onWrite(pagamentoDebito, PaymentStatus.PENDENTE_PROCESSAMENTO);
+    }
+
+    @Test
+    @DisplayName("Deve lançar um erro de concorrência quando outra requisição alterou o status antes")
+    void deveLancarErroDeConcorrenciaQuandoStatusMudouAntes() {
+        pagamentoPix.setId(1L);
+        when(repository.findById(1L)).thenReturn(Optional.of(pagamentoPix));
+        when(repository.transitionStatus(eq(1L), eq(PaymentStatus.PENDENTE_PROCESSAMENTO), eq(PaymentStatus.PROCESSADO_COM_SUCESSO), any()))
+                .thenReturn(0);
+
+        ConcurrentStatusUpdateException e = assertThrows(ConcurrentStatusUpdateException.class,
+                () -> service.updateStatus(1L, PaymentStatus.PROCESSADO_COM_SUCESSO));
+
+        assertEquals("conflito", e.getReason());
+        verify(cache, never()).onWrite(any(), any());
     }
 }
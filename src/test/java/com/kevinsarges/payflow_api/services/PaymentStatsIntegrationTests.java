@@ -0,0 +1,165 @@
+package com.kevinsarges.payflow_api.services;
+
+import com.kevinsarges.payflow_api.DTOs.PaymentDailyStatsDTO;
+import com.kevinsarges.payflow_api.DTOs.PaymentPayerStatsDTO;
+import com.kevinsarges.payflow_api.DTOs.PaymentRequestDTO;
+import com.kevinsarges.payflow_api.DTOs.PaymentStatsDTO;
+import com.kevinsarges.payflow_api.DTOs.PaymentStatsItemDTO;
+import com.kevinsarges.payflow_api.entities.Payment;
+import com.kevinsarges.payflow_api.entities.PaymentStatus;
+import com.kevinsarges.payflow_api.repositories.PaymentDailyStatsRepository;
+import com.kevinsarges.payflow_api.repositories.PaymentEventRepository;
+import com.kevinsarges.payflow_api.repositories.PaymentPayerStatsRepository;
+import com.kevinsarges.payflow_api.repositories.PaymentRepository;
+import com.kevinsarges.payflow_api.sevices.PaymentService;
+import com.kevinsarges.payflow_api.sevices.PaymentStatsService;
+import com.kevinsarges.payflow_api.utils.BusinessException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class PaymentStatsIntegrationTests {
+
+    @Autowired
+    private PaymentRepository repository;
+
+    @Autowired
+    private PaymentEventRepository eventRepository;
+
+    @Autowired
+    private PaymentDailyStatsRepository statsRepository;
+
+    @Autowired
+    private PaymentPayerStatsRepository payerStatsRepository;
+
+    @Autowired
+    private PaymentService service;
+
+    @Autowired
+    private PaymentStatsService statsService;
+
+    @AfterEach
+    void cleanup() {
+        statsService.flush();
+        repository.deleteAll();
+        eventRepository.deleteAll();
+        payerStatsRepository.deleteAll();
+    }
+
+    private Payment criar(String metodo, String valor) {
+        return criar(metodo, valor, "12345678900");
+    }
+
+    private Payment criar(String metodo, String valor, String cpfCnpj) {
+        PaymentRequestDTO dto = new PaymentRequestDTO();
+        dto.setCodigoDebito(BigInteger.ONE);
+        dto.setCpfCnpj(cpfCnpj);
+        dto.setMetodo(metodo);
+        dto.setNumeroCartao("credito".equals(metodo) ? "4111111111111111" : null);
+        dto.setValor(new BigDecimal(valor));
+        return service.create(dto);
+    }
+
+    private PaymentStatsItemDTO item(List<PaymentStatsItemDTO> itens, String chave) {
+        return itens.stream().filter(i -> i.getChave().equals(chave)).findFirst()
+                .orElse(new PaymentStatsItemDTO(chave, 0, BigDecimal.ZERO.setScale(2)));
+    }
+
+    @Test
+    @DisplayName("Deve manter os totais por status, método e dia a cada escrita, antes e depois de gravar")
+    void deveManterTotaisIncrementais() {
+        PaymentStatsDTO antes = statsService.summary(null, null);
+
+        Payment pix = criar("pix", "100.50");
+        criar("pix", "10.25");
+        Payment boleto = criar("boleto", "30.00");
+        service.updateStatus(pix.getId(), PaymentStatus.PROCESSADO_COM_SUCESSO);
+        service.deletePay(boleto.getId());
+
+        PaymentStatsDTO pendente = statsService.summary(null, null);
+        statsService.flush();
+        PaymentStatsDTO gravado = statsService.summary(null, null);
+
+        for (PaymentStatsDTO depois : List.of(pendente, gravado)) {
+            PaymentStatsItemDTO sucesso = item(depois.getPorStatus(), "PROCESSADO_COM_SUCESSO");
+            assertEquals(item(antes.getPorStatus(), "PROCESSADO_COM_SUCESSO").getQuantidade() + 1, sucesso.getQuantidade());
+            assertEquals(item(antes.getPorStatus(), "PROCESSADO_COM_SUCESSO").getValorTotal().add(new BigDecimal("100.50")),
+                    sucesso.getValorTotal());
+
+            PaymentStatsItemDTO pendentes = item(depois.getPorStatus(), "PENDENTE_PROCESSAMENTO");
+            assertEquals(item(antes.getPorStatus(), "PENDENTE_PROCESSAMENTO").getQuantidade() + 1, pendentes.getQuantidade());
+            assertEquals(item(antes.getPorStatus(), "INATIVO").getQuantidade() + 1,
+                    item(depois.getPorStatus(), "INATIVO").getQuantidade());
+
+            assertEquals(item(antes.getPorMetodo(), "PIX").getValorTotal().add(new BigDecimal("110.75")),
+                    item(depois.getPorMetodo(), "PIX").getValorTotal());
+        }
+
+        PaymentDailyStatsDTO pixPendenteHoje = gravado.getPorDia().stream()
+                .filter(d -> d.getMetodo().equals("PIX") && d.getStatus().equals("PENDENTE_PROCESSAMENTO"))
+                .findFirst().orElseThrow();
+        assertTrue(pixPendenteHoje.getEntradas() >= 2);
+        assertTrue(pixPendenteHoje.getSaidas() >= 1);
+        assertFalse(statsRepository.findAll().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve somar quantidade e valor por pagador, sem os inativos, antes e depois de gravar")
+    void deveManterTotaisPorPagador() {
+        Payment pix = criar("pix", "100.50", "11.222.333/0001-81");
+        criar("pix", "10.25", "11222333000181");
+        Payment boleto = criar("boleto", "30.00", "11222333000181");
+        criar("pix", "99.99", "98765432100");
+        service.updateStatus(pix.getId(), PaymentStatus.PROCESSADO_COM_SUCESSO);
+        service.deletePay(boleto.getId());
+
+        PaymentPayerStatsDTO pendente = statsService.payer("11.222.333/0001-81");
+        statsService.flush();
+        PaymentPayerStatsDTO gravado = statsService.payer("11222333000181");
+
+        for (PaymentPayerStatsDTO pagador : List.of(pendente, gravado)) {
+            assertEquals("11222333000181", pagador.getCpfCnpj());
+            assertEquals(2, pagador.getQuantidade());
+            assertEquals(new BigDecimal("110.75"), pagador.getValorTotal());
+            assertEquals(new BigDecimal("100.50"), item(pagador.getPorStatus(), "PROCESSADO_COM_SUCESSO").getValorTotal());
+            assertEquals(1, item(pagador.getPorStatus(), "PENDENTE_PROCESSAMENTO").getQuantidade());
+            assertEquals(new BigDecimal("30.00"), item(pagador.getPorStatus(), "INATIVO").getValorTotal());
+        }
+        assertFalse(payerStatsRepository.findByIdCpfCnpjNormalizado("11222333000181").isEmpty());
+        assertThrows(BusinessException.class, () -> statsService.payer(" "));
+    }
+
+    @Test
+    @DisplayName("Não deve contar escritas de transações desfeitas")
+    void naoDeveContarTransicaoRejeitada() {
+        Payment pix = criar("pix", "5.00");
+        service.updateStatus(pix.getId(), PaymentStatus.PROCESSADO_COM_SUCESSO);
+        PaymentStatsDTO antes = statsService.summary(null, null);
+
+        assertThrows(BusinessException.class, () -> service.deletePay(pix.getId()));
+
+        PaymentStatsDTO depois = statsService.summary(null, null);
+        assertEquals(item(antes.getPorStatus(), "INATIVO").getQuantidade(),
+                item(depois.getPorStatus(), "INATIVO").getQuantidade());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar período maior que um ano")
+    void deveRejeitarPeriodoInvalido() {
+        LocalDate hoje = LocalDate.now();
+        assertThrows(BusinessException.class, () -> statsService.summary(hoje.minusYears(2), hoje));
+        assertThrows(BusinessException.class, () -> statsService.summary(hoje, hoje.minusDays(1)));
+    }
+}
@@ -0,0 +1,163 @@
+package com.kevinsarges.payflow_api.services;
+
+import com.kevinsarges.payflow_api.DTOs.PaymentRequestDTO;
+import com.kevinsarges.payflow_api.DTOs.StatusTransitionItemDTO;
+import com.kevinsarges.payflow_api.entities.Payment;
+import com.kevinsarges.payflow_api.entities.PaymentStatus;
+import com.kevinsarges.payflow_api.repositories.PaymentEventRepository;
+import com.kevinsarges.payflow_api.repositories.PaymentRepository;
+import com.kevinsarges.payflow_api.sevices.PaymentService;
+import com.kevinsarges.payflow_api.utils.BusinessException;
+import com.kevinsarges.payflow_api.utils.ConcurrentStatusUpdateException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class PaymentStatusConcurrencyTests {
+    private static final int PAYMENTS = 200;
+    private static final int THREADS = 16;
+
+    @Autowired
+    private PaymentRepository repository;
+
+    @Autowired
+    private PaymentService service;
+
+    @Autowired
+    private PaymentEventRepository eventRepository;
+
+    @AfterEach
+    void cleanup() {
+        repository.deleteAll();
+        eventRepository.deleteAll();
+    }
+
+    private List<Long> criarPagamentos() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < PAYMENTS; i++) {
+            PaymentRequestDTO dto = new PaymentRequestDTO();
+            dto.setCodigoDebito(BigInteger.valueOf(i));
+            dto.setCpfCnpj("12345678900");
+            dto.setMetodo("PIX");
+            dto.setValor(BigDecimal.TEN);
+            ids.add(service.create(dto).getId());
+        }
+        return ids;
+    }
+
+    @Test
+    @DisplayName("Deve aplicar exatamente uma transição por pagamento quando várias threads disputam o mesmo status")
+    void deveAplicarUmaTransicaoPorPagamentoSobConcorrencia() throws Exception {
+        List<Long> ids = criarPagamentos();
+
+        AtomicInteger sucessos = new AtomicInteger();
+        AtomicInteger conflitos = new AtomicInteger();
+        AtomicInteger rejeitadas = new AtomicInteger();
+        AtomicInteger inesperados = new AtomicInteger();
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        for (int t = 0; t < THREADS; t++) {
+            PaymentStatus alvo = t % 2 == 0 ? PaymentStatus.PROCESSADO_COM_SUCESSO : PaymentStatus.PROCESSADO_COM_FALHA;
+            executor.submit(() -> {
+                largada.await();
+                for (Long id : ids) {
+                    try {
+                        service.updateStatus(id, alvo);
+                        sucessos.incrementAndGet();
+                    } catch (ConcurrentStatusUpdateException e) {
+                        conflitos.incrementAndGet();
+                    } catch (BusinessException e) {
+                        rejeitadas.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        inesperados.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+
+        largada.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(2, TimeUnit.MINUTES));
+
+        assertEquals(0, inesperados.get());
+        assertEquals(PAYMENTS, sucessos.get());
+        assertEquals(PAYMENTS * (THREADS - 1), conflitos.get() + rejeitadas.get());
+
+        for (Payment payment : repository.findAllById(ids)) {
+            assertNotEquals(PaymentStatus.PENDENTE_PROCESSAMENTO, payment.getStatus());
+            assertEquals(1L, payment.getVersion());
+            assertEquals(2, eventRepository.findByPaymentIdOrderByVersaoAscIdAsc(payment.getId()).size());
+        }
+    }
+
+    @Test
+    @DisplayName("O lote só deve contar como sucesso as transições que ele mesmo aplicou quando disputa com o updateStatus")
+    void deveDecidirOSucessoDoLotePorId() throws Exception {
+        List<Long> ids = criarPagamentos();
+        List<StatusTransitionItemDTO> itens = new ArrayList<>();
+        for (Long id : ids) {
+            StatusTransitionItemDTO item = new StatusTransitionItemDTO();
+            item.setId(id);
+            item.setNovoStatus(PaymentStatus.PROCESSADO_COM_SUCESSO.name());
+            itens.add(item);
+        }
+
+        AtomicInteger sucessos = new AtomicInteger();
+        AtomicInteger inesperados = new AtomicInteger();
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        Future<Integer> lote = executor.submit(() -> {
+            largada.await();
+            return service.updateStatusBatch(itens).getAtualizados();
+        });
+        for (int t = 1; t < THREADS; t++) {
+            executor.submit(() -> {
+                largada.await();
+                for (Long id : ids) {
+                    try {
+                        service.updateStatus(id, PaymentStatus.PROCESSADO_COM_SUCESSO);
+                        sucessos.incrementAndGet();
+                    } catch (BusinessException e) {
+                        // Conflito ou pagamento já processado: outra thread ou o lote aplicou a transição
+                    } catch (RuntimeException e) {
+                        inesperados.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+
+        largada.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(2, TimeUnit.MINUTES));
+
+        assertEquals(0, inesperados.get());
+        assertEquals(PAYMENTS, sucessos.get() + lote.get());
+        for (Payment payment : repository.findAllById(ids)) {
+            assertEquals(PaymentStatus.PROCESSADO_COM_SUCESSO, payment.getStatus());
+            assertEquals(1L, payment.getVersion());
+            assertEquals(2, eventRepository.findByPaymentIdOrderByVersaoAscIdAsc(payment.getId()).size());
+        }
+    }
+}
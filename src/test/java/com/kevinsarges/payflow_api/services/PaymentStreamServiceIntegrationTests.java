@@ -0,0 +1,66 @@
+package com.kevinsarges.payflow_api.services;
+
+import com.kevinsarges.payflow_api.DTOs.ImportPaymentResponseDTO;
+import com.kevinsarges.payflow_api.repositories.PaymentRepository;
+import com.kevinsarges.payflow_api.sevices.PaymentStreamService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+@ActiveProfiles("test")
+class PaymentStreamServiceIntegrationTests {
+
+    @Autowired
+    private PaymentRepository repository;
+
+    @Autowired
+    private PaymentStreamService streamService;
+
+    private static final String NDJSON = """
+            {"codigoDebito": 1, "cpfCnpj": "12345678900", "metodo": "pix", "valor": 10.5}
+            {"codigoDebito": 2, "cpfCnpj": "12345678900", "metodo": "credito", "valor": 20}
+            {"codigoDebito": 3, "cpfCnpj":
+            
+            {"codigoDebito": 4, "cpfCnpj": "98765432100", "metodo": "boleto", "valor": 30}
+            """;
+
+    @Test
+    @DisplayName("Deve importar um NDJSON e informar as linhas rejeitadas")
+    void deveImportarNdjson() throws Exception {
+        ImportPaymentResponseDTO result = streamService.importNdjson(
+                new ByteArrayInputStream(NDJSON.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(4, result.getTotal());
+        assertEquals(2, result.getCriados());
+        assertEquals(2, result.getRejeitados());
+        assertEquals(2, result.getErros().get(0).getLinha());
+        assertEquals("Número do cartão obrigatório para pagamento com cartão", result.getErros().get(0).getErro());
+        assertEquals(3, result.getErros().get(1).getLinha());
+        assertEquals(2, repository.count());
+    }
+
+    @Test
+    @DisplayName("Deve exportar todos os pagamentos em NDJSON, um por linha")
+    void deveExportarNdjson() throws Exception {
+        streamService.importNdjson(new ByteArrayInputStream(NDJSON.getBytes(StandardCharsets.UTF_8)));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        streamService.exportNdjson(out);
+
+        String[] linhas = out.toString(StandardCharsets.UTF_8).strip().split("\n");
+        assertEquals(2, linhas.length);
+        assertTrue(linhas[0].contains("\"codigoDebito\":1"));
+        assertTrue(linhas[1].contains("\"codigoDebito\":4"));
+    }
+}
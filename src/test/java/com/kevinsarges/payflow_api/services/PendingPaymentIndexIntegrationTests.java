@@ -0,0 +1,169 @@
+package com.kevinsarges.payflow_api.services;
+
+import com.kevinsarges.payflow_api.DTOs.PaymentRequestDTO;
+import com.kevinsarges.payflow_api.DTOs.StatusTransitionItemDTO;
+import com.kevinsarges.payflow_api.entities.Payment;
+import com.kevinsarges.payflow_api.entities.PaymentMethod;
+import com.kevinsarges.payflow_api.entities.PaymentStatus;
+import com.kevinsarges.payflow_api.repositories.PaymentEventRepository;
+import com.kevinsarges.payflow_api.repositories.PaymentRepository;
+import com.kevinsarges.payflow_api.sevices.PaymentService;
+import com.kevinsarges.payflow_api.sevices.PendingPaymentIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class PendingPaymentIndexIntegrationTests {
+
+    @Autowired
+    private PaymentRepository repository;
+
+    @Autowired
+    private PaymentEventRepository eventRepository;
+
+    @Autowired
+    private PaymentService service;
+
+    @Autowired
+    private PendingPaymentIndex index;
+
+    // Outras classes apagam os pagamentos direto no repositório, sem passar pelo índice
+    @BeforeEach
+    void setup() {
+        repository.deleteAll();
+        eventRepository.deleteAll();
+        index.rebuild();
+    }
+
+    @AfterEach
+    void cleanup() {
+        repository.deleteAll();
+        eventRepository.deleteAll();
+        index.rebuild();
+    }
+
+    private Payment criarPagamento(String metodo) {
+        PaymentRequestDTO dto = new PaymentRequestDTO();
+        dto.setCodigoDebito(BigInteger.ONE);
+        dto.setCpfCnpj("12345678900");
+        dto.setMetodo(metodo);
+        if (metodo.equals("CREDITO") || metodo.equals("DEBITO")) dto.setNumeroCartao("5555444433332222");
+        dto.setValor(BigDecimal.TEN);
+        return service.create(dto);
+    }
+
+    private StatusTransitionItemDTO item(Long id, PaymentStatus novoStatus) {
+        StatusTransitionItemDTO item = new StatusTransitionItemDTO();
+        item.setId(id);
+        item.setNovoStatus(novoStatus.name());
+        return item;
+    }
+
+    @Test
+    @DisplayName("Deve acompanhar create, updateStatus, lote e deletePay depois do commit")
+    void deveAcompanharAsEscritas() {
+        Payment pix = criarPagamento("PIX");
+        criarPagamento("PIX");
+        Payment boleto = criarPagamento("BOLETO");
+
+        assertTrue(index.isReady());
+        assertEquals(2L, index.counts().get(PaymentMethod.PIX));
+        assertEquals(1L, index.counts().get(PaymentMethod.BOLETO));
+
+        service.updateStatus(pix.getId(), PaymentStatus.PROCESSADO_COM_FALHA);
+        service.deletePay(boleto.getId());
+        assertEquals(1L, index.counts().get(PaymentMethod.PIX));
+        assertEquals(0L, index.counts().get(PaymentMethod.BOLETO));
+
+        // O retry devolve a falha para a fila pelo caminho em lote
+        service.updateStatusBatch(List.of(item(pix.getId(), PaymentStatus.PENDENTE_PROCESSAMENTO)));
+        assertEquals(2L, index.counts().get(PaymentMethod.PIX));
+    }
+
+    @Test
+    @DisplayName("Deve montar o índice a partir dos pendentes gravados no banco")
+    void deveMontarAPartirDoBanco() {
+        criarPagamento("CREDITO");
+        Payment gravadoDireto = new Payment();
+        gravadoDireto.setCodigoDebito(BigInteger.TWO);
+        gravadoDireto.setCpfCnpj("12345678900");
+        gravadoDireto.setMetodo(PaymentMethod.CREDITO);
+        gravadoDireto.setValor(BigDecimal.ONE);
+        gravadoDireto.setStatus(PaymentStatus.PENDENTE_PROCESSAMENTO);
+        repository.save(gravadoDireto);
+
+        assertEquals(1L, index.counts().get(PaymentMethod.CREDITO));
+        // A remontagem periódica vem desligada: só rebuild explícito (ou o restart) enxerga o que foi gravado direto
+        index.resync();
+        assertEquals(1L, index.counts().get(PaymentMethod.CREDITO));
+        assertEquals(2, index.rebuild());
+        assertEquals(2L, index.counts().get(PaymentMethod.CREDITO));
+    }
+
+    @Test
+    @DisplayName("claim deve repartir os ids entre os métodos sem repetir e release deve devolvê-los")
+    void deveReservarEDevolver() {
+        for (int i = 0; i < 6; i++) criarPagamento("PIX");
+        for (int i = 0; i < 2; i++) criarPagamento("DEBITO");
+
+        Map<PaymentMethod, long[]> primeiro = index.claim(4, EnumSet.allOf(PaymentMethod.class));
+        assertEquals(2, primeiro.get(PaymentMethod.PIX).length);
+        assertEquals(2, primeiro.get(PaymentMethod.DEBITO).length);
+
+        Map<PaymentMethod, long[]> segundo = index.claim(10, EnumSet.of(PaymentMethod.PIX));
+        assertEquals(4, segundo.get(PaymentMethod.PIX).length);
+        assertTrue(index.claim(10, EnumSet.allOf(PaymentMethod.class)).isEmpty());
+
+        Set<Long> ids = new HashSet<>();
+        for (long id : primeiro.get(PaymentMethod.PIX)) ids.add(id);
+        for (long id : segundo.get(PaymentMethod.PIX)) ids.add(id);
+        assertEquals(6, ids.size());
+
+        index.release(primeiro.get(PaymentMethod.DEBITO)[0], PaymentMethod.DEBITO);
+        assertEquals(1L, index.counts().get(PaymentMethod.DEBITO));
+        assertEquals(0L, index.counts().get(PaymentMethod.PIX));
+    }
+
+    @Test
+    @DisplayName("release com prazo deve segurar o id fora do claim até a reserva vencer, inclusive depois de rebuild")
+    void deveSegurarIdDevolvidoAteAReservaVencer() throws InterruptedException {
+        Payment curto = criarPagamento("PIX");
+        Payment longo = criarPagamento("PIX");
+        assertEquals(2, index.claim(10, EnumSet.of(PaymentMethod.PIX)).get(PaymentMethod.PIX).length);
+
+        index.release(curto.getId(), PaymentMethod.PIX, Instant.now().plusMillis(300));
+        index.release(longo.getId(), PaymentMethod.PIX, Instant.now().plus(Duration.ofHours(1)));
+        assertTrue(index.claim(10, EnumSet.of(PaymentMethod.PIX)).isEmpty());
+        assertEquals(2L, index.counts().get(PaymentMethod.PIX));
+
+        // O banco ainda tem os dois como pendentes, mas a montagem não devolve ao claim quem está esperando
+        index.rebuild();
+        assertTrue(index.claim(10, EnumSet.of(PaymentMethod.PIX)).isEmpty());
+
+        Thread.sleep(400);
+        Map<PaymentMethod, long[]> vencido = index.claim(10, EnumSet.of(PaymentMethod.PIX));
+        assertArrayEquals(new long[]{curto.getId()}, vencido.get(PaymentMethod.PIX));
+
+        // Saiu de pendente enquanto esperava: deixa de contar e não volta
+        service.deletePay(longo.getId());
+        assertEquals(0L, index.counts().get(PaymentMethod.PIX));
+    }
+}
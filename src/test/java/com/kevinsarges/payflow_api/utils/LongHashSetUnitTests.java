@@ -0,0 +1,64 @@
+package com.kevinsarges.payflow_api.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongHashSetUnitTests {
+
+    @Test
+    @DisplayName("Deve se comportar como um HashSet<Long> ao crescer e encolher com inclusões e remoções aleatórias")
+    void deveEquivalerAoHashSet() {
+        LongHashSet conjunto = new LongHashSet();
+        Set<Long> esperado = new HashSet<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 200_000; i++) {
+            long valor = 1 + random.nextInt(20_000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(esperado.remove(valor), conjunto.remove(valor));
+            } else {
+                assertEquals(esperado.add(valor), conjunto.add(valor));
+            }
+        }
+
+        assertEquals(esperado.size(), conjunto.size());
+        for (long valor = 1; valor <= 20_000; valor++) {
+            assertEquals(esperado.contains(valor), conjunto.contains(valor));
+        }
+
+        for (long valor : esperado) assertTrue(conjunto.remove(valor));
+        assertTrue(conjunto.isEmpty());
+    }
+
+    @Test
+    @DisplayName("next deve percorrer todos os elementos em rodízio sem removê-los")
+    void devePercorrerEmRodizio() {
+        LongHashSet conjunto = new LongHashSet();
+        for (long valor = 1; valor <= 100; valor++) conjunto.add(valor);
+
+        Set<Long> vistos = new HashSet<>();
+        long[] destino = new long[30];
+        for (int i = 0; i < 4; i++) {
+            int copiados = conjunto.next(destino, 0, 30);
+            for (int j = 0; j < copiados; j++) vistos.add(destino[j]);
+        }
+
+        assertEquals(100, vistos.size());
+        assertEquals(100, conjunto.size());
+    }
+
+    @Test
+    @DisplayName("Deve recusar ids não positivos, que se confundiriam com a posição vazia")
+    void deveRecusarIdsNaoPositivos() {
+        LongHashSet conjunto = new LongHashSet();
+
+        assertThrows(IllegalArgumentException.class, () -> conjunto.add(0));
+        assertThrows(IllegalArgumentException.class, () -> conjunto.add(-1));
+    }
+}
@@ -0,0 +1,121 @@
+package com.kevinsarges.payflow_api.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitFilterUnitTests {
+    private final AtomicLong relogio = new AtomicLong(1_000_000_000L);
+    private MeterRegistry meterRegistry;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new RateLimitFilter(1, 2, 1000, Duration.ofMinutes(10),
+                Map.of(RateLimitFilter.Grupo.FILTER, 1, RateLimitFilter.Grupo.BULK, 1, RateLimitFilter.Grupo.DEFAULT, 10),
+                Set.of("cliente-a", "cliente-b"), new ObjectMapper().registerModule(new JavaTimeModule()), meterRegistry, relogio::get);
+    }
+
+    private MockHttpServletRequest request(String method, String uri, String apiKey) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        if (apiKey != null) request.addHeader(RateLimitFilter.API_KEY, apiKey);
+        return request;
+    }
+
+    private MockHttpServletResponse executar(MockHttpServletRequest request) throws IOException, ServletException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private double decisoes(String grupo, String decisao) {
+        return meterRegistry.counter("payflow.ratelimit.decisions", "group", grupo, "decision", decisao).count();
+    }
+
+    @Test
+    @DisplayName("Deve liberar o burst do cliente e responder 429 com Retry-After depois dele")
+    void deveResponder429QuandoBucketEsgotar() throws Exception {
+        assertEquals(200, executar(request("GET", "/payments", "cliente-a")).getStatus());
+        assertEquals(200, executar(request("GET", "/payments", "cliente-a")).getStatus());
+
+        MockHttpServletResponse rejeitada = executar(request("GET", "/payments", "cliente-a"));
+
+        assertEquals(429, rejeitada.getStatus());
+        assertEquals("1", rejeitada.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals("0", rejeitada.getHeader("X-RateLimit-Remaining"));
+        assertTrue(rejeitada.getContentAsString().contains("Limite de requisições excedido"));
+        assertEquals(2, decisoes("default", "allowed"));
+        assertEquals(1, decisoes("default", "rate_limited"));
+    }
+
+    @Test
+    @DisplayName("Deve manter um bucket por API key e repor os tokens com o tempo")
+    void deveSepararClientesEReporTokens() throws Exception {
+        executar(request("GET", "/payments", "cliente-a"));
+        executar(request("GET", "/payments", "cliente-a"));
+
+        assertEquals(429, executar(request("GET", "/payments", "cliente-a")).getStatus());
+        assertEquals(200, executar(request("GET", "/payments", "cliente-b")).getStatus());
+
+        relogio.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertEquals(200, executar(request("GET", "/payments", "cliente-a")).getStatus());
+    }
+
+    @Test
+    @DisplayName("Deve usar o IP para chaves desconhecidas, sem um bucket novo por chave")
+    void deveUsarOIpParaChavesDesconhecidas() throws Exception {
+        assertEquals(200, executar(request("GET", "/payments", "aleatoria-1")).getStatus());
+        assertEquals(200, executar(request("GET", "/payments", "aleatoria-2")).getStatus());
+        assertEquals(429, executar(request("GET", "/payments", "aleatoria-3")).getStatus());
+        assertEquals(429, executar(request("GET", "/payments", null)).getStatus());
+
+        MockHttpServletRequest outroIp = request("GET", "/payments", "aleatoria-4");
+        outroIp.setRemoteAddr("10.0.0.2");
+        assertEquals(200, executar(outroIp).getStatus());
+        assertEquals(200, executar(request("GET", "/payments", "cliente-a")).getStatus());
+    }
+
+    @Test
+    @DisplayName("Deve limitar as requisições simultâneas por grupo de rotas")
+    void deveLimitarConcorrenciaPorRota() throws Exception {
+        MockHttpServletResponse[] concorrente = new MockHttpServletResponse[1];
+        MockHttpServletResponse primeira = new MockHttpServletResponse();
+
+        filter.doFilter(request("POST", "/payments/filter", "cliente-a"), primeira,
+                (req, res) -> concorrente[0] = executar(request("POST", "/payments/filter", "cliente-b")));
+
+        assertEquals(200, primeira.getStatus());
+        assertEquals(429, concorrente[0].getStatus());
+        assertEquals(1, decisoes("filter", "concurrency_limited"));
+        assertEquals(200, executar(request("POST", "/payments/filter", "cliente-b")).getStatus());
+        assertEquals(0, meterRegistry.get("payflow.ratelimit.in_flight").tag("group", "filter").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Não deve limitar rotas fora de /payments")
+    void naoDeveLimitarOutrasRotas() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, executar(request("GET", "/actuator/health", "cliente-a")).getStatus());
+        }
+        assertEquals(0, decisoes("default", "allowed"));
+    }
+}